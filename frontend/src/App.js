@@ -1,4 +1,4 @@
-import React, { useState, useEffect } from 'react';
+import React, { useState, useEffect, useCallback } from 'react';
 import './App.css';
 import AuthWindow from './AuthWindow';
 import GameDashboard from './GameDashboard';
@@ -20,6 +20,12 @@ function App() {
         setUser(userData);
     };
 
+    // The server swaps in a new token whenever the old one no longer describes the game.
+    const handleTokenRefresh = useCallback((token) => {
+        localStorage.setItem('token', token);
+        setUser((current) => current ? { ...current, token } : current);
+    }, []);
+
     const handleLogout = () => {
         localStorage.removeItem('token');
         localStorage.removeItem('userId');
@@ -34,6 +40,7 @@ function App() {
                     userId={user.userId}
                     username={user.username}
                     token={user.token}
+                    onTokenRefresh={handleTokenRefresh}
                     onLogout={handleLogout}
                 />
             ) : (
@@ -2,7 +2,7 @@ import React, { useState, useEffect } from 'react';
 import axios from 'axios';
 import './GameDashboard.css';
 
-function GameDashboard({ userId, username, token, onLogout }) {
+function GameDashboard({ userId, username, token, onTokenRefresh, onLogout }) {
     const [gameState, setGameState] = useState(null);
     const [loading, setLoading] = useState(false);
     const [error, setError] = useState('');
@@ -11,6 +11,7 @@ function GameDashboard({ userId, username, token, onLogout }) {
     const [inCombat, setInCombat] = useState(false);
     const [combatLog, setCombatLog] = useState([]);
     const [recentCombatLog, setRecentCombatLog] = useState([]);
+    const [combatTarget, setCombatTarget] = useState(null);
 
     const getAuthHeaders = () => ({
         headers: {
@@ -18,6 +19,17 @@ function GameDashboard({ userId, username, token, onLogout }) {
         }
     });
 
+    useEffect(() => {
+        const interceptor = axios.interceptors.response.use((res) => {
+            const refreshed = res.headers['x-refreshed-token'];
+            if (refreshed) {
+                onTokenRefresh(refreshed);
+            }
+            return res;
+        });
+        return () => axios.interceptors.response.eject(interceptor);
+    }, [onTokenRefresh]);
+
     useEffect(() => {
         fetchGameState();
     }, [userId]);
@@ -127,7 +139,8 @@ function GameDashboard({ userId, username, token, onLogout }) {
         setError('');
         try {
             const res = await axios.post('http://localhost:8080/api/game/combat', {
-                action
+                action,
+                ...(combatTarget ? { target: combatTarget } : {})
             }, getAuthHeaders());
 
             console.log('Combat response:', res.data);
@@ -153,6 +166,9 @@ function GameDashboard({ userId, username, token, onLogout }) {
             } else {
                 setInCombat(false);
             }
+            if (!res.data?.combatState?.combatActive) {
+                setCombatTarget(null);
+            }
         } catch (err) {
             if (err.response?.status === 401) {
                 setError('Session expired. Please login again.');
@@ -233,7 +249,7 @@ function GameDashboard({ userId, username, token, onLogout }) {
                                 </div>
                                 <div className="stat-card">
                                     <span className="stat-label">Items Collected</span>
-                                    <span className="stat-value">{playerCharacter.inventory?.length || 0}</span>
+                                    <span className="stat-value">{(playerCharacter.inventory || []).reduce((total, item) => total + (item.quantity || 1), 0)}</span>
                                 </div>
                             </div>
                         </div>
@@ -258,7 +274,7 @@ function GameDashboard({ userId, username, token, onLogout }) {
                                 <div className="inventory-grid">
                                     {playerCharacter.inventory.map((item, index) => (
                                         <div key={index} className="inventory-item">
-                                            <span className="item-name">{item.name}</span>
+                                            <span className="item-name">{item.name || item.id}{item.quantity > 1 && ` x${item.quantity}`}</span>
                                         </div>
                                     ))}
                                 </div>
@@ -297,6 +313,7 @@ function GameDashboard({ userId, username, token, onLogout }) {
         const cs = gameState.combatState;
         const playerHpPercent = (cs.playerCurrentHealth / cs.playerMaxHealth) * 100;
         const enemyHpPercent = (cs.enemyCurrentHealth / cs.enemyMaxHealth) * 100;
+        const enemies = (cs.combatants || []).filter(c => c.side === 'enemy');
 
         return (
             <div className="dashboard-container">
@@ -316,15 +333,33 @@ function GameDashboard({ userId, username, token, onLogout }) {
                                 <div className="hp-bar player-hp" style={{ width: `${playerHpPercent}%` }}></div>
                             </div>
                         </div>
-                        <div className="combat-hp-card">
-                            <div className="hp-header">
-                                <span className="hp-label">{cs.enemyName}</span>
-                                <span className="hp-value">{cs.enemyCurrentHealth}/{cs.enemyMaxHealth}</span>
-                            </div>
-                            <div className="hp-bar-container">
-                                <div className="hp-bar enemy-hp" style={{ width: `${enemyHpPercent}%` }}></div>
+                        {enemies.length > 1 ? (
+                            enemies.map(enemy => (
+                                <div
+                                    key={enemy.id}
+                                    className={`combat-hp-card combat-target${combatTarget === enemy.id ? ' combat-target-selected' : ''}${enemy.standing ? '' : ' combat-target-down'}`}
+                                    onClick={() => enemy.standing && setCombatTarget(enemy.id)}
+                                >
+                                    <div className="hp-header">
+                                        <span className="hp-label">{enemy.name}</span>
+                                        <span className="hp-value">{enemy.currentHealth}/{enemy.maxHealth}</span>
+                                    </div>
+                                    <div className="hp-bar-container">
+                                        <div className="hp-bar enemy-hp" style={{ width: `${(enemy.currentHealth / enemy.maxHealth) * 100}%` }}></div>
+                                    </div>
+                                </div>
+                            ))
+                        ) : (
+                            <div className="combat-hp-card">
+                                <div className="hp-header">
+                                    <span className="hp-label">{cs.enemyName}</span>
+                                    <span className="hp-value">{cs.enemyCurrentHealth}/{cs.enemyMaxHealth}</span>
+                                </div>
+                                <div className="hp-bar-container">
+                                    <div className="hp-bar enemy-hp" style={{ width: `${enemyHpPercent}%` }}></div>
+                                </div>
                             </div>
-                        </div>
+                        )}
                     </div>
 
                     <div className="combat-log">
@@ -407,7 +442,7 @@ function GameDashboard({ userId, username, token, onLogout }) {
                             {playerCharacter.inventory.map((item, index) => (
                                 <div key={index} className="inventory-item">
                                     <div className="item-header">
-                                        <span className="item-name">{item.name}</span>
+                                        <span className="item-name">{item.name || item.id}{item.quantity > 1 && ` x${item.quantity}`}</span>
                                         {item.goldValue && <span className="item-gold">💰 {item.goldValue}g</span>}
                                     </div>
                                     {item.type && <span className="item-type">Type: {item.type}</span>}
@@ -0,0 +1,45 @@
+package com.osu.textventures.content;
+
+import com.osu.textventures.models.Choice;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public final class ChoiceConditions {
+
+    private ChoiceConditions() {
+    }
+
+    public static Map<String, Boolean> requiredFlags(Choice choice) {
+        Map<String, Object> condition = choice.getCondition();
+        Map<String, Boolean> required = new LinkedHashMap<>();
+        if (condition == null || condition.isEmpty()) {
+            return required;
+        }
+
+        if (condition.containsKey("flag") && condition.containsKey("value")) {
+            Object flagName = condition.get("flag");
+            Object requiredValue = condition.get("value");
+            if (flagName instanceof String name && requiredValue instanceof Boolean value) {
+                required.put(name, value);
+                return required;
+            }
+        }
+
+        for (Map.Entry<String, Object> entry : condition.entrySet()) {
+            if (entry.getValue() instanceof Boolean value) {
+                required.put(entry.getKey(), value);
+            }
+        }
+        return required;
+    }
+
+    public static boolean isAvailable(Choice choice, Map<String, Boolean> playerFlags) {
+        for (Map.Entry<String, Boolean> required : requiredFlags(choice).entrySet()) {
+            if (!playerFlags.getOrDefault(required.getKey(), false).equals(required.getValue())) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
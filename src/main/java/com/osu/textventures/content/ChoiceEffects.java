@@ -0,0 +1,55 @@
+package com.osu.textventures.content;
+
+import com.osu.textventures.models.Choice;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+public final class ChoiceEffects {
+
+    public static final String MOVE_LOCATION = "move_location";
+    public static final String FIND_ITEM = "find_item";
+    public static final String START_COMBAT = "start_combat";
+    public static final String SET_FLAG = "set_flag";
+    public static final String DISPLAY_TEXT = "display_text";
+
+    // Content collections the built-in effects' target ids point into.
+    public static final Map<String, String> TARGET_COLLECTIONS = Map.of(
+            MOVE_LOCATION, "locations",
+            FIND_ITEM, "items",
+            START_COMBAT, "enemies");
+
+    // Story flags set when a particular enemy is beaten, on top of its defeated_ flag.
+    private static final Map<String, String> DEFEAT_STORY_FLAGS = Map.of("grumpy_fisherman", "fisherman_distracted");
+
+    private ChoiceEffects() {
+    }
+
+    /** The effects a choice applies, in order: its primary effect followed by any chained {@code effects}. */
+    public static List<Choice.Effect> of(Choice choice) {
+        List<Choice.Effect> effects = new ArrayList<>(1 + (choice.getEffects() != null ? choice.getEffects().size() : 0));
+        effects.add(new Choice.Effect(choice.getEffectType(), choice.getTargetId(), choice.getFlagToSet()));
+        if (choice.getEffects() != null) {
+            effects.addAll(choice.getEffects());
+        }
+        return effects;
+    }
+
+    /** The flags winning a fight against the enemy sets: its {@code defeated_} flag and any story flag tied to it. */
+    public static List<String> defeatFlags(String enemyId) {
+        String storyFlag = DEFEAT_STORY_FLAGS.get(enemyId);
+        return storyFlag != null ? List.of("defeated_" + enemyId, storyFlag) : List.of("defeated_" + enemyId);
+    }
+
+    /** Where the player ends up after the choice: the target of its last move, or null if it does not move. */
+    public static String destination(Choice choice) {
+        String destination = null;
+        for (Choice.Effect effect : of(choice)) {
+            if (MOVE_LOCATION.equals(effect.getType()) && effect.getTargetId() != null) {
+                destination = effect.getTargetId();
+            }
+        }
+        return destination;
+    }
+}
@@ -0,0 +1,300 @@
+package com.osu.textventures.content;
+
+import com.google.cloud.firestore.DocumentReference;
+import com.google.cloud.firestore.DocumentSnapshot;
+import com.google.cloud.firestore.Firestore;
+import com.google.firebase.cloud.FirestoreClient;
+import com.osu.textventures.models.Choice;
+import com.osu.textventures.models.Enemy;
+import com.osu.textventures.models.Item;
+import com.osu.textventures.models.Location;
+import com.osu.textventures.utils.FirestoreGuard;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Short-lived per-node cache of content documents for on-demand content mode. After a turn,
+ * {@link #prefetchAround} loads in the background whatever the location's choices can lead to (up to
+ * {@code fan-out} documents), so the next {@link TurnReadPlan} usually finds its content here. Entries expire
+ * after {@code ttl-ms} so content edits still show up quickly, and the oldest entries go first once the estimated
+ * size exceeds {@code max-bytes}. The content beans are mutable, so every lookup hands out its own copy.
+ */
+@Component
+public class ContentPrefetcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(ContentPrefetcher.class);
+
+    static final Map<String, Class<?>> CONTENT_TYPES = Map.of(
+            "locations", Location.class, "enemies", Enemy.class, "items", Item.class);
+
+    private final Firestore db = FirestoreClient.getFirestore();
+    private final FirestoreGuard guard;
+
+    @Value("${content.prefetch.enabled:true}")
+    private boolean enabled;
+
+    @Value("${content.prefetch.fan-out:8}")
+    private int fanOut;
+
+    @Value("${content.prefetch.max-bytes:16777216}")
+    private long maxBytes;
+
+    @Value("${content.prefetch.ttl-ms:30000}")
+    private long ttlMs;
+
+    @Value("${content.prefetch.threads:2}")
+    private int threads;
+
+    private static final class Entry {
+        final Object value;
+        final long expiresAt;
+        final long bytes;
+        final boolean prefetched;
+        boolean used;
+
+        Entry(Object value, long expiresAt, long bytes, boolean prefetched) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+            this.bytes = bytes;
+            this.prefetched = prefetched;
+        }
+    }
+
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>();
+    private long totalBytes;
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+    private ThreadPoolExecutor executor;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder prefetchBatches = new LongAdder();
+    private final LongAdder prefetchedDocuments = new LongAdder();
+    private final LongAdder prefetchedUsed = new LongAdder();
+    private final LongAdder prefetchedWasted = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public ContentPrefetcher(FirestoreGuard guard) {
+        this.guard = guard;
+    }
+
+    @PostConstruct
+    public void init() {
+        // Prefetching is an optimisation: when the queue is full the work is rejected and simply dropped.
+        executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(256),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "content-prefetch");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    private static String key(String collection, String id) {
+        return collection + "/" + id;
+    }
+
+    /** The cached document, or null. Counts a hit when found; misses are counted by the reader that goes to Firestore. */
+    public Object lookup(String collection, String id) {
+        if (!enabled) {
+            return null;
+        }
+        synchronized (entries) {
+            String key = key(collection, id);
+            Entry entry = entries.get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (entry.expiresAt < System.currentTimeMillis()) {
+                remove(key);
+                return null;
+            }
+            if (entry.prefetched && !entry.used) {
+                prefetchedUsed.increment();
+            }
+            entry.used = true;
+            hits.increment();
+            return copyOf(entry.value);
+        }
+    }
+
+    private static Object copyOf(Object value) {
+        if (value instanceof Location location) {
+            return location.copy();
+        }
+        if (value instanceof Enemy enemy) {
+            return enemy.copy();
+        }
+        if (value instanceof Item item) {
+            return item.copy();
+        }
+        return value;
+    }
+
+    public void recordMisses(int count) {
+        misses.add(count);
+    }
+
+    public void store(String collection, String id, Object value) {
+        store(collection, id, value, false);
+    }
+
+    private void store(String collection, String id, Object value, boolean prefetched) {
+        if (!enabled || value == null) {
+            return;
+        }
+        long bytes = estimateBytes(value);
+        synchronized (entries) {
+            String key = key(collection, id);
+            if (entries.containsKey(key)) {
+                remove(key);
+            }
+            entries.put(key, new Entry(copyOf(value), System.currentTimeMillis() + ttlMs, bytes, prefetched));
+            totalBytes += bytes;
+
+            Iterator<Map.Entry<String, Entry>> oldest = entries.entrySet().iterator();
+            while (totalBytes > maxBytes && oldest.hasNext()) {
+                Entry evicted = oldest.next().getValue();
+                oldest.remove();
+                totalBytes -= evicted.bytes;
+                evictions.increment();
+                if (evicted.prefetched && !evicted.used) {
+                    prefetchedWasted.increment();
+                }
+            }
+        }
+    }
+
+    private void remove(String key) {
+        Entry entry = entries.remove(key);
+        if (entry != null) {
+            totalBytes -= entry.bytes;
+            if (entry.prefetched && !entry.used) {
+                prefetchedWasted.increment();
+            }
+        }
+    }
+
+    /** Queues a background load of the documents the location's choices lead to. Returns immediately. */
+    public void prefetchAround(Location location) {
+        if (!enabled || location == null || location.getAvailableChoices() == null) {
+            return;
+        }
+
+        List<DocumentReference> references = new ArrayList<>();
+        for (Choice choice : location.getAvailableChoices()) {
+            for (Choice.Effect effect : ChoiceEffects.of(choice)) {
+                if (references.size() >= fanOut) {
+                    break;
+                }
+                String collection = ChoiceEffects.TARGET_COLLECTIONS.get(String.valueOf(effect.getType()));
+                if (collection == null || effect.getTargetId() == null) {
+                    continue;
+                }
+                String key = key(collection, effect.getTargetId());
+                boolean cached;
+                synchronized (entries) {
+                    Entry entry = entries.get(key);
+                    cached = entry != null && entry.expiresAt > System.currentTimeMillis();
+                }
+                if (!cached && inFlight.add(key)) {
+                    references.add(db.collection(collection).document(effect.getTargetId()));
+                }
+            }
+        }
+        if (references.isEmpty()) {
+            return;
+        }
+
+        try {
+            executor.execute(() -> prefetch(location, references));
+            prefetchBatches.increment();
+        } catch (RejectedExecutionException e) {
+            // Nothing will load these, so a later turn must be free to queue them again.
+            release(references);
+        }
+    }
+
+    private void prefetch(Location location, List<DocumentReference> references) {
+        try {
+            for (DocumentSnapshot snapshot : guard.await(db.getAll(references.toArray(new DocumentReference[0])))) {
+                String collection = snapshot.getReference().getParent().getId();
+                if (snapshot.exists()) {
+                    store(collection, snapshot.getId(), snapshot.toObject(CONTENT_TYPES.get(collection)), true);
+                    prefetchedDocuments.increment();
+                }
+            }
+        } catch (Exception e) {
+            logger.debug("Content prefetch around {} failed: {}", location.getId(), e.getMessage());
+        } finally {
+            release(references);
+        }
+    }
+
+    private void release(List<DocumentReference> references) {
+        references.forEach(reference -> inFlight.remove(key(reference.getParent().getId(), reference.getId())));
+    }
+
+    // Rough heap estimate: two bytes per character plus a fixed overhead per object.
+    private static long estimateBytes(Object value) {
+        long bytes = 64;
+        if (value instanceof Location location) {
+            bytes += chars(location.getId()) + chars(location.getName()) + chars(location.getDescription())
+                    + chars(location.getEnemyPresentId());
+            if (location.getAvailableChoices() != null) {
+                for (Choice choice : location.getAvailableChoices()) {
+                    bytes += 96 + chars(choice.getId()) + chars(choice.getText()) + chars(choice.getEffectType())
+                            + chars(choice.getTargetId());
+                    bytes += 64L * ((choice.getFlagToSet() != null ? choice.getFlagToSet().size() : 0)
+                            + (choice.getCondition() != null ? choice.getCondition().size() : 0));
+                }
+            }
+            if (location.getItemsPresent() != null) {
+                for (Item item : location.getItemsPresent()) {
+                    bytes += estimateBytes(item);
+                }
+            }
+        } else if (value instanceof Enemy enemy) {
+            bytes += chars(enemy.getId()) + chars(enemy.getName()) + chars(enemy.getDescription());
+        } else if (value instanceof Item item) {
+            bytes += chars(item.getId()) + chars(item.getName()) + chars(item.getType());
+        }
+        return bytes;
+    }
+
+    private static long chars(String value) {
+        return value != null ? 40 + 2L * value.length() : 0;
+    }
+
+    public Map<String, Object> getMetrics() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long prefetched = prefetchedDocuments.sum();
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("enabled", enabled);
+        metrics.put("hits", hitCount);
+        metrics.put("misses", missCount);
+        metrics.put("hitRate", hitCount + missCount > 0 ? (double) hitCount / (hitCount + missCount) : 0.0);
+        metrics.put("prefetchBatches", prefetchBatches.sum());
+        metrics.put("prefetchedDocuments", prefetched);
+        metrics.put("prefetchedUsed", prefetchedUsed.sum());
+        metrics.put("prefetchedWasted", prefetchedWasted.sum());
+        metrics.put("evictions", evictions.sum());
+        synchronized (entries) {
+            metrics.put("entries", entries.size());
+            metrics.put("estimatedBytes", totalBytes);
+        }
+        return metrics;
+    }
+}
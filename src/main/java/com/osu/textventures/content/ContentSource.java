@@ -0,0 +1,43 @@
+package com.osu.textventures.content;
+
+import com.osu.textventures.models.Enemy;
+import com.osu.textventures.models.Item;
+import com.osu.textventures.models.Location;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+
+public interface ContentSource {
+
+    String getVersion();
+
+    /** Where new characters begin. Content read from Firestore per request always uses the default. */
+    default String getStartLocationId() {
+        return World.DEFAULT_START_LOCATION;
+    }
+
+    Location getLocation(String locationId) throws ExecutionException, InterruptedException;
+
+    Enemy getEnemy(String enemyId) throws ExecutionException, InterruptedException;
+
+    Item getItem(String itemId) throws ExecutionException, InterruptedException;
+
+    /** Items by id, leaving out ids the catalogue does not know. Sources that can batch reads fetch them together. */
+    default Map<String, Item> getItems(Collection<String> itemIds) throws ExecutionException, InterruptedException {
+        Map<String, Item> items = new HashMap<>();
+        for (String itemId : itemIds) {
+            Item item = getItem(itemId);
+            if (item != null) {
+                items.put(itemId, item);
+            }
+        }
+        return items;
+    }
+
+    /** The enemy's compiled decision table. Sources that preload content compile it once, others on each call. */
+    default EnemyBehaviour getBehaviour(Enemy enemy) {
+        return EnemyBehaviour.compile(enemy);
+    }
+}
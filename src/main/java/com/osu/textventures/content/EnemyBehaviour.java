@@ -0,0 +1,101 @@
+package com.osu.textventures.content;
+
+import com.osu.textventures.models.Enemy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An enemy's abilities compiled into a decision table: one row per ability in priority order, held in parallel
+ * arrays, so choosing what an enemy does is a scan over primitives without map lookups or allocation. A
+ * {@link World} compiles every enemy when it is built; on-demand content compiles an enemy when a fight starts.
+ */
+public final class EnemyBehaviour {
+
+    public static final byte ATTACK = 0;
+    public static final byte HEAL = 1;
+    public static final byte ENRAGE = 2;
+    public static final byte FLEE = 3;
+
+    public static final Map<String, Byte> ABILITY_TYPES = Map.of("attack", ATTACK, "heal", HEAL, "enrage", ENRAGE, "flee", FLEE);
+
+    /** Behaviour of an enemy without abilities: a plain attack every turn. */
+    public static final EnemyBehaviour BASIC = new EnemyBehaviour(List.of());
+
+    private final byte[] kinds;
+    private final int[] power;
+    private final int[] cooldowns;
+    private final int[] healthBelowPercent;
+    private final int[] chance;
+    private final String[] names;
+    private final String[] messages;
+
+    private EnemyBehaviour(List<Enemy.Ability> abilities) {
+        int size = abilities.size();
+        kinds = new byte[size];
+        power = new int[size];
+        cooldowns = new int[size];
+        healthBelowPercent = new int[size];
+        chance = new int[size];
+        names = new String[size];
+        messages = new String[size];
+        for (int row = 0; row < size; row++) {
+            Enemy.Ability ability = abilities.get(row);
+            kinds[row] = ABILITY_TYPES.get(ability.getType());
+            power[row] = kinds[row] == ATTACK && ability.getPower() <= 0 ? 100 : ability.getPower();
+            cooldowns[row] = Math.max(0, ability.getCooldown());
+            healthBelowPercent[row] = ability.getHealthBelowPercent();
+            chance[row] = ability.getChance();
+            names[row] = ability.getName() != null ? ability.getName() : ability.getType();
+            messages[row] = ability.getMessage();
+        }
+    }
+
+    /** Abilities of unknown type are left out; {@link WorldValidator} reports them. */
+    public static EnemyBehaviour compile(Enemy enemy) {
+        if (enemy.getAbilities() == null || enemy.getAbilities().isEmpty()) {
+            return BASIC;
+        }
+        List<Enemy.Ability> known = new ArrayList<>();
+        for (Enemy.Ability ability : enemy.getAbilities()) {
+            if (ability != null && ABILITY_TYPES.containsKey(ability.getType())) {
+                known.add(ability);
+            }
+        }
+        return known.isEmpty() ? BASIC : new EnemyBehaviour(known);
+    }
+
+    public int size() {
+        return kinds.length;
+    }
+
+    public byte kind(int row) {
+        return kinds[row];
+    }
+
+    public int power(int row) {
+        return power[row];
+    }
+
+    public int cooldown(int row) {
+        return cooldowns[row];
+    }
+
+    public int healthBelowPercent(int row) {
+        return healthBelowPercent[row];
+    }
+
+    public int chance(int row) {
+        return chance[row];
+    }
+
+    public String name(int row) {
+        return names[row];
+    }
+
+    /** The content's log line for the row, or null for the default one. */
+    public String message(int row) {
+        return messages[row];
+    }
+}
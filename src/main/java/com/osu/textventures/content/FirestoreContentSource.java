@@ -0,0 +1,78 @@
+package com.osu.textventures.content;
+
+import com.google.cloud.firestore.DocumentReference;
+import com.google.cloud.firestore.DocumentSnapshot;
+import com.google.cloud.firestore.Firestore;
+import com.osu.textventures.models.Enemy;
+import com.osu.textventures.models.Item;
+import com.osu.textventures.models.Location;
+import com.osu.textventures.utils.HedgedReader;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+
+public class FirestoreContentSource implements ContentSource {
+
+    private final Firestore db;
+    private final HedgedReader reader;
+
+    public FirestoreContentSource(Firestore db, HedgedReader reader) {
+        this.db = db;
+        this.reader = reader;
+    }
+
+    @Override
+    public String getVersion() {
+        return "live";
+    }
+
+    @Override
+    public Location getLocation(String locationId) throws ExecutionException, InterruptedException {
+        return getDocument("locations", locationId, Location.class);
+    }
+
+    @Override
+    public Enemy getEnemy(String enemyId) throws ExecutionException, InterruptedException {
+        return getDocument("enemies", enemyId, Enemy.class);
+    }
+
+    @Override
+    public Item getItem(String itemId) throws ExecutionException, InterruptedException {
+        return getDocument("items", itemId, Item.class);
+    }
+
+    /** The whole inventory in one {@code getAll} rather than a read per item. */
+    @Override
+    public Map<String, Item> getItems(Collection<String> itemIds) throws ExecutionException, InterruptedException {
+        DocumentReference[] references = itemIds.stream()
+                .filter(Objects::nonNull)
+                .distinct()
+                .map(itemId -> db.collection("items").document(itemId))
+                .toArray(DocumentReference[]::new);
+        Map<String, Item> items = new HashMap<>();
+        if (references.length == 0) {
+            return items;
+        }
+        for (DocumentSnapshot document : reader.read("items", () -> db.getAll(references))) {
+            if (document.exists()) {
+                items.put(document.getId(), document.toObject(Item.class));
+            }
+        }
+        return items;
+    }
+
+    private <T> T getDocument(String collectionName, String documentId, Class<T> type) throws ExecutionException, InterruptedException {
+        if (documentId == null) {
+            return null;
+        }
+        DocumentSnapshot document = reader.read(collectionName, () -> db.collection(collectionName).document(documentId).get());
+        if (document.exists()) {
+            return document.toObject(type);
+        } else {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.osu.textventures.content;
+
+import com.google.cloud.firestore.DocumentReference;
+import com.google.cloud.firestore.DocumentSnapshot;
+import com.google.cloud.firestore.Firestore;
+import com.osu.textventures.models.Enemy;
+import com.osu.textventures.models.Item;
+import com.osu.textventures.models.Location;
+import com.osu.textventures.utils.HedgedReader;
+
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Content for one turn when content is read from Firestore on demand. Documents the turn is expected to need are
+ * planned up front and fetched together in one {@code getAll}, ideally alongside the player document (see
+ * {@code PlayerStore}); a miss fetches itself plus anything still planned. Each document is read and decoded at
+ * most once per turn, so a location looked up before and after a choice costs one read. Content that the
+ * {@link ContentPrefetcher} already holds is served from there and never planned for Firestore.
+ *
+ * <p>Not thread-safe; a plan belongs to a single request.
+ */
+public final class TurnReadPlan implements ContentSource {
+
+    private final Firestore db;
+    private final ContentPrefetcher cache;
+    private final HedgedReader reader;
+    private final Set<DocumentReference> planned = new LinkedHashSet<>();
+    private final Map<DocumentReference, DocumentSnapshot> fetched = new HashMap<>();
+    private final Map<DocumentReference, Object> decoded = new HashMap<>();
+    private int roundTrips;
+
+    public TurnReadPlan(Firestore db, ContentPrefetcher cache, HedgedReader reader) {
+        this.db = db;
+        this.cache = cache;
+        this.reader = reader;
+    }
+
+    @Override
+    public String getVersion() {
+        return "live";
+    }
+
+    private DocumentReference reference(String collection, String id) {
+        return db.collection(collection).document(id);
+    }
+
+    /** Plans a read of one content document; a null id is ignored. */
+    public TurnReadPlan expect(String collection, String id) {
+        if (id != null) {
+            DocumentReference reference = reference(collection, id);
+            if (!fetched.containsKey(reference) && !decoded.containsKey(reference)) {
+                planned.add(reference);
+            }
+        }
+        return this;
+    }
+
+    /** Plans a location read; a null id (no hint available) is ignored. */
+    public TurnReadPlan expectLocation(String locationId) {
+        return expect("locations", locationId);
+    }
+
+    /** Plans item reads, so a turn that renders or fights with the inventory resolves it in one round trip. */
+    public TurnReadPlan expectItems(Collection<String> itemIds) {
+        itemIds.forEach(itemId -> expect("items", itemId));
+        return this;
+    }
+
+    /** Planned references not fetched yet. The caller must pass the resulting snapshots to {@link #accept}. */
+    public List<DocumentReference> takePlanned() {
+        List<DocumentReference> references = new ArrayList<>(planned.size());
+        for (DocumentReference reference : planned) {
+            Object cached = cache.lookup(reference.getParent().getId(), reference.getId());
+            if (cached != null) {
+                decoded.put(reference, cached);
+            } else {
+                references.add(reference);
+            }
+        }
+        planned.clear();
+        cache.recordMisses(references.size());
+        return references;
+    }
+
+    public void accept(Collection<DocumentSnapshot> snapshots) {
+        for (DocumentSnapshot snapshot : snapshots) {
+            DocumentReference reference = snapshot.getReference();
+            fetched.put(reference, snapshot);
+            Class<?> type = ContentPrefetcher.CONTENT_TYPES.get(reference.getParent().getId());
+            if (type != null && snapshot.exists()) {
+                Object value = snapshot.toObject(type);
+                decoded.put(reference, value);
+                cache.store(reference.getParent().getId(), reference.getId(), value);
+            }
+        }
+    }
+
+    public int getRoundTrips() {
+        return roundTrips;
+    }
+
+    @Override
+    public Location getLocation(String locationId) throws ExecutionException, InterruptedException {
+        return get("locations", locationId, Location.class);
+    }
+
+    @Override
+    public Enemy getEnemy(String enemyId) throws ExecutionException, InterruptedException {
+        return get("enemies", enemyId, Enemy.class);
+    }
+
+    @Override
+    public Item getItem(String itemId) throws ExecutionException, InterruptedException {
+        return get("items", itemId, Item.class);
+    }
+
+    @Override
+    public Map<String, Item> getItems(Collection<String> itemIds) throws ExecutionException, InterruptedException {
+        expectItems(itemIds);
+        return ContentSource.super.getItems(itemIds);
+    }
+
+    private <T> T get(String collection, String id, Class<T> type) throws ExecutionException, InterruptedException {
+        if (id == null) {
+            return null;
+        }
+        DocumentReference reference = reference(collection, id);
+        if (decoded.containsKey(reference)) {
+            return type.cast(decoded.get(reference));
+        }
+
+        DocumentSnapshot snapshot = fetched.get(reference);
+        if (snapshot == null) {
+            Object cached = cache.lookup(collection, id);
+            if (cached != null) {
+                decoded.put(reference, cached);
+                return type.cast(cached);
+            }
+            planned.add(reference);
+            List<DocumentReference> batch = takePlanned();
+            DocumentReference[] references = batch.toArray(new DocumentReference[0]);
+            accept(reader.read(collection, () -> db.getAll(references)));
+            roundTrips++;
+            if (decoded.containsKey(reference)) {
+                return type.cast(decoded.get(reference));
+            }
+            snapshot = fetched.get(reference);
+        }
+
+        T value = snapshot != null && snapshot.exists() ? snapshot.toObject(type) : null;
+        decoded.put(reference, value);
+        return value;
+    }
+}
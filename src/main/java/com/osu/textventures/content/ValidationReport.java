@@ -0,0 +1,10 @@
+package com.osu.textventures.content;
+
+import java.util.List;
+
+public record ValidationReport(List<String> errors, List<String> warnings) {
+
+    public boolean isValid() {
+        return errors.isEmpty();
+    }
+}
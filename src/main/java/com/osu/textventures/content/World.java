@@ -0,0 +1,141 @@
+package com.osu.textventures.content;
+
+import com.osu.textventures.models.Choice;
+import com.osu.textventures.models.Enemy;
+import com.osu.textventures.models.Item;
+import com.osu.textventures.models.Location;
+
+import java.util.*;
+
+/**
+ * Immutable, indexed snapshot of the world content. Instances are built once from a
+ * {@link WorldDefinition} and then only read, so a single instance can be shared by every request.
+ * The content beans are mutable, so the {@link ContentSource} lookups hand out copies; a request can never
+ * change what the next one reads.
+ */
+public final class World implements ContentSource {
+
+    public static final String DEFAULT_START_LOCATION = "bamboo_forest";
+
+    private final String version;
+    private final String startLocationId;
+    private final Map<String, Location> locations;
+    private final Map<String, Enemy> enemies;
+    private final Map<String, Item> items;
+    private final Map<String, EnemyBehaviour> behaviours;
+    private final Map<String, List<String>> exits;
+    private final WorldGraph graph;
+
+    private World(String version, String startLocationId, Map<String, Location> locations,
+                  Map<String, Enemy> enemies, Map<String, Item> items) {
+        this.version = version;
+        this.startLocationId = startLocationId;
+        this.locations = Collections.unmodifiableMap(locations);
+        this.enemies = Collections.unmodifiableMap(enemies);
+        this.items = Collections.unmodifiableMap(items);
+
+        Map<String, EnemyBehaviour> compiled = new HashMap<>();
+        for (Enemy enemy : enemies.values()) {
+            compiled.put(enemy.getId(), EnemyBehaviour.compile(enemy));
+        }
+        this.behaviours = compiled;
+
+        Map<String, List<String>> exitIndex = new HashMap<>();
+        for (Location location : locations.values()) {
+            List<String> targets = new ArrayList<>();
+            for (Choice choice : location.getAvailableChoices()) {
+                String destination = ChoiceEffects.destination(choice);
+                if (destination != null && !targets.contains(destination)) {
+                    targets.add(destination);
+                }
+            }
+            exitIndex.put(location.getId(), List.copyOf(targets));
+        }
+        this.exits = Collections.unmodifiableMap(exitIndex);
+        this.graph = new WorldGraph(this.locations);
+    }
+
+    public static World build(WorldDefinition definition) {
+        Map<String, Location> locations = new LinkedHashMap<>();
+        for (Location location : definition.getLocations()) {
+            Location copy = location.copy();
+            copy.setAvailableChoices(copy.getAvailableChoices() != null ? Collections.unmodifiableList(copy.getAvailableChoices()) : List.of());
+            copy.setItemsPresent(copy.getItemsPresent() != null ? Collections.unmodifiableList(copy.getItemsPresent()) : List.of());
+            locations.putIfAbsent(location.getId(), copy);
+        }
+
+        Map<String, Enemy> enemies = new LinkedHashMap<>();
+        for (Enemy enemy : definition.getEnemies()) {
+            enemies.putIfAbsent(enemy.getId(), enemy.copy());
+        }
+
+        Map<String, Item> items = new LinkedHashMap<>();
+        for (Item item : definition.getItems()) {
+            items.putIfAbsent(item.getId(), item.copy());
+        }
+
+        String version = definition.getVersion() != null ? definition.getVersion() : Integer.toHexString(definition.hashCode());
+        String start = definition.getStartLocationId() != null ? definition.getStartLocationId() : DEFAULT_START_LOCATION;
+        return new World(version, start, locations, enemies, items);
+    }
+
+    @Override
+    public String getVersion() {
+        return version;
+    }
+
+    @Override
+    public String getStartLocationId() {
+        return startLocationId;
+    }
+
+    @Override
+    public Location getLocation(String locationId) {
+        Location location = locationId != null ? locations.get(locationId) : null;
+        return location != null ? location.copy() : null;
+    }
+
+    @Override
+    public Enemy getEnemy(String enemyId) {
+        Enemy enemy = enemyId != null ? enemies.get(enemyId) : null;
+        return enemy != null ? enemy.copy() : null;
+    }
+
+    @Override
+    public Item getItem(String itemId) {
+        Item item = itemId != null ? items.get(itemId) : null;
+        return item != null ? item.copy() : null;
+    }
+
+    // Lookups hand out copies, so the precompiled table applies to any enemy equal to the published one.
+    @Override
+    public EnemyBehaviour getBehaviour(Enemy enemy) {
+        EnemyBehaviour behaviour = enemy.equals(enemies.get(enemy.getId())) ? behaviours.get(enemy.getId()) : null;
+        return behaviour != null ? behaviour : EnemyBehaviour.compile(enemy);
+    }
+
+    /** The shared snapshot itself, for indexing and export; unlike the lookups these beans must not be modified. */
+    public Map<String, Location> getLocations() {
+        return locations;
+    }
+
+    public Map<String, Enemy> getEnemies() {
+        return enemies;
+    }
+
+    public Map<String, Item> getItems() {
+        return items;
+    }
+
+    public List<String> getExits(String locationId) {
+        return exits.getOrDefault(locationId, List.of());
+    }
+
+    public WorldGraph getGraph() {
+        return graph;
+    }
+
+    public WorldGraph.Reachability analyseReachability() {
+        return graph.analyse(startLocationId, locations);
+    }
+}
@@ -0,0 +1,36 @@
+package com.osu.textventures.content;
+
+import java.nio.file.Path;
+
+/**
+ * Offline content check, meant for CI or a content author's machine:
+ * {@code mvn -q exec:java -Dexec.mainClass=com.osu.textventures.content.WorldBuildTool -Dexec.args=path/to/world}
+ */
+public final class WorldBuildTool {
+
+    private WorldBuildTool() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length != 1) {
+            System.err.println("Usage: WorldBuildTool <world file or directory>");
+            System.exit(2);
+        }
+
+        WorldDefinition definition = WorldLoader.readFiles(Path.of(args[0]));
+        ValidationReport report = WorldValidator.validate(definition);
+
+        report.warnings().forEach(warning -> System.out.println("WARN  " + warning));
+        report.errors().forEach(error -> System.out.println("ERROR " + error));
+
+        if (!report.isValid()) {
+            System.out.println("World is invalid: " + report.errors().size() + " error(s).");
+            System.exit(1);
+        }
+
+        World world = World.build(definition);
+        WorldValidator.validateGraph(world).forEach(warning -> System.out.println("WARN  " + warning));
+        System.out.println("World " + world.getVersion() + " is valid: " + world.getLocations().size() + " locations, "
+                + world.getEnemies().size() + " enemies, " + world.getItems().size() + " items.");
+    }
+}
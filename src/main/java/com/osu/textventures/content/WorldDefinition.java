@@ -0,0 +1,38 @@
+package com.osu.textventures.content;
+
+import com.osu.textventures.models.Enemy;
+import com.osu.textventures.models.Item;
+import com.osu.textventures.models.Location;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+public class WorldDefinition {
+    private String version;
+    private String startLocationId;
+    private List<Location> locations = new ArrayList<>();
+    private List<Enemy> enemies = new ArrayList<>();
+    private List<Item> items = new ArrayList<>();
+
+    public void merge(WorldDefinition other) {
+        if (other.getVersion() != null) {
+            version = other.getVersion();
+        }
+        if (other.getStartLocationId() != null) {
+            startLocationId = other.getStartLocationId();
+        }
+        if (other.getLocations() != null) {
+            locations.addAll(other.getLocations());
+        }
+        if (other.getEnemies() != null) {
+            enemies.addAll(other.getEnemies());
+        }
+        if (other.getItems() != null) {
+            items.addAll(other.getItems());
+        }
+    }
+}
@@ -0,0 +1,271 @@
+package com.osu.textventures.content;
+
+import com.osu.textventures.models.Choice;
+import com.osu.textventures.models.Location;
+
+import java.util.*;
+
+/**
+ * Location graph precomputed from the {@code move_location} effects of a {@link World}'s choices. While the
+ * distance table of every pair fits in {@link #MAX_ALL_PAIRS_BYTES}, path queries are array lookups; larger
+ * worlds fall back to a breadth-first search per query. Distances ignore choice conditions;
+ * {@link #analyse} is the flag-aware view used to find unreachable content.
+ */
+public final class WorldGraph {
+
+    // The table grows with the square of the location count, and a reload briefly holds two worlds.
+    static final long MAX_ALL_PAIRS_BYTES = 4L << 20;
+    static final int MAX_ALL_PAIRS_LOCATIONS = (int) Math.sqrt((double) MAX_ALL_PAIRS_BYTES / Short.BYTES);
+    static final int MAX_TRACKED_FLAGS = 63;
+    static final int MAX_EXPLORED_STATES = 1_000_000;
+
+    private final String[] locationIds;
+    private final Map<String, Integer> indexes;
+    private final int[] edgeOffsets;
+    private final int[] edgeTargets;
+    private final short[] distances;
+
+    WorldGraph(Map<String, Location> locations) {
+        int size = locations.size();
+        locationIds = locations.keySet().toArray(new String[0]);
+        indexes = new HashMap<>(size * 2);
+        for (int i = 0; i < size; i++) {
+            indexes.put(locationIds[i], i);
+        }
+
+        edgeOffsets = new int[size + 1];
+        List<Integer> targets = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            edgeOffsets[i] = targets.size();
+            for (Choice choice : locations.get(locationIds[i]).getAvailableChoices()) {
+                String destination = ChoiceEffects.destination(choice);
+                Integer target = destination != null ? indexes.get(destination) : null;
+                if (target != null && !targets.subList(edgeOffsets[i], targets.size()).contains(target)) {
+                    targets.add(target);
+                }
+            }
+        }
+        edgeOffsets[size] = targets.size();
+        edgeTargets = targets.stream().mapToInt(Integer::intValue).toArray();
+
+        if (size <= MAX_ALL_PAIRS_LOCATIONS) {
+            distances = new short[size * size];
+            int[] queue = new int[size];
+            for (int source = 0; source < size; source++) {
+                breadthFirst(source, distances, source * size, queue);
+            }
+        } else {
+            distances = null;
+        }
+    }
+
+    private void breadthFirst(int source, short[] target, int offset, int[] queue) {
+        int size = locationIds.length;
+        Arrays.fill(target, offset, offset + size, (short) -1);
+        target[offset + source] = 0;
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = source;
+        while (head < tail) {
+            int current = queue[head++];
+            short next = (short) Math.min(target[offset + current] + 1, Short.MAX_VALUE);
+            for (int e = edgeOffsets[current]; e < edgeOffsets[current + 1]; e++) {
+                int neighbour = edgeTargets[e];
+                if (target[offset + neighbour] < 0) {
+                    target[offset + neighbour] = next;
+                    queue[tail++] = neighbour;
+                }
+            }
+        }
+    }
+
+    private int distance(int from, int to) {
+        int size = locationIds.length;
+        if (distances != null) {
+            return distances[from * size + to];
+        }
+        short[] row = new short[size];
+        breadthFirst(from, row, 0, new int[size]);
+        return row[to];
+    }
+
+    public int size() {
+        return locationIds.length;
+    }
+
+    /** Number of moves between two locations, or -1 if either is unknown or there is no path. */
+    public int distance(String fromLocationId, String toLocationId) {
+        Integer from = indexes.get(fromLocationId);
+        Integer to = indexes.get(toLocationId);
+        if (from == null || to == null) {
+            return -1;
+        }
+        return distance(from, to);
+    }
+
+    /** The neighbouring location that lies on a shortest path towards the target, or null. */
+    public String nextStep(String fromLocationId, String toLocationId) {
+        int remaining = distance(fromLocationId, toLocationId);
+        if (remaining <= 0) {
+            return null;
+        }
+        int from = indexes.get(fromLocationId);
+        int to = indexes.get(toLocationId);
+        for (int e = edgeOffsets[from]; e < edgeOffsets[from + 1]; e++) {
+            int neighbour = edgeTargets[e];
+            if (distance(neighbour, to) == remaining - 1) {
+                return locationIds[neighbour];
+            }
+        }
+        return null;
+    }
+
+    public List<String> neighbours(String locationId) {
+        Integer index = indexes.get(locationId);
+        if (index == null) {
+            return List.of();
+        }
+        List<String> result = new ArrayList<>(edgeOffsets[index + 1] - edgeOffsets[index]);
+        for (int e = edgeOffsets[index]; e < edgeOffsets[index + 1]; e++) {
+            result.add(locationIds[edgeTargets[e]]);
+        }
+        return result;
+    }
+
+    public record Reachability(Set<String> reachableLocations, Set<String> unreachableLocations,
+                               Set<String> reachableFlags, Set<String> unreachableChoices,
+                               int exploredStates, boolean truncated, Set<String> untrackedFlags) {
+    }
+
+    /**
+     * Explores (location, flags) states from the start location, assuming every fight can be won.
+     * Only flags that some condition reads are tracked, since other flags cannot change what is reachable. Past
+     * {@link #MAX_TRACKED_FLAGS} such flags the rest are reported as untracked and conditions on them are assumed
+     * to hold, so the analysis may miss unreachable content but never reports reachable content as unreachable.
+     */
+    public Reachability analyse(String startLocationId, Map<String, Location> locations) {
+        List<String> trackedFlags = new ArrayList<>();
+        Set<String> untrackedFlags = new TreeSet<>();
+        for (Location location : locations.values()) {
+            for (Choice choice : location.getAvailableChoices()) {
+                for (String flag : ChoiceConditions.requiredFlags(choice).keySet()) {
+                    if (trackedFlags.contains(flag)) {
+                        continue;
+                    }
+                    if (trackedFlags.size() < MAX_TRACKED_FLAGS) {
+                        trackedFlags.add(flag);
+                    } else {
+                        untrackedFlags.add(flag);
+                    }
+                }
+            }
+        }
+
+        Set<String> reachableLocations = new HashSet<>();
+        Set<String> reachableFlags = new HashSet<>();
+        Set<String> availableChoices = new HashSet<>();
+        Set<FlagState> visited = new HashSet<>();
+        Deque<FlagState> queue = new ArrayDeque<>();
+        boolean truncated = false;
+
+        Integer start = indexes.get(startLocationId);
+        if (start != null) {
+            FlagState initial = new FlagState(start, 0L);
+            visited.add(initial);
+            queue.add(initial);
+        }
+
+        while (!queue.isEmpty()) {
+            FlagState current = queue.poll();
+            int locationIndex = current.locationIndex();
+            long flags = current.flags();
+            Location location = locations.get(locationIds[locationIndex]);
+            reachableLocations.add(location.getId());
+
+            for (Choice choice : location.getAvailableChoices()) {
+                if (!isAvailable(choice, flags, trackedFlags)) {
+                    continue;
+                }
+                availableChoices.add(location.getId() + "/" + choice.getId());
+
+                Map<String, Boolean> effects = new HashMap<>();
+                int nextLocation = locationIndex;
+                boolean validMove = true;
+                for (Choice.Effect effect : ChoiceEffects.of(choice)) {
+                    if (effect.getFlagToSet() != null) {
+                        effects.putAll(effect.getFlagToSet());
+                    }
+                    if (ChoiceEffects.MOVE_LOCATION.equals(effect.getType())) {
+                        Integer target = indexes.get(effect.getTargetId());
+                        if (target == null) {
+                            validMove = false;
+                            break;
+                        }
+                        nextLocation = target;
+                    } else if (ChoiceEffects.START_COMBAT.equals(effect.getType())) {
+                        for (String flag : ChoiceEffects.defeatFlags(effect.getTargetId())) {
+                            effects.put(flag, true);
+                        }
+                    }
+                }
+                if (!validMove) {
+                    continue;
+                }
+
+                long nextFlags = flags;
+                for (Map.Entry<String, Boolean> effect : effects.entrySet()) {
+                    if (Boolean.TRUE.equals(effect.getValue())) {
+                        reachableFlags.add(effect.getKey());
+                    }
+                    int bit = trackedFlags.indexOf(effect.getKey());
+                    if (bit >= 0) {
+                        nextFlags = Boolean.TRUE.equals(effect.getValue()) ? nextFlags | (1L << bit) : nextFlags & ~(1L << bit);
+                    }
+                }
+
+                if (visited.size() >= MAX_EXPLORED_STATES) {
+                    truncated = true;
+                    continue;
+                }
+                FlagState next = new FlagState(nextLocation, nextFlags);
+                if (visited.add(next)) {
+                    queue.add(next);
+                }
+            }
+        }
+
+        Set<String> unreachableLocations = new TreeSet<>(locations.keySet());
+        unreachableLocations.removeAll(reachableLocations);
+
+        Set<String> unreachableChoices = new TreeSet<>();
+        for (Location location : locations.values()) {
+            if (!reachableLocations.contains(location.getId())) {
+                continue;
+            }
+            for (Choice choice : location.getAvailableChoices()) {
+                String key = location.getId() + "/" + choice.getId();
+                if (!availableChoices.contains(key)) {
+                    unreachableChoices.add(key);
+                }
+            }
+        }
+
+        return new Reachability(Set.copyOf(reachableLocations), Collections.unmodifiableSet(unreachableLocations),
+                Set.copyOf(reachableFlags), Collections.unmodifiableSet(unreachableChoices), visited.size(), truncated,
+                Collections.unmodifiableSet(untrackedFlags));
+    }
+
+    // Unlike ChoiceConditions.isAvailable, a condition on an untracked flag counts as met.
+    private static boolean isAvailable(Choice choice, long flags, List<String> trackedFlags) {
+        for (Map.Entry<String, Boolean> required : ChoiceConditions.requiredFlags(choice).entrySet()) {
+            int bit = trackedFlags.indexOf(required.getKey());
+            if (bit >= 0 && ((flags & (1L << bit)) != 0) != required.getValue()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private record FlagState(int locationIndex, long flags) {
+    }
+}
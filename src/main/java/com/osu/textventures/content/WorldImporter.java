@@ -0,0 +1,71 @@
+package com.osu.textventures.content;
+
+import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.WriteBatch;
+import com.google.firebase.cloud.FirestoreClient;
+import com.osu.textventures.models.Enemy;
+import com.osu.textventures.models.Item;
+import com.osu.textventures.models.Location;
+import com.osu.textventures.utils.FirestoreGuard;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ExecutionException;
+
+@Component
+public class WorldImporter {
+
+    private static final Logger logger = LoggerFactory.getLogger(WorldImporter.class);
+
+    private static final int MAX_BATCH_SIZE = 500;
+
+    private final Firestore db = FirestoreClient.getFirestore();
+    private final FirestoreGuard guard;
+
+    public WorldImporter(FirestoreGuard guard) {
+        this.guard = guard;
+    }
+
+    public void importWorld(World world) throws ExecutionException, InterruptedException {
+        logger.info("Importing world {} into Firestore", world.getVersion());
+
+        WriteBatch batch = db.batch();
+        int pending = 0;
+        int written = 0;
+
+        for (Location location : world.getLocations().values()) {
+            batch.set(db.collection("locations").document(location.getId()), location);
+            if (++pending == MAX_BATCH_SIZE) {
+                guard.await(batch.commit());
+                written += pending;
+                batch = db.batch();
+                pending = 0;
+            }
+        }
+        for (Enemy enemy : world.getEnemies().values()) {
+            batch.set(db.collection("enemies").document(enemy.getId()), enemy);
+            if (++pending == MAX_BATCH_SIZE) {
+                guard.await(batch.commit());
+                written += pending;
+                batch = db.batch();
+                pending = 0;
+            }
+        }
+        for (Item item : world.getItems().values()) {
+            batch.set(db.collection("items").document(item.getId()), item);
+            if (++pending == MAX_BATCH_SIZE) {
+                guard.await(batch.commit());
+                written += pending;
+                batch = db.batch();
+                pending = 0;
+            }
+        }
+        if (pending > 0) {
+            guard.await(batch.commit());
+            written += pending;
+        }
+
+        logger.info("Imported {} content documents for world {}", written, world.getVersion());
+    }
+}
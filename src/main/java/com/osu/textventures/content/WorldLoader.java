@@ -0,0 +1,123 @@
+package com.osu.textventures.content;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import com.google.api.core.ApiFuture;
+import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.QueryDocumentSnapshot;
+import com.google.cloud.firestore.QuerySnapshot;
+import com.google.firebase.cloud.FirestoreClient;
+import com.osu.textventures.models.Enemy;
+import com.osu.textventures.models.Item;
+import com.osu.textventures.models.Location;
+import com.osu.textventures.utils.FirestoreGuard;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.stream.Stream;
+
+@Component
+public class WorldLoader {
+
+    private static final Logger logger = LoggerFactory.getLogger(WorldLoader.class);
+
+    private static final ObjectMapper JSON = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    private static final ObjectMapper YAML = new ObjectMapper(new YAMLFactory())
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    private final Firestore db = FirestoreClient.getFirestore();
+    private final FirestoreGuard guard;
+
+    @Value("${content.world-path:}")
+    private String worldPath;
+
+    public WorldLoader(FirestoreGuard guard) {
+        this.guard = guard;
+    }
+
+    public boolean isFileSource() {
+        return worldPath != null && !worldPath.isBlank();
+    }
+
+    public Path getWorldPath() {
+        return isFileSource() ? Path.of(worldPath) : null;
+    }
+
+    public WorldDefinition load() throws IOException, ExecutionException, InterruptedException {
+        if (isFileSource()) {
+            logger.info("Loading world content from {}", worldPath);
+            return readFiles(Path.of(worldPath));
+        }
+        logger.info("Loading world content from Firestore");
+        return readFirestore();
+    }
+
+    public static WorldDefinition readFiles(Path path) throws IOException {
+        WorldDefinition definition = new WorldDefinition();
+        if (Files.isDirectory(path)) {
+            List<Path> files;
+            try (Stream<Path> entries = Files.list(path)) {
+                files = entries.filter(WorldLoader::isContentFile).sorted().toList();
+            }
+            for (Path file : files) {
+                definition.merge(readFile(file));
+            }
+        } else {
+            definition.merge(readFile(path));
+        }
+        return definition;
+    }
+
+    private static boolean isContentFile(Path file) {
+        String name = file.getFileName().toString().toLowerCase();
+        return name.endsWith(".json") || name.endsWith(".yml") || name.endsWith(".yaml");
+    }
+
+    private static WorldDefinition readFile(Path file) throws IOException {
+        String name = file.getFileName().toString().toLowerCase();
+        ObjectMapper mapper = name.endsWith(".json") ? JSON : YAML;
+        WorldDefinition definition = mapper.readValue(file.toFile(), WorldDefinition.class);
+        logger.debug("Read {} locations, {} enemies, {} items from {}",
+                definition.getLocations().size(), definition.getEnemies().size(), definition.getItems().size(), file);
+        return definition;
+    }
+
+    public WorldDefinition readFirestore() throws ExecutionException, InterruptedException {
+        ApiFuture<QuerySnapshot> locations = db.collection("locations").get();
+        ApiFuture<QuerySnapshot> enemies = db.collection("enemies").get();
+        ApiFuture<QuerySnapshot> items = db.collection("items").get();
+
+        WorldDefinition definition = new WorldDefinition();
+        for (QueryDocumentSnapshot document : guard.await(locations).getDocuments()) {
+            Location location = document.toObject(Location.class);
+            if (location.getId() == null) {
+                location.setId(document.getId());
+            }
+            definition.getLocations().add(location);
+        }
+        for (QueryDocumentSnapshot document : guard.await(enemies).getDocuments()) {
+            Enemy enemy = document.toObject(Enemy.class);
+            if (enemy.getId() == null) {
+                enemy.setId(document.getId());
+            }
+            definition.getEnemies().add(enemy);
+        }
+        for (QueryDocumentSnapshot document : guard.await(items).getDocuments()) {
+            Item item = document.toObject(Item.class);
+            if (item.getId() == null) {
+                item.setId(document.getId());
+            }
+            definition.getItems().add(item);
+        }
+        return definition;
+    }
+}
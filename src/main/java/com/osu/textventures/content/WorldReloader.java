@@ -0,0 +1,137 @@
+package com.osu.textventures.content;
+
+import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.ListenerRegistration;
+import com.google.firebase.cloud.FirestoreClient;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Component
+public class WorldReloader {
+
+    private static final Logger logger = LoggerFactory.getLogger(WorldReloader.class);
+
+    private static final List<String> CONTENT_COLLECTIONS = List.of("locations", "enemies", "items");
+
+    private final WorldLoader worldLoader;
+    private final WorldService worldService;
+    private final Firestore db = FirestoreClient.getFirestore();
+
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "world-reloader");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final List<ListenerRegistration> listeners = new ArrayList<>();
+    private ScheduledFuture<?> pendingReload;
+    private WatchService watchService;
+
+    @Value("${content.hot-reload:true}")
+    private boolean hotReload;
+
+    @Value("${content.reload-debounce-ms:2000}")
+    private long debounceMs;
+
+    public WorldReloader(WorldLoader worldLoader, WorldService worldService) {
+        this.worldLoader = worldLoader;
+        this.worldService = worldService;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() throws IOException {
+        if (!hotReload || worldService.getWorld() == null) {
+            return;
+        }
+
+        if (worldLoader.isFileSource()) {
+            watchFiles(worldLoader.getWorldPath());
+        } else {
+            listenToFirestore();
+        }
+    }
+
+    private void listenToFirestore() {
+        for (String collection : CONTENT_COLLECTIONS) {
+            // The first snapshot only reports the current contents, which are already loaded.
+            AtomicInteger snapshots = new AtomicInteger();
+            listeners.add(db.collection(collection).addSnapshotListener((snapshot, error) -> {
+                if (error != null) {
+                    logger.warn("Content listener on {} failed: {}", collection, error.getMessage());
+                    return;
+                }
+                if (snapshots.getAndIncrement() > 0) {
+                    logger.debug("Content change detected in {}", collection);
+                    scheduleReload();
+                }
+            }));
+        }
+        logger.info("Watching Firestore content collections for changes");
+    }
+
+    private void watchFiles(Path path) throws IOException {
+        Path directory = Files.isDirectory(path) ? path : path.toAbsolutePath().getParent();
+        watchService = FileSystems.getDefault().newWatchService();
+        directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+
+        Thread watcher = new Thread(() -> {
+            try {
+                while (!Thread.currentThread().isInterrupted()) {
+                    WatchKey key = watchService.take();
+                    if (!key.pollEvents().isEmpty()) {
+                        scheduleReload();
+                    }
+                    key.reset();
+                }
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                logger.debug("Content file watcher stopped");
+            }
+        }, "world-file-watcher");
+        watcher.setDaemon(true);
+        watcher.start();
+        logger.info("Watching {} for content changes", directory);
+    }
+
+    // Bursts of edits collapse into one rebuild that runs after the last change has settled.
+    private synchronized void scheduleReload() {
+        if (pendingReload != null) {
+            pendingReload.cancel(false);
+        }
+        pendingReload = executor.schedule(this::reload, debounceMs, TimeUnit.MILLISECONDS);
+    }
+
+    private void reload() {
+        try {
+            WorldDefinition definition = worldLoader.load();
+            worldService.publish(definition);
+        } catch (IllegalStateException e) {
+            logger.error("Rejected content update, keeping world {}: {}", worldService.getWorld().getVersion(), e.getMessage());
+        } catch (Exception e) {
+            logger.error("Failed to reload world content: {}", e.getMessage(), e);
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws IOException {
+        listeners.forEach(ListenerRegistration::remove);
+        if (watchService != null) {
+            watchService.close();
+        }
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,118 @@
+package com.osu.textventures.content;
+
+import com.google.firebase.cloud.FirestoreClient;
+import com.osu.textventures.models.Location;
+import com.osu.textventures.services.EffectRegistry;
+import com.osu.textventures.utils.HedgedReader;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+@Service
+public class WorldService {
+
+    private static final Logger logger = LoggerFactory.getLogger(WorldService.class);
+
+    private final WorldLoader worldLoader;
+    private final WorldImporter worldImporter;
+    private final ContentPrefetcher prefetcher;
+    private final HedgedReader reader;
+    private final EffectRegistry effectRegistry;
+    private final FirestoreContentSource liveContent;
+    private final AtomicReference<World> currentWorld = new AtomicReference<>();
+
+    @Value("${content.preload:true}")
+    private boolean preload;
+
+    @Value("${content.fail-on-invalid:true}")
+    private boolean failOnInvalid;
+
+    @Value("${content.import-to-firestore:false}")
+    private boolean importToFirestore;
+
+    public WorldService(WorldLoader worldLoader, WorldImporter worldImporter, ContentPrefetcher prefetcher,
+                        HedgedReader reader, EffectRegistry effectRegistry) {
+        this.worldLoader = worldLoader;
+        this.worldImporter = worldImporter;
+        this.prefetcher = prefetcher;
+        this.reader = reader;
+        this.effectRegistry = effectRegistry;
+        this.liveContent = new FirestoreContentSource(FirestoreClient.getFirestore(), reader);
+    }
+
+    @PostConstruct
+    public void init() throws Exception {
+        if (!preload) {
+            logger.info("Content preloading disabled, resolving content from Firestore per request");
+            return;
+        }
+
+        WorldDefinition definition = worldLoader.load();
+        try {
+            World world = publish(definition);
+            if (importToFirestore && worldLoader.isFileSource()) {
+                worldImporter.importWorld(world);
+            }
+        } catch (IllegalStateException e) {
+            if (failOnInvalid) {
+                throw e;
+            }
+            logger.error("{} Falling back to per-request Firestore content.", e.getMessage());
+        }
+    }
+
+    /**
+     * Content for a single request. Callers should fetch this once and use it for the whole turn so the
+     * turn sees one consistent version even if a new world is published meanwhile.
+     */
+    public ContentSource current() {
+        World world = currentWorld.get();
+        return world != null ? world : liveContent;
+    }
+
+    /**
+     * Like {@link #current()}, but with on-demand content the turn gets a {@link TurnReadPlan} that already expects
+     * the hinted location (typically from the session token's player summary).
+     */
+    public ContentSource planTurn(String locationHint) {
+        World world = currentWorld.get();
+        return world != null ? world : new TurnReadPlan(FirestoreClient.getFirestore(), prefetcher, reader).expectLocation(locationHint);
+    }
+
+    /**
+     * Called once a turn has settled on the player's location. With on-demand content this warms the prefetch
+     * cache with whatever that location's choices can lead to; a preloaded world needs nothing.
+     */
+    public void afterTurn(ContentSource content, Location location) {
+        if (content instanceof TurnReadPlan) {
+            prefetcher.prefetchAround(location);
+        }
+    }
+
+    public World getWorld() {
+        return currentWorld.get();
+    }
+
+    public World publish(WorldDefinition definition) {
+        ValidationReport report = WorldValidator.validate(definition, effectRegistry.effectTypes());
+        report.warnings().forEach(warning -> logger.warn("Content warning: {}", warning));
+        if (!report.isValid()) {
+            report.errors().forEach(error -> logger.error("Content error: {}", error));
+            throw new IllegalStateException("World content failed validation with " + report.errors().size() + " error(s).");
+        }
+
+        World world = World.build(definition);
+        WorldValidator.validateGraph(world).forEach(warning -> logger.warn("Content warning: {}", warning));
+        effectRegistry.prepare(world);
+
+        World previous = currentWorld.getAndSet(world);
+        logger.info("Published world {} ({} locations, {} enemies, {} items){}", world.getVersion(),
+                world.getLocations().size(), world.getEnemies().size(), world.getItems().size(),
+                previous != null ? ", replacing " + previous.getVersion() : "");
+        return world;
+    }
+}
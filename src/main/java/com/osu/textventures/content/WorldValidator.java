@@ -0,0 +1,193 @@
+package com.osu.textventures.content;
+
+import com.osu.textventures.models.Choice;
+import com.osu.textventures.models.Enemy;
+import com.osu.textventures.models.Item;
+import com.osu.textventures.models.Location;
+
+import java.util.*;
+
+public final class WorldValidator {
+
+    /** The effects every game has; further types come from handler beans (see {@code EffectRegistry}). */
+    public static final Set<String> BUILT_IN_EFFECT_TYPES = Set.of(ChoiceEffects.MOVE_LOCATION, ChoiceEffects.FIND_ITEM,
+            ChoiceEffects.START_COMBAT, ChoiceEffects.SET_FLAG, ChoiceEffects.DISPLAY_TEXT);
+
+    public static final String COMPLETION_FLAG = "defeated_ancient_dragon";
+
+    private WorldValidator() {
+    }
+
+    public static ValidationReport validate(WorldDefinition definition) {
+        return validate(definition, BUILT_IN_EFFECT_TYPES);
+    }
+
+    /** Validates against the given effect types, typically every type with a registered handler. */
+    public static ValidationReport validate(WorldDefinition definition, Set<String> effectTypes) {
+        List<String> errors = new ArrayList<>();
+        List<String> warnings = new ArrayList<>();
+
+        Set<String> locationIds = collectIds("location", definition.getLocations(), Location::getId, errors);
+        Set<String> enemyIds = collectIds("enemy", definition.getEnemies(), Enemy::getId, errors);
+        Set<String> itemIds = collectIds("item", definition.getItems(), Item::getId, errors);
+
+        String start = definition.getStartLocationId() != null ? definition.getStartLocationId() : World.DEFAULT_START_LOCATION;
+        if (!locationIds.contains(start)) {
+            errors.add("Start location '" + start + "' does not exist");
+        }
+
+        for (Enemy enemy : definition.getEnemies()) {
+            List<Enemy.Ability> abilities = enemy.getAbilities() != null ? enemy.getAbilities() : List.of();
+            for (int i = 0; i < abilities.size(); i++) {
+                Enemy.Ability ability = abilities.get(i);
+                String where = "Enemy '" + enemy.getId() + "' ability " + i;
+                if (ability == null || !EnemyBehaviour.ABILITY_TYPES.containsKey(ability.getType())) {
+                    errors.add(where + " has unknown type '" + (ability != null ? ability.getType() : null) + "'");
+                    continue;
+                }
+                if (ability.getCooldown() < 0) {
+                    errors.add(where + " has a negative cooldown");
+                }
+                if (ability.getChance() <= 0 || ability.getChance() > 100) {
+                    errors.add(where + " has chance " + ability.getChance() + "; expected 1 to 100");
+                }
+                if (ability.getHealthBelowPercent() <= 0) {
+                    warnings.add(where + " has healthBelowPercent " + ability.getHealthBelowPercent() + " and can never be used");
+                }
+            }
+        }
+
+        // Winning a fight sets flags of its own rather than through a choice's flagToSet.
+        Set<String> settableFlags = new HashSet<>();
+        for (String enemyId : enemyIds) {
+            settableFlags.addAll(ChoiceEffects.defeatFlags(enemyId));
+        }
+        for (Location location : definition.getLocations()) {
+            for (Choice choice : choicesOf(location)) {
+                for (Choice.Effect effect : ChoiceEffects.of(choice)) {
+                    if (effect.getFlagToSet() != null) {
+                        settableFlags.addAll(effect.getFlagToSet().keySet());
+                    }
+                }
+            }
+        }
+
+        for (Location location : definition.getLocations()) {
+            String where = "Location '" + location.getId() + "'";
+
+            if (location.getEnemyPresentId() != null && !enemyIds.contains(location.getEnemyPresentId())) {
+                errors.add(where + " references unknown enemy '" + location.getEnemyPresentId() + "'");
+            }
+            if (choicesOf(location).isEmpty()) {
+                warnings.add(where + " has no choices and is a dead end");
+            }
+
+            Set<String> choiceIds = new HashSet<>();
+            for (Choice choice : choicesOf(location)) {
+                String choiceWhere = where + " choice '" + choice.getId() + "'";
+                if (choice.getId() == null) {
+                    errors.add(where + " has a choice without an id");
+                } else if (!choiceIds.add(choice.getId())) {
+                    errors.add(choiceWhere + " is defined more than once");
+                }
+
+                List<Choice.Effect> effects = ChoiceEffects.of(choice);
+                boolean knownEffects = true;
+                boolean startsCombat = false;
+                for (int i = 0; i < effects.size(); i++) {
+                    Choice.Effect effect = effects.get(i);
+                    String effectWhere = i == 0 ? choiceWhere : choiceWhere + " effect " + i;
+                    String type = effect.getType();
+                    if (type == null || !effectTypes.contains(type)) {
+                        errors.add(effectWhere + " has unknown effect type '" + type + "'");
+                        knownEffects = false;
+                        continue;
+                    }
+                    // EffectRegistry stops at the fight: only further enemies may follow a combat effect.
+                    if (startsCombat && !ChoiceEffects.START_COMBAT.equals(type)) {
+                        errors.add(effectWhere + " follows a combat effect and would never run");
+                    }
+                    startsCombat |= ChoiceEffects.START_COMBAT.equals(type);
+
+                    switch (type) {
+                        case ChoiceEffects.MOVE_LOCATION -> checkTarget(effectWhere, "location", effect.getTargetId(), locationIds, errors);
+                        case ChoiceEffects.FIND_ITEM -> checkTarget(effectWhere, "item", effect.getTargetId(), itemIds, errors);
+                        case ChoiceEffects.START_COMBAT -> checkTarget(effectWhere, "enemy", effect.getTargetId(), enemyIds, errors);
+                        case ChoiceEffects.SET_FLAG -> {
+                            if (effect.getFlagToSet() == null || effect.getFlagToSet().isEmpty()) {
+                                errors.add(effectWhere + " sets no flags");
+                            }
+                        }
+                        case ChoiceEffects.DISPLAY_TEXT -> {
+                            if (effect.getTargetId() == null || effect.getTargetId().isBlank()) {
+                                errors.add(effectWhere + " has no text to display");
+                            }
+                        }
+                        default -> {
+                        }
+                    }
+                }
+                if (!knownEffects) {
+                    continue;
+                }
+
+                for (Map.Entry<String, Boolean> required : ChoiceConditions.requiredFlags(choice).entrySet()) {
+                    if (Boolean.TRUE.equals(required.getValue()) && !settableFlags.contains(required.getKey())) {
+                        errors.add(choiceWhere + " requires flag '" + required.getKey() + "' which nothing sets");
+                    }
+                }
+            }
+        }
+
+        return new ValidationReport(List.copyOf(errors), List.copyOf(warnings));
+    }
+
+    public static List<String> validateGraph(World world) {
+        List<String> warnings = new ArrayList<>();
+        WorldGraph.Reachability reachability = world.analyseReachability();
+
+        for (String location : reachability.unreachableLocations()) {
+            warnings.add("Location '" + location + "' cannot be reached from '" + world.getStartLocationId() + "'");
+        }
+        for (String choice : reachability.unreachableChoices()) {
+            warnings.add("Choice '" + choice + "' is never available in any reachable flag state");
+        }
+        if (!reachability.reachableFlags().contains(COMPLETION_FLAG)) {
+            warnings.add("Flag '" + COMPLETION_FLAG + "' is never set, so the game cannot be completed");
+        }
+        if (!reachability.untrackedFlags().isEmpty()) {
+            warnings.add("Reachability analysis tracks at most " + WorldGraph.MAX_TRACKED_FLAGS + " condition flags and assumed "
+                    + reachability.untrackedFlags().size() + " more always hold " + reachability.untrackedFlags()
+                    + "; content gated on them may be unreachable without a warning");
+        }
+        if (reachability.truncated()) {
+            warnings.add("Reachability analysis stopped after " + reachability.exploredStates() + " states; results are partial");
+        }
+        return warnings;
+    }
+
+    private static List<Choice> choicesOf(Location location) {
+        return location.getAvailableChoices() != null ? location.getAvailableChoices() : List.of();
+    }
+
+    private static void checkTarget(String where, String kind, String targetId, Set<String> known, List<String> errors) {
+        if (targetId == null) {
+            errors.add(where + " has no target " + kind);
+        } else if (!known.contains(targetId)) {
+            errors.add(where + " targets unknown " + kind + " '" + targetId + "'");
+        }
+    }
+
+    private static <T> Set<String> collectIds(String kind, List<T> entries, java.util.function.Function<T, String> id, List<String> errors) {
+        Set<String> ids = new HashSet<>();
+        for (T entry : entries) {
+            String entryId = id.apply(entry);
+            if (entryId == null || entryId.isBlank()) {
+                errors.add("Found " + kind + " without an id");
+            } else if (!ids.add(entryId)) {
+                errors.add("Duplicate " + kind + " id '" + entryId + "'");
+            }
+        }
+        return ids;
+    }
+}
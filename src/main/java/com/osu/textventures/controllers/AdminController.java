@@ -0,0 +1,90 @@
+package com.osu.textventures.controllers;
+
+import com.osu.textventures.services.AdminJobService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin")
+@CrossOrigin
+public class AdminController {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdminController.class);
+
+    private final AdminJobService adminJobService;
+
+    public AdminController(AdminJobService adminJobService) {
+        this.adminJobService = adminJobService;
+    }
+
+    private String getAuthenticatedUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof String) {
+            return (String) authentication.getPrincipal();
+        }
+        throw new IllegalStateException("User not authenticated");
+    }
+
+    @GetMapping("/jobs")
+    public ResponseEntity<?> listJobs(@RequestParam(defaultValue = "20") int limit) throws Exception {
+        logger.debug("GET /api/admin/jobs - limit: {}", limit);
+        return ResponseEntity.ok(adminJobService.list(Math.max(1, Math.min(limit, 100))));
+    }
+
+    @GetMapping("/jobs/{jobId}")
+    public ResponseEntity<?> getJob(@PathVariable String jobId) throws Exception {
+        try {
+            logger.debug("GET /api/admin/jobs/{}", jobId);
+            return ResponseEntity.ok(adminJobService.get(jobId));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /** Body: {@code {"kind": "rename-flag", "params": {"from": "a", "to": "b"}, "dryRun": false}}. */
+    @PostMapping("/jobs")
+    public ResponseEntity<?> startJob(@RequestBody Map<String, Object> body) throws Exception {
+        try {
+            String userId = getAuthenticatedUserId();
+            String kind = (String) body.get("kind");
+            Map<String, String> params = new HashMap<>();
+            if (body.get("params") instanceof Map<?, ?> raw) {
+                raw.forEach((key, value) -> params.put(String.valueOf(key), value != null ? String.valueOf(value) : null));
+            }
+            boolean dryRun = Boolean.TRUE.equals(body.get("dryRun"));
+            logger.info("POST /api/admin/jobs - user: {}, kind: {}, params: {}, dryRun: {}", userId, kind, params, dryRun);
+            return ResponseEntity.ok(adminJobService.start(kind, params, dryRun, userId));
+        } catch (IllegalArgumentException e) {
+            logger.warn("Start admin job failed: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @PostMapping("/jobs/{jobId}/resume")
+    public ResponseEntity<?> resumeJob(@PathVariable String jobId) throws Exception {
+        try {
+            logger.info("POST /api/admin/jobs/{}/resume", jobId);
+            return ResponseEntity.ok(adminJobService.resume(jobId));
+        } catch (IllegalArgumentException e) {
+            logger.warn("Resume admin job failed: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @PostMapping("/jobs/{jobId}/cancel")
+    public ResponseEntity<?> cancelJob(@PathVariable String jobId) throws Exception {
+        try {
+            logger.info("POST /api/admin/jobs/{}/cancel", jobId);
+            return ResponseEntity.ok(adminJobService.cancel(jobId));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+}
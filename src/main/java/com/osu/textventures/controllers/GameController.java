@@ -1,16 +1,30 @@
 package com.osu.textventures.controllers;
 
+import com.osu.textventures.filters.JwtAuthenticationFilter;
+import com.osu.textventures.models.Checkpoint;
+import com.osu.textventures.models.Choice;
+import com.osu.textventures.models.PlayerCharacter;
+import com.osu.textventures.models.PlayerSummary;
 import com.osu.textventures.services.CombatService;
 import com.osu.textventures.services.GameService;
+import com.osu.textventures.services.SaveService;
+import com.osu.textventures.services.UserService;
 import com.osu.textventures.models.GameState;
+import com.osu.textventures.utils.IdempotencyStore;
+import com.osu.textventures.utils.JwtUtil;
+import com.osu.textventures.utils.RequestCoalescer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
 
+import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
 
 @RestController
 @RequestMapping("/api/game")
@@ -20,9 +34,22 @@ public class GameController {
     private static final Logger logger = LoggerFactory.getLogger(GameController.class);
 
     private final GameService gameService;
+    private final RequestCoalescer requestCoalescer;
+    private final IdempotencyStore idempotencyStore;
+    private final JwtUtil jwtUtil;
+    private final SaveService saveService;
+    private final UserService userService;
 
-    public GameController(GameService gameService) {
+    static final String REFRESHED_TOKEN_HEADER = "X-Refreshed-Token";
+
+    public GameController(GameService gameService, RequestCoalescer requestCoalescer, IdempotencyStore idempotencyStore,
+                          JwtUtil jwtUtil, SaveService saveService, UserService userService) {
         this.gameService = gameService;
+        this.requestCoalescer = requestCoalescer;
+        this.idempotencyStore = idempotencyStore;
+        this.jwtUtil = jwtUtil;
+        this.saveService = saveService;
+        this.userService = userService;
     }
 
     private String getAuthenticatedUserId() {
@@ -33,8 +60,110 @@ public class GameController {
         throw new IllegalStateException("User not authenticated");
     }
 
+    private Object requestAttribute(String name) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        return attributes != null ? attributes.getAttribute(name, RequestAttributes.SCOPE_REQUEST) : null;
+    }
+
+    private PlayerSummary currentSummary() {
+        return (PlayerSummary) requestAttribute(JwtAuthenticationFilter.PLAYER_SUMMARY_ATTRIBUTE);
+    }
+
+    /**
+     * Responds with the body and, when the caller's token no longer describes the player, a replacement token
+     * in {@value #REFRESHED_TOKEN_HEADER}. See {@link JwtUtil#needsRefresh} for when a summary counts as stale.
+     * An admin role is only carried over after checking it against the stored user, and the replacement expires
+     * no later than the session it replaces allows (see {@link JwtUtil#refreshToken}).
+     */
+    private ResponseEntity<?> withSummary(Object body, String userId, PlayerSummary summary)
+            throws ExecutionException, InterruptedException {
+        if (!jwtUtil.needsRefresh(currentSummary(), summary)) {
+            return ResponseEntity.ok(body);
+        }
+        String username = (String) requestAttribute(JwtAuthenticationFilter.USERNAME_ATTRIBUTE);
+        String role = (String) requestAttribute(JwtAuthenticationFilter.ROLE_ATTRIBUTE);
+        if (JwtUtil.ADMIN_ROLE.equals(role)) {
+            role = userService.currentRole(userId, username);
+        }
+        Long authTime = (Long) requestAttribute(JwtAuthenticationFilter.AUTH_TIME_ATTRIBUTE);
+        String token = authTime != null ? jwtUtil.refreshToken(userId, username, role, summary, authTime)
+                : jwtUtil.generateToken(userId, username, role, summary);
+        return ResponseEntity.ok().header(REFRESHED_TOKEN_HEADER, token).body(body);
+    }
+
+    // Where the token says the player is; lets on-demand content reads start before the player is loaded.
+    private String locationHint() {
+        PlayerSummary summary = currentSummary();
+        return summary != null ? summary.locationId() : null;
+    }
+
+    private ResponseEntity<?> withSummary(GameState gameState, String userId)
+            throws ExecutionException, InterruptedException {
+        return withSummary(gameState, userId, PlayerSummary.of(gameState.getPlayerCharacter()));
+    }
+
+    private GameState runIdempotent(String userId, String idempotencyKey, String fingerprint,
+                                    RequestCoalescer.Work<GameState> work) throws Exception {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return work.run();
+        }
+
+        GameState replay = idempotencyStore.find(userId, idempotencyKey, fingerprint, GameState.class);
+        if (replay != null) {
+            logger.info("Replaying idempotent request {} for user: {}", idempotencyKey, userId);
+            return replay;
+        }
+
+        return requestCoalescer.execute("idempotency:" + userId + ":" + idempotencyKey, () -> {
+            GameState stored = idempotencyStore.find(userId, idempotencyKey, fingerprint, GameState.class);
+            if (stored != null) {
+                return stored;
+            }
+            GameState result = work.run();
+            idempotencyStore.put(userId, idempotencyKey, fingerprint, result, estimatedBytes(result));
+            return result;
+        });
+    }
+
+    // Rough heap size of a stored result: its text at two bytes a character plus a fixed cost per object. The
+    // player's history dominates for long games, so it is counted in full; exactness does not matter here.
+    static long estimatedBytes(GameState state) {
+        long bytes = 256 + 2L * length(state.getCurrentNarrative());
+        PlayerCharacter player = state.getPlayerCharacter();
+        if (player != null) {
+            bytes += 256 + 2L * (length(player.getName()) + length(player.getCurrentLocationId()));
+            bytes += 64L * (size(player.getInventory()) + size(player.getFlags()));
+            if (player.getGameHistory() != null) {
+                for (String line : player.getGameHistory()) {
+                    bytes += 48 + 2L * length(line);
+                }
+            }
+        }
+        if (state.getAvailableChoices() != null) {
+            for (Choice choice : state.getAvailableChoices()) {
+                bytes += 128 + 2L * (length(choice.getId()) + length(choice.getText()) + length(choice.getTargetId()));
+            }
+        }
+        CombatService.CombatState combat = state.getCombatState();
+        if (combat != null) {
+            bytes += 256 + 128L * combat.getCombatants().size();
+            for (String line : combat.getCombatLog()) {
+                bytes += 48 + 2L * length(line);
+            }
+        }
+        return bytes + 256L * size(state.getInventoryItems());
+    }
+
+    private static int length(String text) {
+        return text != null ? text.length() : 0;
+    }
+
+    private static int size(Map<?, ?> map) {
+        return map != null ? map.size() : 0;
+    }
+
     @PostMapping("/start")
-    public ResponseEntity<?> startGame(@RequestBody Map<String, String> body) {
+    public ResponseEntity<?> startGame(@RequestBody Map<String, String> body) throws Exception {
         try {
             String userId = getAuthenticatedUserId();
             String characterName = body.get("characterName");
@@ -47,34 +176,75 @@ public class GameController {
 
             GameState gameState = gameService.startGame(userId, characterName);
             logger.info("Game started successfully for user: {}", userId);
-            return ResponseEntity.ok(gameState);
+            return withSummary(gameState, userId);
         } catch (IllegalArgumentException e) {
             logger.warn("Start game failed: {}", e.getMessage());
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
-        } catch (Exception e) {
-            logger.error("Start game error: {}", e.getMessage(), e);
-            return ResponseEntity.internalServerError().body(Map.of("error", "Failed to start game: " + e.getMessage()));
         }
     }
 
     @GetMapping("/state")
-    public ResponseEntity<?> getGameState() {
+    public ResponseEntity<?> getGameState() throws Exception {
         try {
             String userId = getAuthenticatedUserId();
             logger.debug("GET /api/game/state - user: {}", userId);
-            GameState gameState = gameService.getGameState(userId);
-            return ResponseEntity.ok(gameState);
+            String hint = locationHint();
+            GameState gameState = requestCoalescer.execute("state:" + userId, () -> gameService.getGameState(userId, hint));
+            return withSummary(gameState, userId);
         } catch (IllegalArgumentException e) {
             logger.warn("Get game state failed: {}", e.getMessage());
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
-        } catch (Exception e) {
-            logger.error("Get game state error: {}", e.getMessage(), e);
-            return ResponseEntity.internalServerError().body(Map.of("error", "Failed to get game state: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Cheap "does this user have a game, and where" check. Answered from the token's summary when it carries a
+     * fresh one; otherwise the player is read once and the answer comes back with a refreshed token.
+     */
+    @GetMapping("/summary")
+    public ResponseEntity<?> getSummary() throws Exception {
+        String userId = getAuthenticatedUserId();
+        PlayerSummary summary = currentSummary();
+        if (summary != null) {
+            return ResponseEntity.ok(summaryBody(summary, "token"));
+        }
+
+        logger.debug("GET /api/game/summary - no usable summary in token, reading player for user: {}", userId);
+        PlayerCharacter player = gameService.getPlayerCharacter(userId);
+        PlayerSummary stored = PlayerSummary.of(player);
+        return withSummary(summaryBody(stored, "store"), userId, stored);
+    }
+
+    private Map<String, Object> summaryBody(PlayerSummary summary, String source) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("hasCharacter", summary.characterExists());
+        body.put("currentLocationId", summary.locationId());
+        body.put("version", summary.version());
+        body.put("source", source);
+        return body;
+    }
+
+    @GetMapping("/timeline")
+    public ResponseEntity<?> getTimeline(@RequestParam(defaultValue = "20") int limit) throws Exception {
+        String userId = getAuthenticatedUserId();
+        logger.debug("GET /api/game/timeline - user: {}, limit: {}", userId, limit);
+        return ResponseEntity.ok(gameService.getTimeline(userId, limit));
+    }
+
+    @GetMapping("/path")
+    public ResponseEntity<?> findPath(@RequestParam String from, @RequestParam String to) throws Exception {
+        try {
+            logger.debug("GET /api/game/path - from: {}, to: {}", from, to);
+            return ResponseEntity.ok(gameService.findPath(from, to));
+        } catch (IllegalArgumentException e) {
+            logger.warn("Path query failed: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         }
     }
 
     @PostMapping("/choice")
-    public ResponseEntity<?> processChoice(@RequestBody Map<String, String> body) {
+    public ResponseEntity<?> processChoice(@RequestBody Map<String, String> body,
+                                           @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) throws Exception {
         try {
             String userId = getAuthenticatedUserId();
             String choiceId = body.get("choiceId");
@@ -85,19 +255,20 @@ public class GameController {
                 return ResponseEntity.badRequest().body(Map.of("error", "choiceId is required."));
             }
 
-            GameState gameState = gameService.processChoice(userId, choiceId);
-            return ResponseEntity.ok(gameState);
+            String hint = locationHint();
+            GameState gameState = runIdempotent(userId, idempotencyKey, "choice:" + choiceId,
+                    () -> requestCoalescer.execute("choice:" + userId + ":" + choiceId,
+                            () -> gameService.processChoice(userId, choiceId, hint)));
+            return withSummary(gameState, userId);
         } catch (IllegalArgumentException e) {
             logger.warn("Process choice failed: {}", e.getMessage());
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
-        } catch (Exception e) {
-            logger.error("Process choice error: {}", e.getMessage(), e);
-            return ResponseEntity.internalServerError().body(Map.of("error", "Failed to process choice: " + e.getMessage()));
         }
     }
 
     @PostMapping("/combat")
-    public ResponseEntity<?> processCombatAction(@RequestBody Map<String, String> body) {
+    public ResponseEntity<?> processCombatAction(@RequestBody Map<String, String> body,
+                                                 @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) throws Exception {
         try {
             String userId = getAuthenticatedUserId();
             String actionStr = body.get("action");
@@ -109,29 +280,106 @@ public class GameController {
             }
 
             CombatService.CombatAction action = CombatService.CombatAction.valueOf(actionStr.toUpperCase());
-            GameState gameState = gameService.processCombatAction(userId, action);
-            return ResponseEntity.ok(gameState);
+            GameState gameState = runIdempotent(userId, idempotencyKey, "combat:" + action,
+                    () -> gameService.processCombatAction(userId, action, body.get("target")));
+            return withSummary(gameState, userId);
         } catch (IllegalArgumentException e) {
             logger.warn("Combat action failed: {}", e.getMessage());
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
-        } catch (Exception e) {
-            logger.error("Combat action error: {}", e.getMessage(), e);
-            return ResponseEntity.internalServerError().body(Map.of("error", "Failed to process combat action: " + e.getMessage()));
         }
     }
 
-    @DeleteMapping("/reset")
-    public ResponseEntity<?> resetGame() {
+    @GetMapping("/slots")
+    public ResponseEntity<?> listSlots() throws Exception {
+        String userId = getAuthenticatedUserId();
+        logger.debug("GET /api/game/slots - user: {}", userId);
+        return ResponseEntity.ok(saveService.listSlots(userId));
+    }
+
+    @PostMapping("/slots/{slotId}/save")
+    public ResponseEntity<?> saveSlot(@PathVariable String slotId) throws Exception {
+        try {
+            String userId = getAuthenticatedUserId();
+            logger.info("POST /api/game/slots/{}/save - user: {}", slotId, userId);
+            saveService.saveSlot(userId, slotId);
+            return ResponseEntity.ok(Map.of("message", "Game saved to slot " + slotId));
+        } catch (IllegalArgumentException e) {
+            logger.warn("Save slot failed: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @PostMapping("/slots/{slotId}/load")
+    public ResponseEntity<?> loadSlot(@PathVariable String slotId) throws Exception {
+        try {
+            String userId = getAuthenticatedUserId();
+            logger.info("POST /api/game/slots/{}/load - user: {}", slotId, userId);
+            return withSummary(gameService.loadSlot(userId, slotId), userId);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Load slot failed: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @DeleteMapping("/slots/{slotId}")
+    public ResponseEntity<?> deleteSlot(@PathVariable String slotId) throws Exception {
+        try {
+            String userId = getAuthenticatedUserId();
+            logger.info("DELETE /api/game/slots/{} - user: {}", slotId, userId);
+            saveService.deleteSlot(userId, slotId);
+            return ResponseEntity.ok(Map.of("message", "Save slot deleted"));
+        } catch (IllegalArgumentException e) {
+            logger.warn("Delete slot failed: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/checkpoints")
+    public ResponseEntity<?> listCheckpoints() throws Exception {
+        try {
+            String userId = getAuthenticatedUserId();
+            logger.debug("GET /api/game/checkpoints - user: {}", userId);
+            return ResponseEntity.ok(saveService.listCheckpoints(userId));
+        } catch (IllegalArgumentException e) {
+            logger.warn("List checkpoints failed: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @PostMapping("/checkpoints")
+    public ResponseEntity<?> createCheckpoint(@RequestBody(required = false) Map<String, String> body) throws Exception {
+        try {
+            String userId = getAuthenticatedUserId();
+            String label = body != null ? body.get("label") : null;
+            logger.info("POST /api/game/checkpoints - user: {}, label: {}", userId, label);
+            Checkpoint checkpoint = saveService.createCheckpoint(userId, label);
+            checkpoint.setState(null);
+            return ResponseEntity.ok(checkpoint);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Create checkpoint failed: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @PostMapping("/checkpoints/{checkpointId}/restore")
+    public ResponseEntity<?> restoreCheckpoint(@PathVariable String checkpointId) throws Exception {
         try {
             String userId = getAuthenticatedUserId();
-            logger.info("DELETE /api/game/reset - user: {}", userId);
-            gameService.resetGame(userId);
-            logger.info("Game reset successfully for user: {}", userId);
-            return ResponseEntity.ok(Map.of("message", "Game reset successfully"));
-        } catch (Exception e) {
-            logger.error("Reset game error: {}", e.getMessage(), e);
-            return ResponseEntity.internalServerError().body(Map.of("error", "Failed to reset game: " + e.getMessage()));
+            logger.info("POST /api/game/checkpoints/{}/restore - user: {}", checkpointId, userId);
+            return withSummary(gameService.restoreCheckpoint(userId, checkpointId), userId);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Restore checkpoint failed: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         }
     }
+
+    @DeleteMapping("/reset")
+    public ResponseEntity<?> resetGame() throws Exception {
+        String userId = getAuthenticatedUserId();
+        logger.info("DELETE /api/game/reset - user: {}", userId);
+        gameService.resetGame(userId);
+        logger.info("Game reset successfully for user: {}", userId);
+        return withSummary(Map.of("message", "Game reset successfully"), userId, PlayerSummary.none());
+    }
 }
 
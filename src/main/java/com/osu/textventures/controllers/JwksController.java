@@ -0,0 +1,29 @@
+package com.osu.textventures.controllers;
+
+import com.osu.textventures.utils.JwtKeyRing;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@RestController
+public class JwksController {
+
+    public static final String PATH = "/.well-known/jwks.json";
+
+    private final JwtKeyRing keyRing;
+
+    public JwksController(JwtKeyRing keyRing) {
+        this.keyRing = keyRing;
+    }
+
+    @GetMapping(PATH)
+    public ResponseEntity<?> getKeys() {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(5, TimeUnit.MINUTES).cachePublic())
+                .body(Map.of("keys", keyRing.jwks()));
+    }
+}
@@ -0,0 +1,68 @@
+package com.osu.textventures.controllers;
+
+import com.osu.textventures.content.ContentPrefetcher;
+import com.osu.textventures.services.StatsService;
+import com.osu.textventures.utils.FirestoreGuard;
+import com.osu.textventures.utils.HedgedReader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/stats")
+@CrossOrigin
+public class StatsController {
+
+    private static final Logger logger = LoggerFactory.getLogger(StatsController.class);
+
+    private final StatsService statsService;
+    private final ContentPrefetcher contentPrefetcher;
+    private final FirestoreGuard firestoreGuard;
+    private final HedgedReader hedgedReader;
+
+    public StatsController(StatsService statsService, ContentPrefetcher contentPrefetcher, FirestoreGuard firestoreGuard,
+                           HedgedReader hedgedReader) {
+        this.statsService = statsService;
+        this.contentPrefetcher = contentPrefetcher;
+        this.firestoreGuard = firestoreGuard;
+        this.hedgedReader = hedgedReader;
+    }
+
+    @GetMapping
+    public ResponseEntity<?> getSummary() {
+        logger.debug("GET /api/stats");
+        return ResponseEntity.ok(statsService.getSummary());
+    }
+
+    @GetMapping("/leaderboards/{name}")
+    public ResponseEntity<?> getLeaderboard(@PathVariable String name, @RequestParam(defaultValue = "10") int limit) {
+        try {
+            logger.debug("GET /api/stats/leaderboards/{} - limit: {}", name, limit);
+            return ResponseEntity.ok(statsService.getLeaderboard(name, limit));
+        } catch (IllegalArgumentException e) {
+            logger.warn("Leaderboard query failed: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/content-cache")
+    public ResponseEntity<?> getContentCache() {
+        logger.debug("GET /api/stats/content-cache");
+        return ResponseEntity.ok(contentPrefetcher.getMetrics());
+    }
+
+    @GetMapping("/database")
+    public ResponseEntity<?> getDatabaseStatus() {
+        logger.debug("GET /api/stats/database");
+        return ResponseEntity.ok(firestoreGuard.getStatus());
+    }
+
+    @GetMapping("/reads")
+    public ResponseEntity<?> getReadLatency() {
+        logger.debug("GET /api/stats/reads");
+        return ResponseEntity.ok(hedgedReader.getMetrics());
+    }
+}
@@ -1,5 +1,6 @@
 package com.osu.textventures.controllers;
 
+import com.osu.textventures.models.PlayerSummary;
 import com.osu.textventures.models.User;
 import com.osu.textventures.services.UserService;
 import com.osu.textventures.utils.JwtUtil;
@@ -26,69 +27,60 @@ public class UserController {
     }
 
     @PostMapping("/register")
-    public ResponseEntity<?> register(@RequestBody Map<String, String> body) {
-        try {
-            String username = body.get("username");
-            String password = body.get("password");
-            String role = body.getOrDefault("role", "player");
-            logger.info("POST /api/register - username: {}", username);
+    public ResponseEntity<?> register(@RequestBody Map<String, String> body) throws Exception {
+        String username = body.get("username");
+        String password = body.get("password");
+        String role = body.getOrDefault("role", "player");
+        logger.info("POST /api/register - username: {}", username);
 
-            if (username == null || username.trim().isEmpty()) {
-                logger.warn("Registration failed - missing username");
-                return ResponseEntity.badRequest().body(Map.of("error", "Username is required"));
-            }
-            if (password == null || password.length() < 6) {
-                logger.warn("Registration failed - invalid password for username: {}", username);
-                return ResponseEntity.badRequest().body(Map.of("error", "Password must be at least 6 characters"));
-            }
+        if (username == null || username.trim().isEmpty()) {
+            logger.warn("Registration failed - missing username");
+            return ResponseEntity.badRequest().body(Map.of("error", "Username is required"));
+        }
+        if (password == null || password.length() < 6) {
+            logger.warn("Registration failed - invalid password for username: {}", username);
+            return ResponseEntity.badRequest().body(Map.of("error", "Password must be at least 6 characters"));
+        }
 
-            String id = userService.createUser(username, password, role);
-            String token = jwtUtil.generateToken(id, username);
+        String id = userService.createUser(username, password, role);
+        // A new account cannot have a game yet, so its first token can already answer that.
+        String token = jwtUtil.generateToken(id, username, userService.grantedRole(username, role), PlayerSummary.none());
 
-            logger.info("User registered successfully: {}", username);
-            return ResponseEntity.ok(Map.of(
-                    "message", "User registered",
-                    "id", id,
-                    "username", username,
-                    "role", role,
-                    "token", token
-            ));
-        } catch (Exception e) {
-            logger.error("Registration error for username {}: {}", body.get("username"), e.getMessage());
-            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
-        }
+        logger.info("User registered successfully: {}", username);
+        return ResponseEntity.ok(Map.of(
+                "message", "User registered",
+                "id", id,
+                "username", username,
+                "role", role,
+                "token", token
+        ));
     }
 
     @PostMapping("/login")
-    public ResponseEntity<?> login(@RequestBody Map<String, String> body) {
-        try {
-            String username = body.get("username");
-            String password = body.get("password");
-            logger.info("POST /api/login - username: {}", username);
+    public ResponseEntity<?> login(@RequestBody Map<String, String> body) throws Exception {
+        String username = body.get("username");
+        String password = body.get("password");
+        logger.info("POST /api/login - username: {}", username);
 
-            if (username == null || username.trim().isEmpty()) {
-                logger.warn("Login failed - missing username");
-                return ResponseEntity.badRequest().body(Map.of("error", "Username is required"));
-            }
-            if (password == null || password.trim().isEmpty()) {
-                logger.warn("Login failed - missing password for username: {}", username);
-                return ResponseEntity.badRequest().body(Map.of("error", "Password is required"));
-            }
+        if (username == null || username.trim().isEmpty()) {
+            logger.warn("Login failed - missing username");
+            return ResponseEntity.badRequest().body(Map.of("error", "Username is required"));
+        }
+        if (password == null || password.trim().isEmpty()) {
+            logger.warn("Login failed - missing password for username: {}", username);
+            return ResponseEntity.badRequest().body(Map.of("error", "Password is required"));
+        }
 
-            User user = userService.login(username, password);
-            String token = jwtUtil.generateToken(user.getId(), user.getUsername());
+        User user = userService.login(username, password);
+        String token = jwtUtil.generateToken(user.getId(), user.getUsername(), userService.grantedRole(user.getUsername(), user.getRole()));
 
-            logger.info("User logged in successfully: {}", username);
-            return ResponseEntity.ok(Map.of(
-                    "message", "Login successful",
-                    "username", user.getUsername(),
-                    "role", user.getRole(),
-                    "id", user.getId(),
-                    "token", token
-            ));
-        } catch (Exception e) {
-            logger.error("Login error for username {}: {}", body.get("username"), e.getMessage());
-            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
-        }
+        logger.info("User logged in successfully: {}", username);
+        return ResponseEntity.ok(Map.of(
+                "message", "Login successful",
+                "username", user.getUsername(),
+                "role", user.getRole(),
+                "id", user.getId(),
+                "token", token
+        ));
     }
 }
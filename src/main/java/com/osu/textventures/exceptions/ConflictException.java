@@ -0,0 +1,12 @@
+package com.osu.textventures.exceptions;
+
+/**
+ * The request raced another change to the same game and its result was not kept. Answered with 409 so the client
+ * refreshes its state before trying again.
+ */
+public class ConflictException extends RuntimeException {
+
+    public ConflictException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,19 @@
+package com.osu.textventures.exceptions;
+
+/**
+ * Firestore is too slow or failing to serve this request: an operation timed out, its bulkhead was full, or the
+ * circuit breaker is open. Answered with 503 so clients retry later instead of waiting on a stuck node.
+ */
+public class FirestoreUnavailableException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public FirestoreUnavailableException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
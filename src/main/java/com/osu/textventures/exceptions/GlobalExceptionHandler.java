@@ -29,6 +29,20 @@ public class GlobalExceptionHandler {
                 .body(Map.of("error", ex.getMessage()));
     }
 
+    @ExceptionHandler(ConflictException.class)
+    public ResponseEntity<?> handleConflictException(ConflictException ex, WebRequest request) {
+        logger.warn("Conflict: {} - Request: {}", ex.getMessage(), request.getDescription(false));
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", ex.getMessage()));
+    }
+
+    @ExceptionHandler(FirestoreUnavailableException.class)
+    public ResponseEntity<?> handleFirestoreUnavailableException(FirestoreUnavailableException ex, WebRequest request) {
+        logger.warn("Database unavailable: {} - Request: {}", ex.getMessage(), request.getDescription(false));
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header("Retry-After", String.valueOf(ex.getRetryAfterSeconds()))
+                .body(Map.of("error", ex.getMessage()));
+    }
+
     @ExceptionHandler(ExecutionException.class)
     public ResponseEntity<?> handleExecutionException(ExecutionException ex, WebRequest request) {
         logger.error("ExecutionException during Firestore operation: {} - Request: {}",
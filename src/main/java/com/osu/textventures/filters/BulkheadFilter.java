@@ -0,0 +1,78 @@
+package com.osu.textventures.filters;
+
+import com.osu.textventures.utils.FirestoreGuard;
+import com.osu.textventures.utils.FirestoreGuard.Bulkhead;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Runs every database-backed request inside a {@link FirestoreGuard} bulkhead: logins and registrations, game
+ * reads (GET) and game actions each get their own permits, so one class of request stuck on Firestore cannot
+ * exhaust the request threads the others need.
+ */
+@Component
+public class BulkheadFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkheadFilter.class);
+
+    private final FirestoreGuard guard;
+
+    public BulkheadFilter(FirestoreGuard guard) {
+        this.guard = guard;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return bulkhead(request) == null;
+    }
+
+    private static Bulkhead bulkhead(HttpServletRequest request) {
+        String uri = request.getRequestURI();
+        if ("OPTIONS".equalsIgnoreCase(request.getMethod())) {
+            return null;
+        }
+        if (uri.equals("/api/login") || uri.equals("/api/register")) {
+            return Bulkhead.AUTH;
+        }
+        if (uri.startsWith("/api/game/")) {
+            return "GET".equalsIgnoreCase(request.getMethod()) ? Bulkhead.READ : Bulkhead.WRITE;
+        }
+        return null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        Bulkhead bulkhead = bulkhead(request);
+        boolean acquired;
+        try {
+            acquired = guard.acquire(bulkhead);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            logger.warn("{} bulkhead full, rejecting {} {}", bulkhead, request.getMethod(), request.getRequestURI());
+            response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            response.setHeader("Retry-After", "1");
+            response.setContentType("application/json");
+            response.getWriter().write("{\"error\": \"Server is busy, try again shortly\"}");
+            return;
+        }
+
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            guard.release(bulkhead);
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.osu.textventures.filters;
 
 import com.osu.textventures.utils.JwtUtil;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -13,11 +14,16 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.util.Collections;
+import java.util.List;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
+    public static final String USERNAME_ATTRIBUTE = "textventures.username";
+    public static final String PLAYER_SUMMARY_ATTRIBUTE = "textventures.playerSummary";
+    public static final String ROLE_ATTRIBUTE = "textventures.role";
+    public static final String AUTH_TIME_ATTRIBUTE = "textventures.authTime";
+
     private final JwtUtil jwtUtil;
 
     public JwtAuthenticationFilter(JwtUtil jwtUtil) {
@@ -34,14 +40,24 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             String token = authHeader.substring(7);
 
             try {
-                if (jwtUtil.validateToken(token)) {
-                    String userId = jwtUtil.extractUserId(token);
-                    String username = jwtUtil.extractUsername(token);
+                Claims claims = jwtUtil.validClaims(token);
+                if (claims != null) {
+                    String userId = claims.getSubject();
+                    String username = claims.get("username", String.class);
+                    String role = claims.get(JwtUtil.ROLE_CLAIM, String.class);
+
+                    request.setAttribute(USERNAME_ATTRIBUTE, username);
+                    request.setAttribute(ROLE_ATTRIBUTE, role);
+                    request.setAttribute(PLAYER_SUMMARY_ATTRIBUTE, jwtUtil.extractPlayerSummary(claims));
+                    request.setAttribute(AUTH_TIME_ATTRIBUTE, jwtUtil.extractAuthTime(claims));
 
+                    List<SimpleGrantedAuthority> authorities = JwtUtil.ADMIN_ROLE.equals(role)
+                            ? List.of(new SimpleGrantedAuthority("ROLE_USER"), new SimpleGrantedAuthority("ROLE_ADMIN"))
+                            : List.of(new SimpleGrantedAuthority("ROLE_USER"));
                     UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
                             userId,
                             null,
-                            Collections.singletonList(new SimpleGrantedAuthority("ROLE_USER"))
+                            authorities
                     );
                     authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                     SecurityContextHolder.getContext().setAuthentication(authentication);
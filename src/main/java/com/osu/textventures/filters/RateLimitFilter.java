@@ -0,0 +1,120 @@
+package com.osu.textventures.filters;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(RateLimitFilter.class);
+
+    // Once more users are tracked than allowed, the least recently seen bucket is dropped on insert. That user has
+    // been quiet the longest, so their bucket has almost always refilled and starting them afresh changes nothing.
+    private final Map<String, TokenBucket> readBuckets = lruBuckets();
+    private final Map<String, TokenBucket> actionBuckets = lruBuckets();
+
+    @Value("${game.rate-limit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${game.rate-limit.read.capacity:20}")
+    private int readCapacity;
+
+    @Value("${game.rate-limit.read.per-second:10}")
+    private double readPerSecond;
+
+    @Value("${game.rate-limit.action.capacity:10}")
+    private int actionCapacity;
+
+    @Value("${game.rate-limit.action.per-second:4}")
+    private double actionPerSecond;
+
+    @Value("${game.rate-limit.max-tracked-users:100000}")
+    private int maxTrackedUsers;
+
+    private Map<String, TokenBucket> lruBuckets() {
+        return Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, TokenBucket> eldest) {
+                return size() > maxTrackedUsers;
+            }
+        });
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || !request.getRequestURI().startsWith("/api/game/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !(authentication.getPrincipal() instanceof String userId)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        boolean read = "GET".equalsIgnoreCase(request.getMethod());
+        Map<String, TokenBucket> buckets = read ? readBuckets : actionBuckets;
+        TokenBucket bucket = buckets.computeIfAbsent(userId, id -> read
+                ? new TokenBucket(readCapacity, readPerSecond)
+                : new TokenBucket(actionCapacity, actionPerSecond));
+
+        long retryAfterMillis = bucket.tryConsume();
+        if (retryAfterMillis > 0) {
+            logger.warn("Rate limit exceeded for user: {} on {} {}", userId, request.getMethod(), request.getRequestURI());
+            response.setStatus(429);
+            response.setHeader("Retry-After", String.valueOf(Math.max(1, (retryAfterMillis + 999) / 1000)));
+            response.setContentType("application/json");
+            response.getWriter().write("{\"error\": \"Too many requests\"}");
+            return;
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    static final class TokenBucket {
+
+        private final double capacity;
+        private final double tokensPerNano;
+        private double tokens;
+        private long lastRefill;
+
+        TokenBucket(int capacity, double tokensPerSecond) {
+            this.capacity = capacity;
+            this.tokensPerNano = tokensPerSecond / 1_000_000_000d;
+            this.tokens = capacity;
+            this.lastRefill = System.nanoTime();
+        }
+
+        /** Takes one token, returning 0 on success or the milliseconds until one becomes available. */
+        synchronized long tryConsume() {
+            refill(System.nanoTime());
+            if (tokens >= 1) {
+                tokens -= 1;
+                return 0;
+            }
+            return (long) Math.ceil((1 - tokens) / tokensPerNano / 1_000_000d);
+        }
+
+        private void refill(long now) {
+            tokens = Math.min(capacity, tokens + (now - lastRefill) * tokensPerNano);
+            lastRefill = now;
+        }
+    }
+}
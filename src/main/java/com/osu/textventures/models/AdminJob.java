@@ -0,0 +1,34 @@
+package com.osu.textventures.models;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+public class AdminJob {
+
+    public static final String RUNNING = "RUNNING";
+    public static final String COMPLETED = "COMPLETED";
+    public static final String CANCELLED = "CANCELLED";
+    public static final String FAILED = "FAILED";
+
+    private String id;
+    private String kind;
+    private Map<String, String> params = new HashMap<>();
+    private boolean dryRun;
+    private String status;
+    private String requestedBy;
+    // Last fully processed document id per player collection; "" once a collection is finished.
+    private Map<String, String> cursors = new HashMap<>();
+    private long scanned;
+    private long changed;
+    private long failed;
+    private String error;
+    private long createdAt;
+    private long heartbeatAt;
+    // Set by a cancel on any node; the node driving the job sees it at its next checkpoint.
+    private boolean cancelRequested;
+}
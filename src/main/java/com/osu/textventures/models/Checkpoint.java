@@ -0,0 +1,20 @@
+package com.osu.textventures.models;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A restore point for one save slot. The game history is append-only, so it is not copied: the checkpoint keeps
+ * the history length and a hash of that prefix, and restoring truncates the live history back to it.
+ */
+@Data
+@NoArgsConstructor
+public class Checkpoint {
+    private String id;
+    private String slotId;
+    private String label;
+    private long createdAt;
+    private int historyLength;
+    private int historyHash;
+    private PlayerCharacter state;
+}
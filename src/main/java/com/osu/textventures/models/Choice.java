@@ -3,6 +3,9 @@ package com.osu.textventures.models;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @Data
@@ -14,6 +17,8 @@ public class Choice {
     private String targetId;
     private Map<String, Boolean> flagToSet;
     private Map<String, Object> condition;
+    // Further effects applied after the primary one, e.g. move somewhere, then set a flag and grant an item.
+    private List<Effect> effects;
 
     public Choice(String id, String text, String effectType, String targetId, Map<String, Boolean> flagToSet, Map<String, Object> condition) {
         this.id = id;
@@ -23,5 +28,29 @@ public class Choice {
         this.flagToSet = flagToSet;
         this.condition = condition;
     }
-}
 
+    public Choice copy() {
+        Choice copy = new Choice(id, text, effectType, targetId, flagToSet != null ? new HashMap<>(flagToSet) : null,
+                condition != null ? new HashMap<>(condition) : null);
+        copy.setEffects(effects != null ? new ArrayList<>(effects.stream().map(Effect::copy).toList()) : null);
+        return copy;
+    }
+
+    @Data
+    @NoArgsConstructor
+    public static class Effect {
+        private String type;
+        private String targetId;
+        private Map<String, Boolean> flagToSet;
+
+        public Effect(String type, String targetId, Map<String, Boolean> flagToSet) {
+            this.type = type;
+            this.targetId = targetId;
+            this.flagToSet = flagToSet;
+        }
+
+        public Effect copy() {
+            return new Effect(type, targetId, flagToSet != null ? new HashMap<>(flagToSet) : null);
+        }
+    }
+}
@@ -3,6 +3,9 @@ package com.osu.textventures.models;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.ArrayList;
+import java.util.List;
+
 @Data
 @NoArgsConstructor
 public class Enemy {
@@ -11,6 +14,10 @@ public class Enemy {
     private int health;
     private int damage;
     private String description;
+    // Enemies with higher initiative act first in an encounter.
+    private int initiative;
+    // In priority order: each enemy turn uses the first ability whose conditions hold, or else a plain attack.
+    private List<Ability> abilities = new ArrayList<>();
 
     public Enemy(String id, String name, int health, int damage, String description) {
         this.id = id;
@@ -19,5 +26,41 @@ public class Enemy {
         this.damage = damage;
         this.description = description;
     }
-}
 
+    public Enemy copy() {
+        Enemy copy = new Enemy(id, name, health, damage, description);
+        copy.setInitiative(initiative);
+        copy.setAbilities(abilities != null ? new ArrayList<>(abilities.stream().map(Ability::copy).toList()) : null);
+        return copy;
+    }
+
+    @Data
+    @NoArgsConstructor
+    public static class Ability {
+        private String name;
+        // attack, heal, enrage or flee
+        private String type;
+        // attack: percent of the enemy's damage (default 100); heal: health restored; enrage: percent damage bonus
+        private int power;
+        // Enemy turns the ability stays unavailable after use.
+        private int cooldown;
+        // Usable only while the enemy's health is at or below this percent of its maximum.
+        private int healthBelowPercent = 100;
+        // Percent chance to use the ability when its other conditions hold.
+        private int chance = 100;
+        // Shown in the combat log instead of the default line.
+        private String message;
+
+        public Ability copy() {
+            Ability copy = new Ability();
+            copy.setName(name);
+            copy.setType(type);
+            copy.setPower(power);
+            copy.setCooldown(cooldown);
+            copy.setHealthBelowPercent(healthBelowPercent);
+            copy.setChance(chance);
+            copy.setMessage(message);
+            return copy;
+        }
+    }
+}
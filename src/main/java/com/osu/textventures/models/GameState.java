@@ -7,6 +7,7 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 import java.util.List;
+import java.util.Map;
 
 @Setter
 @Getter
@@ -15,9 +16,18 @@ import java.util.List;
 public class GameState {
     private PlayerCharacter playerCharacter;
     private String currentNarrative;
+    // The narrative is a location description rather than text produced by the turn, so it can be served from cache.
+    private boolean staticNarrative;
     private List<Choice> availableChoices;
+    // "<world version>/<location id>" of a preloaded world the choices come from, so their JSON can be cached by id.
+    // Null for content read live from Firestore, which can change without a new version.
+    private String contentKey;
     private CombatService.CombatState combatState;
     private boolean gameCompleted;
+    // Served from the last known state because the database is unavailable; actions will be rejected.
+    private boolean degraded;
+    // Catalogue entries for the player's item stacks, so the response can show item details next to quantities.
+    private Map<String, Item> inventoryItems;
 
     public GameState(PlayerCharacter playerCharacter, String currentNarrative, List<Choice> availableChoices) {
         this.playerCharacter = playerCharacter;
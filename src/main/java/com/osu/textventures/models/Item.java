@@ -19,4 +19,8 @@ public class Item {
         this.power = power;
         this.goldValue = goldValue;
     }
+
+    public Item copy() {
+        return new Item(id, name, type, power, goldValue);
+    }
 }
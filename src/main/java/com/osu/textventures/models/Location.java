@@ -3,6 +3,7 @@ package com.osu.textventures.models;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.ArrayList;
 import java.util.List;
 
 @Data
@@ -23,5 +24,13 @@ public class Location {
         this.itemsPresent = itemsPresent;
         this.enemyPresentId = enemyPresentId;
     }
+
+    /** A deep copy, for handing out content that is cached or shared between requests. */
+    public Location copy() {
+        return new Location(id, name, description,
+                availableChoices != null ? new ArrayList<>(availableChoices.stream().map(Choice::copy).toList()) : null,
+                itemsPresent != null ? new ArrayList<>(itemsPresent.stream().map(Item::copy).toList()) : null,
+                enemyPresentId);
+    }
 }
 
@@ -1,8 +1,10 @@
 package com.osu.textventures.models;
 
+import com.google.cloud.firestore.annotation.PropertyName;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.HashMap;
@@ -14,15 +16,17 @@ public class PlayerCharacter {
     private String name;
     private int level;
     private int experience;
-    private List<Item> inventory;
+    // Item id -> quantity; the item details live in the content catalogue.
+    private Map<String, Integer> inventory;
     private int baseDamage;
     private int baseHealth;
     private int currentHealth;
     private String currentLocationId;
     private List<String> gameHistory;
     private Map<String, Boolean> flags;
+    private long version;
 
-    public PlayerCharacter(String id, String name, int level, int experience, List<Item> inventory, int baseDamage, int baseHealth, int currentHealth, String currentLocationId, List<String> gameHistory, Map<String, Boolean> flags) {
+    public PlayerCharacter(String id, String name, int level, int experience, Map<String, Integer> inventory, int baseDamage, int baseHealth, int currentHealth, String currentLocationId, List<String> gameHistory, Map<String, Boolean> flags) {
         this.id = id;
         this.name = name;
         this.level = level;
@@ -36,8 +40,44 @@ public class PlayerCharacter {
         this.flags = flags;
     }
 
-    public PlayerCharacter(String id, String name, int level, int experience, List<Item> inventory, int baseDamage, int baseHealth) {
+    public PlayerCharacter(String id, String name, int level, int experience, Map<String, Integer> inventory, int baseDamage, int baseHealth) {
         this(id, name, level, experience, inventory, baseDamage, baseHealth, baseHealth, "bamboo_forest", new java.util.ArrayList<>(), new HashMap<>());
     }
-}
 
+    // Stored as "itemCounts": older documents hold a list of item copies under "inventory", which the Firestore
+    // mapper cannot read into a map. Those are converted on read (see PlayerTimeline#stacks).
+    @PropertyName("itemCounts")
+    public Map<String, Integer> getInventory() {
+        return inventory;
+    }
+
+    @PropertyName("itemCounts")
+    public void setInventory(Map<String, Integer> inventory) {
+        this.inventory = inventory;
+    }
+
+    public void addItem(String itemId) {
+        if (inventory == null) {
+            inventory = new LinkedHashMap<>();
+        }
+        inventory.merge(itemId, 1, Integer::sum);
+    }
+
+    /** Removes one of the item; false if the player has none. */
+    public boolean removeItem(String itemId) {
+        Integer quantity = inventory != null ? inventory.get(itemId) : null;
+        if (quantity == null) {
+            return false;
+        }
+        if (quantity <= 1) {
+            inventory.remove(itemId);
+        } else {
+            inventory.put(itemId, quantity - 1);
+        }
+        return true;
+    }
+
+    public int itemCount(String itemId) {
+        return inventory != null ? inventory.getOrDefault(itemId, 0) : 0;
+    }
+}
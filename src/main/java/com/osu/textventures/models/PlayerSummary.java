@@ -0,0 +1,23 @@
+package com.osu.textventures.models;
+
+/**
+ * Small, signed snapshot of a player's game carried inside the JWT. It is a routing hint for cheap checks only:
+ * anything that changes state still reads the player document.
+ */
+public record PlayerSummary(boolean characterExists, String locationId, long version, long issuedAt) {
+
+    public static PlayerSummary of(PlayerCharacter player) {
+        if (player == null) {
+            return none();
+        }
+        return new PlayerSummary(true, player.getCurrentLocationId(), player.getVersion(), System.currentTimeMillis());
+    }
+
+    public static PlayerSummary none() {
+        return new PlayerSummary(false, null, 0, System.currentTimeMillis());
+    }
+
+    public boolean isFresh(long maxAgeMillis) {
+        return System.currentTimeMillis() - issuedAt <= maxAgeMillis;
+    }
+}
@@ -0,0 +1,384 @@
+package com.osu.textventures.services;
+
+import com.google.api.core.ApiFuture;
+import com.google.api.gax.rpc.StatusCode;
+import com.google.cloud.firestore.*;
+import com.osu.textventures.models.AdminJob;
+import com.osu.textventures.services.PlayerMigrations.PlayerMigration;
+import com.osu.textventures.utils.FirestoreGuard;
+import com.osu.textventures.utils.ShardRouter;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs a {@link PlayerMigration} over every stored player without loading them all at once.
+ *
+ * <p>Each player collection (one per shard) is paged in document-id order, with the next page already being read
+ * while the current one is processed. A page is split into chunks that {@code workers} threads transform and
+ * write as one batch each. The batch is guarded by the players' update times, and a chunk that races a live game
+ * write falls back to per-player {@link PlayerStore#mutate} for its changes. With events storage every change
+ * goes through {@code mutate}, so it becomes an event. After each page, the cursor and counters are checkpointed
+ * to {@value #JOBS}, so a job interrupted by a restart can be resumed. Cancellation is a flag on the same document,
+ * so it reaches the job from whichever node handles the request; the driver picks it up at its next checkpoint.
+ *
+ * <p>Writes are paced to {@code max-writes-per-second} across all jobs, and jobs pause while the Firestore
+ * circuit breaker is open, leaving the headroom to live traffic.
+ */
+@Service
+public class AdminJobService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdminJobService.class);
+
+    static final String JOBS = "adminJobs";
+    private static final String FINISHED = "";
+
+    private final PlayerStore playerStore;
+    private final ShardRouter shards;
+    private final FirestoreGuard guard;
+    private final Firestore db;
+
+    private final ExecutorService drivers = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "admin-job");
+        thread.setDaemon(true);
+        return thread;
+    });
+    // Jobs driven by this node. Other nodes' jobs are recognised by their heartbeat.
+    private final Set<String> running = ConcurrentHashMap.newKeySet();
+    private long nextWriteAt = System.nanoTime();
+
+    @Value("${game.admin.jobs.page-size:500}")
+    private int pageSize;
+
+    @Value("${game.admin.jobs.batch-size:100}")
+    private int batchSize;
+
+    @Value("${game.admin.jobs.workers:4}")
+    private int workers;
+
+    @Value("${game.admin.jobs.max-writes-per-second:200}")
+    private double maxWritesPerSecond;
+
+    // A RUNNING job without a checkpoint for this long is assumed dead and may be resumed on any node.
+    @Value("${game.admin.jobs.stale-after-ms:120000}")
+    private long staleAfterMs;
+
+    public AdminJobService(PlayerStore playerStore, ShardRouter shards, FirestoreGuard guard) {
+        this.playerStore = playerStore;
+        this.shards = shards;
+        this.guard = guard;
+        this.db = playerStore.firestore();
+    }
+
+    // Interrupted jobs are recorded as FAILED with their last cursor and can be resumed after the restart.
+    @PreDestroy
+    public void stop() {
+        drivers.shutdownNow();
+    }
+
+    public AdminJob start(String kind, Map<String, String> params, boolean dryRun, String requestedBy)
+            throws ExecutionException, InterruptedException {
+        PlayerMigration migration = PlayerMigrations.create(kind, params);
+
+        AdminJob job = new AdminJob();
+        job.setId(db.collection(JOBS).document().getId());
+        job.setKind(kind);
+        job.setParams(params != null ? new HashMap<>(params) : new HashMap<>());
+        job.setDryRun(dryRun);
+        job.setStatus(AdminJob.RUNNING);
+        job.setRequestedBy(requestedBy);
+        job.setCreatedAt(System.currentTimeMillis());
+        job.setHeartbeatAt(job.getCreatedAt());
+        guard.await(db.collection(JOBS).document(job.getId()).create(job));
+
+        launch(job, migration);
+        logger.info("Started admin job {} ({}, dry run: {}) for {}", job.getId(), kind, dryRun, requestedBy);
+        return job;
+    }
+
+    public AdminJob resume(String jobId) throws ExecutionException, InterruptedException {
+        AdminJob job = get(jobId);
+        if (AdminJob.COMPLETED.equals(job.getStatus()) || AdminJob.CANCELLED.equals(job.getStatus())) {
+            throw new IllegalArgumentException("Job " + jobId + " is already " + job.getStatus().toLowerCase() + ".");
+        }
+        if (running.contains(jobId) || isAlive(job)) {
+            throw new IllegalArgumentException("Job " + jobId + " is still running.");
+        }
+
+        PlayerMigration migration = PlayerMigrations.create(job.getKind(), job.getParams());
+        job.setStatus(AdminJob.RUNNING);
+        job.setError(null);
+        job.setCancelRequested(false);
+        job.setHeartbeatAt(System.currentTimeMillis());
+        guard.await(db.collection(JOBS).document(jobId).set(job));
+        launch(job, migration);
+        logger.info("Resumed admin job {} at {}", jobId, job.getCursors());
+        return job;
+    }
+
+    public AdminJob cancel(String jobId) throws ExecutionException, InterruptedException {
+        DocumentReference reference = db.collection(JOBS).document(jobId);
+        AdminJob cancelled = guard.await(db.runTransaction(transaction -> {
+            DocumentSnapshot snapshot = transaction.get(reference).get();
+            if (!snapshot.exists()) {
+                return null;
+            }
+            AdminJob job = snapshot.toObject(AdminJob.class);
+            if (AdminJob.COMPLETED.equals(job.getStatus()) || AdminJob.CANCELLED.equals(job.getStatus())) {
+                return job;
+            }
+            if (isAlive(job)) {
+                // The driver, possibly on another node, notices after the current page and records the cancellation.
+                job.setCancelRequested(true);
+                transaction.update(reference, "cancelRequested", true);
+            } else {
+                job.setStatus(AdminJob.CANCELLED);
+                transaction.update(reference, "status", AdminJob.CANCELLED);
+            }
+            return job;
+        }));
+        if (cancelled == null) {
+            throw new IllegalArgumentException("Job not found.");
+        }
+        return cancelled;
+    }
+
+    public AdminJob get(String jobId) throws ExecutionException, InterruptedException {
+        DocumentSnapshot snapshot = guard.await(db.collection(JOBS).document(jobId).get());
+        if (!snapshot.exists()) {
+            throw new IllegalArgumentException("Job not found.");
+        }
+        return snapshot.toObject(AdminJob.class);
+    }
+
+    public List<AdminJob> list(int limit) throws ExecutionException, InterruptedException {
+        List<AdminJob> jobs = new ArrayList<>();
+        for (DocumentSnapshot snapshot : guard.await(db.collection(JOBS)
+                .orderBy("createdAt", Query.Direction.DESCENDING).limit(limit).get()).getDocuments()) {
+            jobs.add(snapshot.toObject(AdminJob.class));
+        }
+        return jobs;
+    }
+
+    private boolean isAlive(AdminJob job) {
+        return AdminJob.RUNNING.equals(job.getStatus())
+                && System.currentTimeMillis() - job.getHeartbeatAt() < staleAfterMs;
+    }
+
+    private void launch(AdminJob job, PlayerMigration migration) {
+        running.add(job.getId());
+        drivers.execute(() -> {
+            ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, workers), runnable -> {
+                Thread thread = new Thread(runnable, "admin-job-" + job.getId());
+                thread.setDaemon(true);
+                return thread;
+            });
+            try {
+                run(job, migration, pool);
+            } catch (Exception e) {
+                logger.error("Admin job {} failed: {}", job.getId(), e.getMessage(), e);
+                job.setStatus(AdminJob.FAILED);
+                job.setError(e.getMessage());
+                try {
+                    checkpoint(job);
+                } catch (Exception checkpointError) {
+                    logger.warn("Could not record failure of admin job {}: {}", job.getId(), checkpointError.getMessage());
+                }
+                if (e instanceof InterruptedException) {
+                    Thread.currentThread().interrupt();
+                }
+            } finally {
+                pool.shutdownNow();
+                running.remove(job.getId());
+            }
+        });
+    }
+
+    private void run(AdminJob job, PlayerMigration migration, ExecutorService pool) throws Exception {
+        AtomicLong scanned = new AtomicLong(job.getScanned());
+        AtomicLong changed = new AtomicLong(job.getChanged());
+        AtomicLong failed = new AtomicLong(job.getFailed());
+
+        for (int shard = 0; shard < shards.getShardCount(); shard++) {
+            String collection = ShardRouter.collectionName(ShardRouter.PLAYERS, shard);
+            String cursor = job.getCursors().get(collection);
+            if (FINISHED.equals(cursor)) {
+                continue;
+            }
+
+            ApiFuture<QuerySnapshot> page = page(collection, cursor).get();
+            while (true) {
+                List<QueryDocumentSnapshot> documents = guard.await(page).getDocuments();
+                if (documents.isEmpty()) {
+                    job.getCursors().put(collection, FINISHED);
+                    checkpoint(job);
+                    break;
+                }
+                cursor = documents.get(documents.size() - 1).getId();
+                // Read ahead while this page is being transformed and written.
+                page = documents.size() < pageSize ? null : page(collection, cursor).get();
+
+                List<Callable<Void>> chunks = new ArrayList<>();
+                for (int from = 0; from < documents.size(); from += batchSize) {
+                    List<QueryDocumentSnapshot> chunk = documents.subList(from, Math.min(from + batchSize, documents.size()));
+                    chunks.add(() -> {
+                        processChunk(job, migration, chunk, changed, failed);
+                        return null;
+                    });
+                }
+                for (Future<Void> result : pool.invokeAll(chunks)) {
+                    result.get();
+                }
+                scanned.addAndGet(documents.size());
+
+                job.getCursors().put(collection, page == null ? FINISHED : cursor);
+                job.setScanned(scanned.get());
+                job.setChanged(changed.get());
+                job.setFailed(failed.get());
+                if (checkpoint(job)) {
+                    job.setStatus(AdminJob.CANCELLED);
+                    checkpoint(job);
+                    logger.info("Admin job {} cancelled after {} players", job.getId(), scanned.get());
+                    return;
+                }
+                if (page == null) {
+                    break;
+                }
+                waitWhileDegraded(job);
+            }
+        }
+
+        job.setStatus(AdminJob.COMPLETED);
+        checkpoint(job);
+        logger.info("Admin job {} completed: {} scanned, {} changed, {} failed", job.getId(), job.getScanned(),
+                job.getChanged(), job.getFailed());
+    }
+
+    private Query page(String collection, String cursor) {
+        Query query = db.collection(collection).orderBy(FieldPath.documentId()).limit(pageSize);
+        return cursor != null ? query.startAfter(cursor) : query;
+    }
+
+    private void processChunk(AdminJob job, PlayerMigration migration, List<QueryDocumentSnapshot> chunk,
+                              AtomicLong changed, AtomicLong failed) throws ExecutionException, InterruptedException {
+        String eventType = "admin:" + job.getKind();
+        PlayerStore.PlayerMutation<Boolean> mutation = migration::apply;
+
+        if (playerStore.eventSourced() && !job.isDryRun()) {
+            for (QueryDocumentSnapshot snapshot : chunk) {
+                throttle(1);
+                mutateOne(snapshot.getId(), eventType, mutation, changed, failed);
+            }
+            return;
+        }
+
+        WriteBatch batch = db.batch();
+        List<PlayerStore.StagedChange> staged = new ArrayList<>();
+        for (QueryDocumentSnapshot snapshot : chunk) {
+            try {
+                PlayerStore.StagedChange change = playerStore.stageMutation(batch, snapshot, mutation);
+                if (change != null) {
+                    staged.add(change);
+                }
+            } catch (RuntimeException e) {
+                logger.warn("Admin job {} skipped player {}: {}", job.getId(), snapshot.getId(), e.getMessage());
+                failed.incrementAndGet();
+            }
+        }
+        if (staged.isEmpty()) {
+            return;
+        }
+        if (job.isDryRun()) {
+            changed.addAndGet(staged.size());
+            return;
+        }
+
+        throttle(staged.size());
+        try {
+            guard.await(batch.commit());
+            changed.addAndGet(staged.size());
+            staged.forEach(change -> playerStore.notifyChanged(change.userId(), change.before(), change.after()));
+        } catch (ExecutionException e) {
+            if (!PlayerStore.hasStatus(e, StatusCode.Code.FAILED_PRECONDITION)) {
+                throw e;
+            }
+            logger.debug("Admin job {} raced a game write, retrying {} players one by one", job.getId(), staged.size());
+            for (PlayerStore.StagedChange change : staged) {
+                mutateOne(change.userId(), eventType, mutation, changed, failed);
+            }
+        }
+    }
+
+    private void mutateOne(String userId, String eventType, PlayerStore.PlayerMutation<Boolean> mutation,
+                           AtomicLong changed, AtomicLong failed) throws InterruptedException {
+        try {
+            if (playerStore.mutate(userId, eventType, mutation)) {
+                changed.incrementAndGet();
+            }
+        } catch (ExecutionException | RuntimeException e) {
+            logger.warn("Admin job could not update player {}: {}", userId, e.getMessage());
+            failed.incrementAndGet();
+        }
+    }
+
+    // Shared pacing across jobs and workers: each write reserves its slot, then sleeps until the slot comes up.
+    private void throttle(int writes) throws InterruptedException {
+        long wait;
+        synchronized (this) {
+            long now = System.nanoTime();
+            long start = Math.max(now, nextWriteAt);
+            nextWriteAt = start + (long) (writes * 1_000_000_000d / maxWritesPerSecond);
+            wait = start - now;
+        }
+        if (wait > 0) {
+            TimeUnit.NANOSECONDS.sleep(wait);
+        }
+    }
+
+    /**
+     * Sleeps until the breaker closes, heartbeating the job so that no other node takes it for dead and resumes it
+     * meanwhile. The heartbeat goes around the guard, which rejects every call while the breaker is open; it is one
+     * small write every quarter of {@code stale-after-ms} and gives up quickly if it does not go through.
+     */
+    private void waitWhileDegraded(AdminJob job) throws InterruptedException {
+        long heartbeatEvery = Math.max(1000, staleAfterMs / 4);
+        long lastHeartbeat = System.currentTimeMillis();
+        while (guard.isDegraded()) {
+            TimeUnit.SECONDS.sleep(1);
+            long now = System.currentTimeMillis();
+            if (now - lastHeartbeat < heartbeatEvery) {
+                continue;
+            }
+            lastHeartbeat = now;
+            try {
+                db.collection(JOBS).document(job.getId()).update("heartbeatAt", now).get(5, TimeUnit.SECONDS);
+                job.setHeartbeatAt(now);
+            } catch (ExecutionException | TimeoutException e) {
+                logger.debug("Could not heartbeat admin job {} while degraded: {}", job.getId(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Records the job's progress and returns whether a cancel has been requested. The job document is read in the
+     * same transaction so that a cancel written by another node in the meantime is kept rather than overwritten.
+     */
+    private boolean checkpoint(AdminJob job) throws ExecutionException, InterruptedException {
+        DocumentReference reference = db.collection(JOBS).document(job.getId());
+        return guard.await(db.runTransaction(transaction -> {
+            DocumentSnapshot snapshot = transaction.get(reference).get();
+            if (snapshot.exists() && Boolean.TRUE.equals(snapshot.getBoolean("cancelRequested"))) {
+                job.setCancelRequested(true);
+            }
+            job.setHeartbeatAt(System.currentTimeMillis());
+            transaction.set(reference, job);
+            return job.isCancelRequested() && AdminJob.RUNNING.equals(job.getStatus());
+        }));
+    }
+}
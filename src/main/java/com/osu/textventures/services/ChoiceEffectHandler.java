@@ -0,0 +1,28 @@
+package com.osu.textventures.services;
+
+import com.osu.textventures.content.ChoiceEffects;
+import com.osu.textventures.content.TurnReadPlan;
+import com.osu.textventures.models.Choice;
+import com.osu.textventures.models.PlayerCharacter;
+
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Applies one type of choice effect. The built-in effects are registered by {@link EffectRegistry}; further
+ * handlers are picked up as Spring beans, and content may use their type once the bean exists. {@code WorldValidator}
+ * checks only that such an effect's type is registered, so a handler should cope with any target it is given.
+ */
+public interface ChoiceEffectHandler {
+
+    String type();
+
+    /** Declares the content the effect will read, so a turn can fetch everything its effects need in one round trip. */
+    default void plan(Choice.Effect effect, PlayerCharacter player, TurnReadPlan plan) {
+        String collection = ChoiceEffects.TARGET_COLLECTIONS.get(type());
+        if (collection != null) {
+            plan.expect(collection, effect.getTargetId());
+        }
+    }
+
+    void apply(Choice.Effect effect, EffectTurn turn) throws ExecutionException, InterruptedException;
+}
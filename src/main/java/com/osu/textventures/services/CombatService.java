@@ -1,5 +1,6 @@
 package com.osu.textventures.services;
 
+import com.osu.textventures.content.EnemyBehaviour;
 import com.osu.textventures.models.Enemy;
 import com.osu.textventures.models.Item;
 import com.osu.textventures.models.PlayerCharacter;
@@ -7,221 +8,319 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
 
 @Service
 public class CombatService {
 
+    /** Index of the acting player in the encounters {@link GameService} starts, which have a party of one. */
+    public static final int PLAYER = 0;
+
     private static final Logger logger = LoggerFactory.getLogger(CombatService.class);
 
+    // Seeds encounters only; every roll inside an encounter comes from its own generator.
     private final Random random = new Random();
 
-    public CombatState startCombat(PlayerCharacter player, Enemy enemy) {
+    // Up to this many attacking enemies get a log line each; larger groups get one summary line per round.
+    @Value("${game.combat.detailed-attackers:4}")
+    private int detailedAttackers = 4;
+
+    /** {@code items} holds the catalogue entries for the player's inventory; every copy of a weapon or armor counts. */
+    public Encounter startCombat(PlayerCharacter player, Enemy enemy, EnemyBehaviour behaviour, Map<String, Item> items) {
         logger.info("Starting combat: {} vs {}", player.getName(), enemy.getName());
 
-        CombatState state = new CombatState();
-
-        int weaponBonus = player.getInventory().stream()
-                .filter(item -> "weapon".equalsIgnoreCase(item.getType()))
-                .mapToInt(Item::getPower)
-                .sum();
-
-        int armorBonus = player.getInventory().stream()
-                .filter(item -> "armor".equalsIgnoreCase(item.getType()))
-                .mapToInt(Item::getPower)
-                .sum();
-
-        logger.debug("Combat bonuses - weapon: +{}, armor: +{}", weaponBonus, armorBonus);
-
-        state.setPlayerCurrentHealth(player.getCurrentHealth());
-        state.setPlayerMaxHealth(player.getBaseHealth() + armorBonus);
-        state.setPlayerDamage(player.getBaseDamage() + weaponBonus);
-        state.setEnemyCurrentHealth(enemy.getHealth());
-        state.setEnemyMaxHealth(enemy.getHealth());
-        state.setEnemyDamage(enemy.getDamage());
-        state.setEnemyId(enemy.getId());
-        state.setEnemyName(enemy.getName());
-        state.setEnemyDescription(enemy.getDescription());
-        state.setCombatActive(true);
-        state.setPlayerTurn(true);
-        state.getCombatLog().add("Combat begins! You face " + enemy.getName() + "!");
-        state.getCombatLog().add(enemy.getDescription());
-
-        if (weaponBonus > 0) {
-            state.getCombatLog().add("Your weapons grant +" + weaponBonus + " damage!");
+        Encounter encounter = new Encounter(2, random.nextLong());
+        List<String> bonuses = addParty(encounter, List.of(player), items);
+        join(encounter, enemy, behaviour);
+        bonuses.forEach(encounter::log);
+        return encounter;
+    }
+
+    /**
+     * Starts an encounter set up in code, such as a balance run: every enemy is compiled here and {@code seed}
+     * fixes every roll. {@code items} holds the catalogue entries for the inventories of the whole party.
+     */
+    public Encounter startEncounter(List<PlayerCharacter> party, List<Enemy> enemies, Map<String, Item> items, long seed) {
+        logger.info("Starting encounter: {} party member(s) vs {} enemies", party.size(), enemies.size());
+
+        Encounter encounter = new Encounter(party.size() + enemies.size(), seed);
+        List<String> bonuses = addParty(encounter, party, items);
+        for (Enemy enemy : enemies) {
+            join(encounter, enemy, EnemyBehaviour.compile(enemy));
         }
-        if (armorBonus > 0) {
-            state.getCombatLog().add("Your armor grants +" + armorBonus + " max health!");
+        bonuses.forEach(encounter::log);
+        return encounter;
+    }
+
+    // Adds the party with its equipment bonuses and returns the bonus lines, which are logged after the enemies.
+    private List<String> addParty(Encounter encounter, List<PlayerCharacter> party, Map<String, Item> items) {
+        List<String> bonuses = new ArrayList<>();
+        for (PlayerCharacter player : party) {
+            int weaponBonus = 0;
+            int armorBonus = 0;
+            for (Map.Entry<String, Integer> stack : player.getInventory().entrySet()) {
+                Item item = items.get(stack.getKey());
+                if (item == null) {
+                    continue;
+                }
+                if ("weapon".equalsIgnoreCase(item.getType())) {
+                    weaponBonus += item.getPower() * stack.getValue();
+                } else if ("armor".equalsIgnoreCase(item.getType())) {
+                    armorBonus += item.getPower() * stack.getValue();
+                }
+            }
+
+            logger.debug("Combat bonuses for {} - weapon: +{}, armor: +{}", player.getName(), weaponBonus, armorBonus);
+
+            encounter.add(Encounter.PARTY, player.getId(), player.getName(), null, player.getCurrentHealth(),
+                    player.getBaseHealth() + armorBonus, player.getBaseDamage() + weaponBonus, 0, null);
+            String owner = party.size() == 1 ? "Your" : player.getName() + "'s";
+            if (weaponBonus > 0) {
+                bonuses.add(owner + " weapons grant +" + weaponBonus + " damage!");
+            }
+            if (armorBonus > 0) {
+                bonuses.add(owner + " armor grants +" + armorBonus + " max health!");
+            }
         }
+        return bonuses;
+    }
 
-        return state;
+    /** Adds an enemy to the encounter; enemies act in order of their initiative, ties in order of arrival. */
+    public void join(Encounter encounter, Enemy enemy, EnemyBehaviour behaviour) {
+        boolean first = encounter.focus() < 0;
+        encounter.add(Encounter.ENEMIES, enemy.getId(), enemy.getName(), enemy.getDescription(),
+                enemy.getHealth(), enemy.getHealth(), enemy.getDamage(), enemy.getInitiative(), behaviour);
+        encounter.log(first ? "Combat begins! You face " + enemy.getName() + "!" : enemy.getName() + " joins the fight!");
+        encounter.log(enemy.getDescription());
     }
 
-    public CombatResult processAction(CombatState state, CombatAction action) {
+    /**
+     * Resolves one action of the party member {@code actor}, followed by the enemies' phase. {@code targetId} picks
+     * the enemy to attack; when it is null or already down, the enemy in focus is attacked.
+     */
+    public CombatResult processAction(Encounter encounter, int actor, CombatAction action, String targetId) {
         logger.debug("Processing combat action: {}", action);
 
         CombatResult result = new CombatResult();
+        result.setEncounter(encounter);
         result.setCombatLog(new ArrayList<>());
 
-        if (!state.isCombatActive()) {
+        if (!encounter.isActive()) {
             logger.warn("Attempted action on inactive combat");
             result.getCombatLog().add("Combat is not active!");
-            result.setCombatState(state);
             return result;
         }
 
-        CombatResult playerResult;
-        boolean usedItem = false;
         switch (action) {
-            case ATTACK:
-                playerResult = processPlayerAttack(state);
-                break;
-            case DEFEND:
-                playerResult = processPlayerDefend(state);
-                break;
-            case FLEE:
-                playerResult = processPlayerFlee(state);
-                break;
-            case USE_ITEM:
-                playerResult = processPlayerUseItem(state);
-                usedItem = true;
-                break;
-            default:
+            case ATTACK -> processPlayerAttack(encounter, actor, targetId, result);
+            case DEFEND -> processPlayerDefend(encounter, actor, result);
+            case FLEE -> processPlayerFlee(encounter, actor, result);
+            case USE_ITEM -> {
+                // The item is used by GameService, which owns the inventory.
+            }
+            default -> {
                 result.getCombatLog().add("Invalid action!");
-                result.setCombatState(state);
                 return result;
+            }
         }
 
-        result.getCombatLog().addAll(playerResult.getCombatLog());
-        state = playerResult.getCombatState();
-        result.setVictory(playerResult.isVictory());
-        result.setDefeated(playerResult.isDefeated());
-        result.setFled(playerResult.isFled());
-        result.setExperienceGained(playerResult.getExperienceGained());
-
-        if (state.isCombatActive() && !result.isFled() && !usedItem) {
-            CombatResult enemyResult = processEnemyAttack(state);
-            result.getCombatLog().addAll(enemyResult.getCombatLog());
-            state = enemyResult.getCombatState();
-            result.setDefeated(enemyResult.isDefeated());
-        } else if (usedItem && state.isCombatActive()) {
-            result.getCombatLog().add("You quickly heal before the enemy can react!");
+        if (encounter.isActive() && !result.isFled() && action != CombatAction.USE_ITEM) {
+            processEnemyPhase(encounter, result);
+        } else if (action == CombatAction.USE_ITEM && encounter.isActive()) {
+            log(encounter, result, "You quickly heal before the enemy can react!");
         }
 
-        result.setCombatState(state);
         return result;
     }
 
-    private CombatResult processPlayerAttack(CombatState state) {
-        CombatResult result = new CombatResult();
-        result.setCombatLog(new ArrayList<>());
-
-        state.setPlayerDefending(false);
+    private static void log(Encounter encounter, CombatResult result, String line) {
+        encounter.log(line);
+        result.getCombatLog().add(line);
+    }
 
-        int playerDamage = calculateDamage(state.getPlayerDamage());
-        state.setEnemyCurrentHealth(state.getEnemyCurrentHealth() - playerDamage);
-        result.getCombatLog().add("You attack " + state.getEnemyName() + " for " + playerDamage + " damage!");
+    private void processPlayerAttack(Encounter encounter, int actor, String targetId, CombatResult result) {
+        encounter.setDefending(actor, false);
 
-        if (state.getEnemyCurrentHealth() <= 0) {
-            state.setEnemyCurrentHealth(0);
-            state.setCombatActive(false);
-            result.getCombatLog().add(state.getEnemyName() + " has been defeated!");
-            result.setVictory(true);
-            result.setExperienceGained(calculateExperience(state.getEnemyMaxHealth(), state.getEnemyDamage()));
-            result.getCombatLog().add("You gained " + result.getExperienceGained() + " experience!");
-            logger.info("Enemy {} defeated, XP gained: {}", state.getEnemyName(), result.getExperienceGained());
+        int target = targetId != null ? encounter.indexOf(targetId) : -1;
+        if (target < 0 || encounter.side(target) != Encounter.ENEMIES || !encounter.isStanding(target)) {
+            target = encounter.focus();
+        }
+        encounter.setFocus(target);
+
+        int playerDamage = calculateDamage(encounter, encounter.damage(actor));
+        encounter.hit(target, playerDamage);
+        log(encounter, result, "You attack " + encounter.name(target) + " for " + playerDamage + " damage!");
+
+        if (!encounter.isStanding(target)) {
+            log(encounter, result, encounter.name(target) + " has been defeated!");
+            if (encounter.standing(Encounter.ENEMIES) == 0) {
+                encounter.end();
+                result.setVictory(true);
+                result.setExperienceGained(calculateExperience(encounter));
+                log(encounter, result, "You gained " + result.getExperienceGained() + " experience!");
+                logger.info("Encounter won against {}, XP gained: {}", encounter.name(target), result.getExperienceGained());
+            }
         }
-
-        result.setCombatState(state);
-        return result;
     }
 
-    private CombatResult processEnemyAttack(CombatState state) {
-        CombatResult result = new CombatResult();
-        result.setCombatLog(new ArrayList<>());
-
-        int enemyDamage = calculateDamage(state.getEnemyDamage());
-
-        if (state.isPlayerDefending()) {
-            enemyDamage = (int) (enemyDamage * 0.5);
-            result.getCombatLog().add(state.getEnemyName() + " attacks! You block and reduce damage!");
-            state.setPlayerDefending(false);
+    /**
+     * Every standing enemy acts in turn order: it uses the first usable row of its decision table, or else makes a
+     * plain attack on one of the standing party members. Hits are queued and applied in one
+     * {@link Encounter#resolveDamage()} pass. Apart from log lines, which large groups summarise, the phase
+     * allocates nothing, so the cost per action stays a few array passes however large the encounter is.
+     */
+    private void processEnemyPhase(Encounter encounter, CombatResult result) {
+        int partyStanding = encounter.standing(Encounter.PARTY);
+        boolean soloParty = partyStanding == 1;
+        boolean detailed = encounter.standing(Encounter.ENEMIES) <= detailedAttackers;
+
+        int attacks = 0;
+        int total = 0;
+        int fled = 0;
+        for (int index : encounter.turnOrder()) {
+            if (encounter.side(index) != Encounter.ENEMIES || !encounter.isStanding(index)) {
+                continue;
+            }
+            EnemyBehaviour behaviour = encounter.behaviour(index);
+            int row = encounter.chooseAbility(index);
+            if (row >= 0 && behaviour.kind(row) != EnemyBehaviour.ATTACK) {
+                useAbility(encounter, index, behaviour, row, detailed, result);
+                if (encounter.hasFled(index)) {
+                    fled++;
+                }
+                continue;
+            }
+
+            int target = encounter.nthStanding(Encounter.PARTY, attacks++, partyStanding);
+            int baseDamage = row >= 0 ? encounter.damage(index) * behaviour.power(row) / 100 : encounter.damage(index);
+            int enemyDamage = calculateDamage(encounter, baseDamage);
+            if (row >= 0 && detailed) {
+                log(encounter, result, behaviour.message(row) != null ? behaviour.message(row)
+                        : encounter.name(index) + " uses " + behaviour.name(row) + "!");
+            }
+            if (encounter.isDefending(target)) {
+                enemyDamage = (int) (enemyDamage * 0.5);
+                if (detailed) {
+                    log(encounter, result, encounter.name(index) + " attacks! "
+                            + (soloParty ? "You block" : encounter.name(target) + " blocks") + " and reduce damage!");
+                }
+            }
+            encounter.queueDamage(target, enemyDamage);
+            total += enemyDamage;
+            if (detailed) {
+                log(encounter, result, encounter.name(index) + " deals " + enemyDamage + " damage"
+                        + (soloParty ? "" : " to " + encounter.name(target)) + "!");
+            }
+        }
+        if (!detailed) {
+            log(encounter, result, attacks + " enemies attack for " + total + " damage in total!");
+            if (fled > 0) {
+                log(encounter, result, fled + " enemies flee the fight!");
+            }
         }
 
-        state.setPlayerCurrentHealth(state.getPlayerCurrentHealth() - enemyDamage);
-        result.getCombatLog().add(state.getEnemyName() + " deals " + enemyDamage + " damage!");
+        if (!soloParty) {
+            for (int i = 0; i < encounter.size(); i++) {
+                if (encounter.side(i) == Encounter.PARTY && encounter.isStanding(i) && encounter.isQueuedFatal(i)) {
+                    log(encounter, result, encounter.name(i) + " falls!");
+                }
+            }
+        }
+        encounter.resolveDamage();
+        encounter.endEnemyTurn();
 
-        if (state.getPlayerCurrentHealth() <= 0) {
-            state.setPlayerCurrentHealth(0);
-            state.setCombatActive(false);
-            result.getCombatLog().add("You have been defeated...");
+        if (encounter.standing(Encounter.PARTY) == 0) {
+            encounter.end();
+            log(encounter, result, "You have been defeated...");
             result.setDefeated(true);
-            logger.info("Player defeated by {}", state.getEnemyName());
+            logger.info("Party defeated by {}", encounter.name(encounter.focus()));
+            return;
+        }
+        if (encounter.standing(Encounter.ENEMIES) == 0) {
+            encounter.end();
+            result.setVictory(true);
+            result.setExperienceGained(calculateExperience(encounter));
+            log(encounter, result, "Your remaining foes have fled!");
+            log(encounter, result, "You gained " + result.getExperienceGained() + " experience!");
+            logger.info("Encounter won after the enemies fled, XP gained: {}", result.getExperienceGained());
         }
-
-        result.setCombatState(state);
-        return result;
     }
 
-    private CombatResult processPlayerDefend(CombatState state) {
-        CombatResult result = new CombatResult();
-        result.setCombatLog(new ArrayList<>());
+    private void useAbility(Encounter encounter, int index, EnemyBehaviour behaviour, int row, boolean detailed,
+                            CombatResult result) {
+        String line;
+        switch (behaviour.kind(row)) {
+            case EnemyBehaviour.HEAL -> {
+                int healed = encounter.heal(index, behaviour.power(row));
+                line = encounter.name(index) + " uses " + behaviour.name(row) + " and recovers " + healed + " health!";
+            }
+            case EnemyBehaviour.ENRAGE -> {
+                encounter.enrage(index, behaviour.power(row));
+                line = encounter.name(index) + " uses " + behaviour.name(row) + " and grows stronger!";
+            }
+            case EnemyBehaviour.FLEE -> {
+                encounter.setFled(index);
+                line = encounter.name(index) + " flees the fight!";
+            }
+            default -> {
+                return;
+            }
+        }
+        if (detailed) {
+            log(encounter, result, behaviour.message(row) != null ? behaviour.message(row) : line);
+        }
+    }
 
-        state.setPlayerDefending(true);
-        result.getCombatLog().add("You take a defensive stance!");
+    private void processPlayerDefend(Encounter encounter, int actor, CombatResult result) {
+        encounter.setDefending(actor, true);
+        log(encounter, result, "You take a defensive stance!");
 
-        int healAmount = 10;
-        int oldHealth = state.getPlayerCurrentHealth();
-        int newHealth = Math.min(oldHealth + healAmount, state.getPlayerMaxHealth());
-        state.setPlayerCurrentHealth(newHealth);
-        int actualHealing = newHealth - oldHealth;
+        int actualHealing = encounter.heal(actor, 10);
         if (actualHealing > 0) {
-            result.getCombatLog().add("You recover " + actualHealing + " health!");
+            log(encounter, result, "You recover " + actualHealing + " health!");
         }
-
-        result.setCombatState(state);
-        return result;
     }
 
-    private CombatResult processPlayerFlee(CombatState state) {
-        CombatResult result = new CombatResult();
-        result.setCombatLog(new ArrayList<>());
-
-        if (random.nextInt(100) < 60) {
-            state.setCombatActive(false);
-            result.getCombatLog().add("You successfully fled from combat!");
+    private void processPlayerFlee(Encounter encounter, int actor, CombatResult result) {
+        if (encounter.nextInt(100) < 60) {
+            encounter.setFled(actor);
+            if (encounter.standing(Encounter.PARTY) == 0) {
+                encounter.end();
+            }
+            log(encounter, result, "You successfully fled from combat!");
             result.setFled(true);
-            logger.info("Player fled from combat with {}", state.getEnemyName());
+            logger.info("Player fled from combat with {}", encounter.name(encounter.focus()));
         } else {
-            result.getCombatLog().add("You failed to escape!");
-            logger.debug("Player failed to flee from {}", state.getEnemyName());
+            log(encounter, result, "You failed to escape!");
+            logger.debug("Player failed to flee from {}", encounter.name(encounter.focus()));
         }
-
-        result.setCombatState(state);
-        return result;
     }
 
-    private CombatResult processPlayerUseItem(CombatState state) {
-        CombatResult result = new CombatResult();
-        result.setCombatLog(new ArrayList<>());
-
-        result.setCombatState(state);
-        return result;
-    }
-
-    private int calculateDamage(int baseDamage) {
+    private int calculateDamage(Encounter encounter, int baseDamage) {
         int variance = (int) (baseDamage * 0.2);
-        return baseDamage - variance + random.nextInt(variance * 2 + 1);
+        return baseDamage - variance + encounter.nextInt(variance * 2 + 1);
     }
 
     private int calculateExperience(int enemyHealth, int enemyDamage) {
         return (enemyHealth + enemyDamage * 2) / 2;
     }
 
+    private int calculateExperience(Encounter encounter) {
+        int experience = 0;
+        for (int i = 0; i < encounter.size(); i++) {
+            if (encounter.side(i) == Encounter.ENEMIES && !encounter.hasFled(i)) {
+                experience += calculateExperience(encounter.maxHealth(i), encounter.damage(i));
+            }
+        }
+        return experience;
+    }
+
     public enum CombatAction {
         ATTACK,
         DEFEND,
@@ -229,6 +328,10 @@ public class CombatService {
         USE_ITEM
     }
 
+    /**
+     * Response form of an {@link Encounter} for one player. The enemy fields describe the enemy in focus;
+     * {@code combatants} lists everyone in turn order.
+     */
     @Data
     @NoArgsConstructor
     public static class CombatState {
@@ -247,17 +350,30 @@ public class CombatService {
         private String enemyName;
         private String enemyDescription;
 
+        private List<Combatant> combatants = new ArrayList<>();
         private List<String> combatLog = new ArrayList<>();
     }
 
+    @Data
+    @NoArgsConstructor
+    public static class Combatant {
+        private String id;
+        private String name;
+        private String side;
+        private int currentHealth;
+        private int maxHealth;
+        private int damage;
+        private boolean standing;
+    }
+
     @Data
     @NoArgsConstructor
     public static class CombatResult {
-        private CombatState combatState;
+        private Encounter encounter;
         private List<String> combatLog;
         private boolean victory;
         private boolean defeated;
         private boolean fled;
         private int experienceGained;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,215 @@
+package com.osu.textventures.services;
+
+import com.osu.textventures.content.ChoiceEffects;
+import com.osu.textventures.content.ContentSource;
+import com.osu.textventures.content.TurnReadPlan;
+import com.osu.textventures.content.World;
+import com.osu.textventures.models.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Choice effect handlers by type. Every choice of the published world is compiled once into its effects paired
+ * with their handlers, so applying a choice runs a short list of handlers without matching strings. Choices of
+ * on-demand content are compiled per use, which costs one map lookup per effect. The registered types are also
+ * the ones {@code WorldValidator} accepts, so a handler bean is all a new effect type needs.
+ */
+@Service
+public class EffectRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(EffectRegistry.class);
+
+    private final CombatService combatService;
+    private final Map<String, ChoiceEffectHandler> handlers = new HashMap<>();
+    private final Set<String> effectTypes;
+    private final ChoiceEffectHandler unknown = new BuiltIn("unknown", (effect, turn) -> turn.report("Nothing happened."), false);
+    private volatile CompiledWorld compiled = new CompiledWorld(null, Map.of());
+
+    public EffectRegistry(CombatService combatService, ObjectProvider<ChoiceEffectHandler> extraHandlers) {
+        this.combatService = combatService;
+        register(new BuiltIn(ChoiceEffects.MOVE_LOCATION, this::moveLocation, false));
+        register(new BuiltIn(ChoiceEffects.FIND_ITEM, this::findItem, false));
+        register(new BuiltIn(ChoiceEffects.START_COMBAT, this::startCombat, true));
+        register(new BuiltIn(ChoiceEffects.SET_FLAG, this::setFlag, false));
+        register(new BuiltIn(ChoiceEffects.DISPLAY_TEXT, this::displayText, false));
+        extraHandlers.orderedStream().forEach(this::register);
+        this.effectTypes = Set.copyOf(handlers.keySet());
+    }
+
+    /** The effect types that have a handler; content may use no others. */
+    public Set<String> effectTypes() {
+        return effectTypes;
+    }
+
+    private void register(ChoiceEffectHandler handler) {
+        ChoiceEffectHandler previous = handlers.put(handler.type(), handler);
+        if (previous != null) {
+            logger.info("Effect handler {} replaces the built-in {} effect", handler.getClass().getSimpleName(), handler.type());
+        }
+    }
+
+    @FunctionalInterface
+    private interface Step {
+        void apply(Choice.Effect effect, EffectTurn turn) throws ExecutionException, InterruptedException;
+    }
+
+    private record BuiltIn(String type, Step step, boolean readsInventory) implements ChoiceEffectHandler {
+
+        @Override
+        public void plan(Choice.Effect effect, PlayerCharacter player, TurnReadPlan plan) {
+            ChoiceEffectHandler.super.plan(effect, player, plan);
+            if (readsInventory && player.getInventory() != null) {
+                plan.expectItems(player.getInventory().keySet());
+            }
+        }
+
+        @Override
+        public void apply(Choice.Effect effect, EffectTurn turn) throws ExecutionException, InterruptedException {
+            step.apply(effect, turn);
+        }
+    }
+
+    private record BoundEffect(ChoiceEffectHandler handler, Choice.Effect effect) {
+    }
+
+    // Location id -> choice id -> effects. The world hands out copies of its choices, so they are found by id.
+    private record CompiledWorld(World world, Map<String, Map<String, List<BoundEffect>>> choices) {
+    }
+
+    /** Compiles a world as it is published, so its first turns do not pay for it. */
+    public void prepare(World world) {
+        compile(world);
+    }
+
+    private List<BoundEffect> resolve(String locationId, Choice choice, ContentSource content) {
+        if (!(content instanceof World world)) {
+            return bind(choice);
+        }
+        CompiledWorld current = compiled;
+        if (current.world() != world) {
+            current = compile(world);
+        }
+        Map<String, List<BoundEffect>> atLocation = current.choices().get(locationId);
+        List<BoundEffect> effects = atLocation != null ? atLocation.get(choice.getId()) : null;
+        return effects != null ? effects : bind(choice);
+    }
+
+    private synchronized CompiledWorld compile(World world) {
+        if (compiled.world() == world) {
+            return compiled;
+        }
+        Map<String, Map<String, List<BoundEffect>>> choices = new HashMap<>();
+        int count = 0;
+        for (Location location : world.getLocations().values()) {
+            Map<String, List<BoundEffect>> atLocation = new HashMap<>();
+            for (Choice choice : location.getAvailableChoices()) {
+                atLocation.put(choice.getId(), bind(choice));
+            }
+            choices.put(location.getId(), atLocation);
+            count += atLocation.size();
+        }
+        logger.info("Compiled the effects of {} choices for world {}", count, world.getVersion());
+        compiled = new CompiledWorld(world, choices);
+        return compiled;
+    }
+
+    private List<BoundEffect> bind(Choice choice) {
+        List<BoundEffect> effects = new ArrayList<>();
+        for (Choice.Effect effect : ChoiceEffects.of(choice)) {
+            effects.add(new BoundEffect(handlers.getOrDefault(effect.getType(), unknown), effect));
+        }
+        return List.copyOf(effects);
+    }
+
+    /**
+     * Applies the choice's effects in order to the player. With on-demand content, everything the effects declare
+     * is planned first, so the first content read of the choice fetches all of it together. Once an effect has
+     * started combat, only further combat effects run; anything else would act on the player mid-fight.
+     * {@code locationId} is the location the choice was offered at.
+     */
+    public EffectTurn apply(String locationId, Choice choice, PlayerCharacter player, ContentSource content)
+            throws ExecutionException, InterruptedException {
+        List<BoundEffect> effects = resolve(locationId, choice, content);
+        if (content instanceof TurnReadPlan plan) {
+            for (BoundEffect bound : effects) {
+                bound.handler().plan(bound.effect(), player, plan);
+            }
+        }
+
+        EffectTurn turn = new EffectTurn(player, content);
+        for (BoundEffect bound : effects) {
+            if (turn.getEncounter() != null && !ChoiceEffects.START_COMBAT.equals(bound.handler().type())) {
+                logger.warn("Skipping {} effect of choice {} after combat started", bound.handler().type(), choice.getId());
+                continue;
+            }
+            bound.handler().apply(bound.effect(), turn);
+        }
+        return turn;
+    }
+
+    private static void setFlags(Choice.Effect effect, PlayerCharacter player) {
+        if (effect.getFlagToSet() != null) {
+            player.getFlags().putAll(effect.getFlagToSet());
+        }
+    }
+
+    private void moveLocation(Choice.Effect effect, EffectTurn turn) throws ExecutionException, InterruptedException {
+        PlayerCharacter player = turn.getPlayer();
+        player.setCurrentLocationId(effect.getTargetId());
+        Location location = turn.getContent().getLocation(effect.getTargetId());
+        if (location == null) {
+            turn.report("You moved to an unknown place.");
+            return;
+        }
+        turn.narrate(location.getDescription());
+        setFlags(effect, player);
+    }
+
+    private void findItem(Choice.Effect effect, EffectTurn turn) throws ExecutionException, InterruptedException {
+        Item item = turn.getContent().getItem(effect.getTargetId());
+        if (item == null) {
+            turn.report("You tried to find an item, but found nothing.");
+            return;
+        }
+        turn.getPlayer().addItem(item.getId());
+        turn.narrate("You found a " + item.getName() + "!");
+        setFlags(effect, turn.getPlayer());
+    }
+
+    // A combat effect's flagToSet is not applied; winning the fight sets the defeated_ flags instead. Further
+    // combat effects of the same choice add their enemy to the encounter the first one started.
+    private void startCombat(Choice.Effect effect, EffectTurn turn) throws ExecutionException, InterruptedException {
+        Enemy enemy = turn.getContent().getEnemy(effect.getTargetId());
+        if (enemy == null) {
+            turn.report("You prepared for combat, but no enemy appeared.");
+            return;
+        }
+        if (turn.getEncounter() != null) {
+            combatService.join(turn.getEncounter(), enemy, turn.getContent().getBehaviour(enemy));
+            turn.narrate(enemy.getName() + " joins the fight!");
+            return;
+        }
+        PlayerCharacter player = turn.getPlayer();
+        Map<String, Item> items = turn.getContent().getItems(
+                player.getInventory() != null ? player.getInventory().keySet() : Set.of());
+        turn.setEncounter(combatService.startCombat(player, enemy, turn.getContent().getBehaviour(enemy), items));
+        turn.narrate("You are now in combat with " + enemy.getName() + "!");
+    }
+
+    private void setFlag(Choice.Effect effect, EffectTurn turn) {
+        if (effect.getFlagToSet() != null) {
+            setFlags(effect, turn.getPlayer());
+            turn.narrate("Something changed in the world...");
+        }
+    }
+
+    private void displayText(Choice.Effect effect, EffectTurn turn) {
+        turn.narrate(effect.getTargetId());
+        setFlags(effect, turn.getPlayer());
+    }
+}
@@ -0,0 +1,53 @@
+package com.osu.textventures.services;
+
+import com.osu.textventures.content.ContentSource;
+import com.osu.textventures.models.PlayerCharacter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/** What the effects of one choice work on and produce: the player, the turn's content, narration and any combat. */
+public final class EffectTurn {
+
+    private final PlayerCharacter player;
+    private final ContentSource content;
+    private final List<String> narrative = new ArrayList<>();
+    private Encounter encounter;
+
+    EffectTurn(PlayerCharacter player, ContentSource content) {
+        this.player = player;
+        this.content = content;
+    }
+
+    public PlayerCharacter getPlayer() {
+        return player;
+    }
+
+    public ContentSource getContent() {
+        return content;
+    }
+
+    /** Shows the text and records it in the player's game history. */
+    public void narrate(String text) {
+        narrative.add(text);
+        player.getGameHistory().add(text);
+    }
+
+    /** Shows the text without recording it, for effects that came to nothing. */
+    public void report(String text) {
+        narrative.add(text);
+    }
+
+    public String getNarrative() {
+        return String.join(" ", narrative);
+    }
+
+    /** The encounter started by this choice, or null. */
+    public Encounter getEncounter() {
+        return encounter;
+    }
+
+    public void setEncounter(Encounter encounter) {
+        this.encounter = encounter;
+    }
+}
@@ -0,0 +1,450 @@
+package com.osu.textventures.services;
+
+import com.osu.textventures.content.EnemyBehaviour;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * One fight between a party and a group of enemies. Combatants are stored as parallel arrays indexed by
+ * combatant (struct of arrays), so resolving a round of a large encounter is a few passes over primitive arrays
+ * rather than a walk over objects. Only the most recent {@link #LOG_CAPACITY} log lines are kept.
+ *
+ * <p>All randomness comes from the encounter's own seeded generator, which copies with the rest of the state, so
+ * an encounter replays identically from the same seed and actions.
+ *
+ * <p>Not thread-safe; {@link GameService} resolves every action on a {@link #nextVersion()} copy.
+ */
+public final class Encounter {
+
+    public static final byte PARTY = 0;
+    public static final byte ENEMIES = 1;
+
+    static final int LOG_CAPACITY = 64;
+
+    private static final byte DEFENDING = 1;
+    private static final byte FLED = 2;
+    private static final byte ENRAGED = 4;
+
+    private int size;
+    private String[] ids;
+    private String[] contentIds;
+    private String[] names;
+    private String[] descriptions;
+    private byte[] sides;
+    private int[] health;
+    private int[] maxHealth;
+    private int[] damage;
+    private int[] initiative;
+    private byte[] status;
+    // Compiled abilities of each enemy, null for party members.
+    private EnemyBehaviour[] behaviours;
+    // Each combatant's rows in readyTurns start at its ability offset.
+    private int[] abilityOffsets;
+    // Enemy turn from which each ability row is usable again.
+    private int[] readyTurns = new int[0];
+    private int abilityRows;
+    private int enemyTurn;
+    private long randomState;
+    // Damage taken by each combatant during the current phase, applied at once by resolveDamage.
+    private int[] incoming;
+    // Combatant indexes by initiative, highest first; rebuilt after combatants are added.
+    private int[] turnOrder;
+    private int focus = -1;
+    private boolean active = true;
+    private String[] log = new String[LOG_CAPACITY];
+    private int logEnd;
+    private int logSize;
+    // Number of resolved actions; GameService publishes a turn only over the version it was resolved from.
+    private long version;
+
+    public Encounter(long seed) {
+        this(4, seed);
+    }
+
+    Encounter(int capacity, long seed) {
+        randomState = seed;
+        ids = new String[capacity];
+        contentIds = new String[capacity];
+        names = new String[capacity];
+        descriptions = new String[capacity];
+        sides = new byte[capacity];
+        health = new int[capacity];
+        maxHealth = new int[capacity];
+        damage = new int[capacity];
+        initiative = new int[capacity];
+        status = new byte[capacity];
+        behaviours = new EnemyBehaviour[capacity];
+        abilityOffsets = new int[capacity];
+        incoming = new int[capacity];
+    }
+
+    /**
+     * Adds a combatant and returns its index. The combatant's id is its content or player id made unique within
+     * the encounter, so a second wolf is {@code wolf_2}. Party members have no behaviour.
+     */
+    public int add(byte side, String contentId, String name, String description,
+                   int currentHealth, int maxHealth, int damage, int initiative, EnemyBehaviour behaviour) {
+        if (size == ids.length) {
+            grow(Math.max(4, size * 2));
+        }
+        String id = uniqueId(contentId);
+        int index = size++;
+        ids[index] = id;
+        contentIds[index] = contentId;
+        names[index] = name;
+        descriptions[index] = description;
+        sides[index] = side;
+        health[index] = Math.max(0, currentHealth);
+        this.maxHealth[index] = maxHealth;
+        this.damage[index] = damage;
+        this.initiative[index] = initiative;
+        behaviours[index] = behaviour;
+        abilityOffsets[index] = abilityRows;
+        if (behaviour != null && behaviour.size() > 0) {
+            abilityRows += behaviour.size();
+            readyTurns = Arrays.copyOf(readyTurns, abilityRows);
+        }
+        turnOrder = null;
+        if (side == ENEMIES && focus < 0) {
+            focus = index;
+        }
+        return index;
+    }
+
+    private String uniqueId(String id) {
+        if (indexOf(id) < 0) {
+            return id;
+        }
+        int suffix = 2;
+        while (indexOf(id + "_" + suffix) >= 0) {
+            suffix++;
+        }
+        return id + "_" + suffix;
+    }
+
+    private void grow(int capacity) {
+        ids = Arrays.copyOf(ids, capacity);
+        contentIds = Arrays.copyOf(contentIds, capacity);
+        names = Arrays.copyOf(names, capacity);
+        descriptions = Arrays.copyOf(descriptions, capacity);
+        sides = Arrays.copyOf(sides, capacity);
+        health = Arrays.copyOf(health, capacity);
+        maxHealth = Arrays.copyOf(maxHealth, capacity);
+        damage = Arrays.copyOf(damage, capacity);
+        initiative = Arrays.copyOf(initiative, capacity);
+        status = Arrays.copyOf(status, capacity);
+        behaviours = Arrays.copyOf(behaviours, capacity);
+        abilityOffsets = Arrays.copyOf(abilityOffsets, capacity);
+        incoming = Arrays.copyOf(incoming, capacity);
+    }
+
+    public Encounter copy() {
+        Encounter copy = new Encounter(0, randomState);
+        copy.size = size;
+        copy.ids = ids.clone();
+        copy.contentIds = contentIds.clone();
+        copy.names = names.clone();
+        copy.descriptions = descriptions.clone();
+        copy.sides = sides.clone();
+        copy.health = health.clone();
+        copy.maxHealth = maxHealth.clone();
+        copy.damage = damage.clone();
+        copy.initiative = initiative.clone();
+        copy.status = status.clone();
+        copy.behaviours = behaviours.clone();
+        copy.abilityOffsets = abilityOffsets.clone();
+        copy.readyTurns = readyTurns.clone();
+        copy.abilityRows = abilityRows;
+        copy.enemyTurn = enemyTurn;
+        copy.incoming = incoming.clone();
+        copy.turnOrder = turnOrder != null ? turnOrder.clone() : null;
+        copy.focus = focus;
+        copy.active = active;
+        copy.log = log.clone();
+        copy.logEnd = logEnd;
+        copy.logSize = logSize;
+        copy.version = version;
+        return copy;
+    }
+
+    /** A copy to resolve the next action on, one version ahead of this encounter. */
+    public Encounter nextVersion() {
+        Encounter next = copy();
+        next.version = version + 1;
+        return next;
+    }
+
+    public long version() {
+        return version;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isActive() {
+        return active;
+    }
+
+    void end() {
+        active = false;
+    }
+
+    public int indexOf(String id) {
+        for (int i = 0; i < size; i++) {
+            if (ids[i].equals(id)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public String id(int index) {
+        return ids[index];
+    }
+
+    public String contentId(int index) {
+        return contentIds[index];
+    }
+
+    public String name(int index) {
+        return names[index];
+    }
+
+    public byte side(int index) {
+        return sides[index];
+    }
+
+    public int health(int index) {
+        return health[index];
+    }
+
+    public int maxHealth(int index) {
+        return maxHealth[index];
+    }
+
+    public int damage(int index) {
+        return damage[index];
+    }
+
+    public boolean isStanding(int index) {
+        return health[index] > 0 && (status[index] & FLED) == 0;
+    }
+
+    boolean isDefending(int index) {
+        return (status[index] & DEFENDING) != 0;
+    }
+
+    void setDefending(int index, boolean defending) {
+        status[index] = (byte) (defending ? status[index] | DEFENDING : status[index] & ~DEFENDING);
+    }
+
+    void setFled(int index) {
+        status[index] |= FLED;
+    }
+
+    public boolean hasFled(int index) {
+        return (status[index] & FLED) != 0;
+    }
+
+    /** Raises the combatant's damage by {@code percent} once; later calls do nothing. */
+    void enrage(int index, int percent) {
+        if ((status[index] & ENRAGED) == 0) {
+            status[index] |= ENRAGED;
+            damage[index] += damage[index] * percent / 100;
+        }
+    }
+
+    /** Uniform in {@code [0, bound)}, from the encounter's SplitMix64 generator. */
+    int nextInt(int bound) {
+        long z = randomState += 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        z ^= z >>> 31;
+        return (int) ((z >>> 33) % bound);
+    }
+
+    EnemyBehaviour behaviour(int index) {
+        return behaviours[index];
+    }
+
+    /**
+     * The row of the enemy's decision table to use this turn, or -1 for a plain attack. The first row that is off
+     * cooldown, within its health threshold and wins its chance roll is chosen and put on cooldown.
+     */
+    int chooseAbility(int index) {
+        EnemyBehaviour behaviour = behaviours[index];
+        if (behaviour == null) {
+            return -1;
+        }
+        int offset = abilityOffsets[index];
+        for (int row = 0; row < behaviour.size(); row++) {
+            if (readyTurns[offset + row] > enemyTurn
+                    || (long) health[index] * 100 > (long) behaviour.healthBelowPercent(row) * maxHealth[index]) {
+                continue;
+            }
+            byte kind = behaviour.kind(row);
+            if ((kind == EnemyBehaviour.ENRAGE && (status[index] & ENRAGED) != 0)
+                    || (kind == EnemyBehaviour.HEAL && health[index] >= maxHealth[index])) {
+                continue;
+            }
+            if (behaviour.chance(row) < 100 && nextInt(100) >= behaviour.chance(row)) {
+                continue;
+            }
+            readyTurns[offset + row] = enemyTurn + 1 + behaviour.cooldown(row);
+            return row;
+        }
+        return -1;
+    }
+
+    /** Ends the enemies' phase; cooldowns count these turns. */
+    void endEnemyTurn() {
+        enemyTurn++;
+    }
+
+    /** The {@code n}th standing combatant of the side, counting round-robin over those standing. */
+    int nthStanding(byte side, int n, int standing) {
+        int wanted = n % standing;
+        for (int i = 0; i < size; i++) {
+            if (sides[i] == side && isStanding(i) && wanted-- == 0) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /** Restores up to {@code amount} health, capped at the maximum, and returns how much was restored. */
+    public int heal(int index, int amount) {
+        int before = health[index];
+        health[index] = Math.min(before + amount, maxHealth[index]);
+        return health[index] - before;
+    }
+
+    /** Deals damage right away, for single hits such as a player's attack. */
+    void hit(int index, int amount) {
+        health[index] = Math.max(0, health[index] - amount);
+    }
+
+    /** Queues damage for the next {@link #resolveDamage()}; several attackers may queue against one combatant. */
+    void queueDamage(int index, int amount) {
+        incoming[index] += amount;
+    }
+
+    boolean isQueuedFatal(int index) {
+        return incoming[index] >= health[index];
+    }
+
+    /**
+     * Applies all queued damage and clears it. Plain loops over the primitive arrays, which the JIT unrolls and
+     * vectorizes; the same pass drops every defending stance, since a stance lasts for one enemy phase.
+     */
+    void resolveDamage() {
+        int[] health = this.health;
+        int[] incoming = this.incoming;
+        byte[] status = this.status;
+        for (int i = 0; i < size; i++) {
+            health[i] = Math.max(0, health[i] - incoming[i]);
+        }
+        for (int i = 0; i < size; i++) {
+            status[i] &= ~DEFENDING;
+        }
+        Arrays.fill(incoming, 0, size, 0);
+    }
+
+    public int standing(byte side) {
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            if (sides[i] == side && isStanding(i)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /** The enemy shown in the bean view: the one last attacked, or the first in turn order still standing. */
+    int focus() {
+        if (focus >= 0 && isStanding(focus)) {
+            return focus;
+        }
+        for (int index : turnOrder()) {
+            if (sides[index] == ENEMIES && isStanding(index)) {
+                return index;
+            }
+        }
+        return focus;
+    }
+
+    void setFocus(int index) {
+        focus = index;
+    }
+
+    int[] turnOrder() {
+        if (turnOrder == null) {
+            // Initiative in the high half, index in the low half: one primitive sort, ties in order of arrival.
+            long[] keys = new long[size];
+            for (int i = 0; i < size; i++) {
+                keys[i] = ((long) -initiative[i] << 32) | i;
+            }
+            Arrays.sort(keys);
+            int[] order = new int[size];
+            for (int i = 0; i < size; i++) {
+                order[i] = (int) keys[i];
+            }
+            turnOrder = order;
+        }
+        return turnOrder;
+    }
+
+    public void log(String line) {
+        log[logEnd] = line;
+        logEnd = (logEnd + 1) % LOG_CAPACITY;
+        logSize = Math.min(logSize + 1, LOG_CAPACITY);
+    }
+
+    public List<String> logLines() {
+        List<String> lines = new ArrayList<>(logSize);
+        for (int i = logSize; i > 0; i--) {
+            lines.add(log[(logEnd - i + LOG_CAPACITY) % LOG_CAPACITY]);
+        }
+        return lines;
+    }
+
+    /** The response form of the encounter as seen by one party member. */
+    public CombatService.CombatState view(int member) {
+        CombatService.CombatState state = new CombatService.CombatState();
+        state.setCombatActive(active);
+        state.setPlayerTurn(active);
+        state.setPlayerDefending(isDefending(member));
+        state.setPlayerCurrentHealth(health[member]);
+        state.setPlayerMaxHealth(maxHealth[member]);
+        state.setPlayerDamage(damage[member]);
+
+        int enemy = focus();
+        if (enemy >= 0) {
+            state.setEnemyCurrentHealth(health[enemy]);
+            state.setEnemyMaxHealth(maxHealth[enemy]);
+            state.setEnemyDamage(damage[enemy]);
+            state.setEnemyId(contentIds[enemy]);
+            state.setEnemyName(names[enemy]);
+            state.setEnemyDescription(descriptions[enemy]);
+        }
+
+        List<CombatService.Combatant> combatants = new ArrayList<>(size);
+        for (int index : turnOrder()) {
+            CombatService.Combatant combatant = new CombatService.Combatant();
+            combatant.setId(ids[index]);
+            combatant.setName(names[index]);
+            combatant.setSide(sides[index] == PARTY ? "party" : "enemy");
+            combatant.setCurrentHealth(health[index]);
+            combatant.setMaxHealth(maxHealth[index]);
+            combatant.setDamage(damage[index]);
+            combatant.setStanding(isStanding(index));
+            combatants.add(combatant);
+        }
+        state.setCombatants(combatants);
+        state.setCombatLog(logLines());
+        return state;
+    }
+}
@@ -1,18 +1,30 @@
 package com.osu.textventures.services;
 
-import com.google.api.core.ApiFuture;
-import com.google.cloud.firestore.*;
-import com.google.firebase.cloud.FirestoreClient;
+import com.osu.textventures.content.ChoiceConditions;
+import com.osu.textventures.content.ChoiceEffects;
+import com.osu.textventures.content.ContentSource;
+import com.osu.textventures.content.TurnReadPlan;
+import com.osu.textventures.content.World;
+import com.osu.textventures.content.WorldGraph;
+import com.osu.textventures.content.WorldService;
+import com.google.common.util.concurrent.Striped;
+import com.osu.textventures.exceptions.ConflictException;
+import com.osu.textventures.exceptions.FirestoreUnavailableException;
 import com.osu.textventures.models.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.locks.Lock;
 import com.osu.textventures.models.GameState;
 
 
@@ -21,13 +33,77 @@ public class GameService {
 
     private static final Logger logger = LoggerFactory.getLogger(GameService.class);
 
-    private final Firestore db = FirestoreClient.getFirestore();
     private final CombatService combatService;
+    private final PlayerStore playerStore;
+    private final WorldService worldService;
+    private final SaveService saveService;
+    private final EffectRegistry effectRegistry;
+
+    private final Map<String, Encounter> activeCombats = new ConcurrentHashMap<>();
+    private final Striped<Lock> combatLocks = Striped.lazyWeakLock(1024);
+    // Last state sent to each player, served read-only while the database is unavailable. Once full, the players
+    // who have gone longest without a response are dropped first.
+    private final Map<String, GameState> lastKnownStates = Collections.synchronizedMap(
+            new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, GameState> eldest) {
+                    return size() > degradedCacheSize;
+                }
+            });
 
-    private final Map<String, CombatService.CombatState> activeCombats = new HashMap<>();
+    @Value("${game.degraded.cache-size:10000}")
+    private int degradedCacheSize;
 
-    public GameService(CombatService combatService) {
+    public GameService(CombatService combatService, PlayerStore playerStore, WorldService worldService,
+                       SaveService saveService, EffectRegistry effectRegistry) {
         this.combatService = combatService;
+        this.playerStore = playerStore;
+        this.worldService = worldService;
+        this.saveService = saveService;
+        this.effectRegistry = effectRegistry;
+    }
+
+    private GameState remember(String userId, GameState state, ContentSource content)
+            throws ExecutionException, InterruptedException {
+        state.setInventoryItems(inventoryItems(state.getPlayerCharacter(), content));
+        lastKnownStates.put(userId, state);
+        return state;
+    }
+
+    private GameState lastKnownState(String userId) {
+        GameState state = lastKnownStates.get(userId);
+        if (state == null) {
+            return null;
+        }
+        GameState copy = new GameState(state.getPlayerCharacter(), state.getCurrentNarrative(), state.getAvailableChoices());
+        copy.setCombatState(state.getCombatState());
+        copy.setGameCompleted(state.isGameCompleted());
+        copy.setStaticNarrative(state.isStaticNarrative());
+        copy.setContentKey(state.getContentKey());
+        copy.setInventoryItems(state.getInventoryItems());
+        copy.setDegraded(true);
+        return copy;
+    }
+
+    private static String contentKey(ContentSource content, Location location) {
+        return content instanceof World ? content.getVersion() + '/' + location.getId() : null;
+    }
+
+    // Catalogue entries for the player's item stacks. With on-demand content they are fetched in one round trip.
+    private Map<String, Item> inventoryItems(PlayerCharacter player, ContentSource content)
+            throws ExecutionException, InterruptedException {
+        Map<String, Integer> inventory = player != null ? player.getInventory() : null;
+        if (inventory == null || inventory.isEmpty()) {
+            return Map.of();
+        }
+        return content.getItems(inventory.keySet());
+    }
+
+    private record ChoiceOutcome(PlayerCharacter player, String narrative, Encounter encounter) {
+    }
+
+    private record CombatTurn(PlayerCharacter player, Encounter encounter,
+                              CombatService.CombatResult result, String narrative) {
     }
 
     private int getExperienceForLevel(int level) {
@@ -61,97 +137,155 @@ public class GameService {
         }
     }
 
-    private <T> T getDocument(String collectionName, String documentId, Class<T> type) throws ExecutionException, InterruptedException {
-        DocumentReference docRef = db.collection(collectionName).document(documentId);
-        ApiFuture<DocumentSnapshot> future = docRef.get();
-        DocumentSnapshot document = future.get();
-        if (document.exists()) {
-            return document.toObject(type);
-        } else {
-            return null;
-        }
-    }
-
-    private <T> void saveDocument(String documentId, T data) throws ExecutionException, InterruptedException {
-        db.collection("playerCharacters").document(documentId).set(data).get();
-    }
-
     public PlayerCharacter getPlayerCharacter(String userId) throws ExecutionException, InterruptedException {
-        PlayerCharacter player = getDocument("playerCharacters", userId, PlayerCharacter.class);
-
-        if (player != null && player.getCurrentHealth() == 0) {
-            player.setCurrentHealth(player.getBaseHealth());
-            saveDocument(userId, player);
+        PlayerCharacter player = playerStore.get(userId);
+        if (player != null) {
+            respawnIfDefeated(player);
         }
-
         return player;
     }
 
-    public Location getLocation(String locationId) throws ExecutionException, InterruptedException {
-        return getDocument("locations", locationId, Location.class);
+    // Defeat is resolved when the combat ends; this only covers documents saved at 0 HP before that,
+    // and the fix is persisted by the next mutation rather than by the read.
+    private void respawnIfDefeated(PlayerCharacter player) {
+        if (player.getCurrentHealth() <= 0) {
+            respawn(player);
+        }
     }
 
-    public Enemy getEnemy(String enemyId) throws ExecutionException, InterruptedException {
-        return getDocument("enemies", enemyId, Enemy.class);
+    private void respawn(PlayerCharacter player) {
+        player.setCurrentHealth(player.getBaseHealth());
     }
 
     public GameState startGame(String userId, String characterName) throws ExecutionException, InterruptedException {
         logger.info("Starting new game for user: {} with character name: {}", userId, characterName);
 
-        PlayerCharacter existingCharacter = getPlayerCharacter(userId);
-        if (existingCharacter != null) {
-            logger.warn("User {} already has an existing character", userId);
-            throw new IllegalArgumentException("Player character already exists for this user.");
-        }
-
         PlayerCharacter newCharacter = new PlayerCharacter(
-                userId, characterName, 1, 0, new ArrayList<>(), 10, 100
+                userId, characterName, 1, 0, new LinkedHashMap<>(), 10, 100
         );
 
-        saveDocument(userId, newCharacter);
-        logger.debug("Created new character for user: {}", userId);
-
-        Location startLocation = getLocation(newCharacter.getCurrentLocationId());
+        ContentSource content = worldService.current();
+        newCharacter.setCurrentLocationId(content.getStartLocationId());
+        Location startLocation = content.getLocation(newCharacter.getCurrentLocationId());
         if (startLocation == null) {
             logger.error("Starting location not found for user: {}", userId);
             throw new IllegalStateException("Starting location not found.");
         }
 
         newCharacter.getGameHistory().add(startLocation.getDescription());
-        saveDocument(userId, newCharacter);
+        try {
+            playerStore.create(newCharacter);
+        } catch (IllegalArgumentException e) {
+            logger.warn("User {} already has an existing character", userId);
+            throw e;
+        }
+        logger.debug("Created new character for user: {}", userId);
 
         logger.info("Game started successfully for user: {}", userId);
-        return new GameState(newCharacter, startLocation.getDescription(), startLocation.getAvailableChoices());
+        GameState gameState = new GameState(newCharacter, startLocation.getDescription(), startLocation.getAvailableChoices());
+        gameState.setStaticNarrative(true);
+        gameState.setContentKey(contentKey(content, startLocation));
+        return remember(userId, gameState, content);
     }
     public void resetGame(String userId) throws ExecutionException, InterruptedException {
         logger.info("Resetting game for user: {}", userId);
-        db.collection("playerCharacters").document(userId).delete().get();
+        saveService.deleteActive(userId);
+        activeCombats.remove(userId);
+        lastKnownStates.remove(userId);
         logger.info("Game reset completed for user: {}", userId);
     }
 
+    public GameState loadSlot(String userId, String slotId) throws ExecutionException, InterruptedException {
+        PlayerCharacter player = saveService.loadSlot(userId, slotId);
+        // A fight belongs to the game it started in.
+        activeCombats.remove(userId);
+        respawnIfDefeated(player);
+        return buildGameState(userId, player, worldService.current());
+    }
+
+    public GameState restoreCheckpoint(String userId, String checkpointId) throws ExecutionException, InterruptedException {
+        ContentSource content = worldService.current();
+        PlayerCharacter player = saveService.restoreCheckpoint(userId, checkpointId);
+        activeCombats.remove(userId);
+        respawnIfDefeated(player);
+        return buildGameState(userId, player, content);
+    }
+
+    public List<Map<String, Object>> getTimeline(String userId, int limit) throws ExecutionException, InterruptedException {
+        return playerStore.timeline(userId, Math.max(1, Math.min(limit, 100)));
+    }
+
+    public Map<String, Object> findPath(String fromLocationId, String toLocationId) {
+        World world = worldService.getWorld();
+        if (world == null) {
+            throw new IllegalStateException("Path queries require preloaded world content.");
+        }
+        if (world.getLocation(fromLocationId) == null || world.getLocation(toLocationId) == null) {
+            throw new IllegalArgumentException("Unknown location.");
+        }
+
+        WorldGraph graph = world.getGraph();
+        int distance = graph.distance(fromLocationId, toLocationId);
+        Map<String, Object> path = new HashMap<>();
+        path.put("from", fromLocationId);
+        path.put("to", toLocationId);
+        path.put("distance", distance);
+        path.put("reachable", distance >= 0);
+        path.put("nextLocationId", graph.nextStep(fromLocationId, toLocationId));
+        return path;
+    }
+
     public GameState getGameState(String userId) throws ExecutionException, InterruptedException {
+        return getGameState(userId, null);
+    }
+
+    /** While the database is unavailable this falls back to the last state sent to the player, if any. */
+    public GameState getGameState(String userId, String locationHint) throws ExecutionException, InterruptedException {
+        try {
+            return loadGameState(userId, locationHint);
+        } catch (FirestoreUnavailableException e) {
+            GameState cached = lastKnownState(userId);
+            if (cached == null) {
+                throw e;
+            }
+            logger.warn("Serving cached game state for user {}: {}", userId, e.getMessage());
+            return cached;
+        }
+    }
+
+    private GameState loadGameState(String userId, String locationHint) throws ExecutionException, InterruptedException {
         logger.debug("Fetching game state for user: {}", userId);
 
-        PlayerCharacter player = getPlayerCharacter(userId);
+        ContentSource content = worldService.planTurn(locationHint);
+        PlayerCharacter player = playerStore.get(userId, content instanceof TurnReadPlan plan ? plan : null);
         if (player == null) {
             logger.warn("No player character found for user: {}", userId);
             throw new IllegalArgumentException("Player character not found. Please start a new game.");
         }
+        respawnIfDefeated(player);
+
+        return buildGameState(userId, player, content);
+    }
 
-        Location currentLocation = getLocation(player.getCurrentLocationId());
+    private GameState buildGameState(String userId, PlayerCharacter player, ContentSource content)
+            throws ExecutionException, InterruptedException {
+        Location currentLocation = content.getLocation(player.getCurrentLocationId());
         if (currentLocation == null) {
             logger.error("Location {} not found for user: {}", player.getCurrentLocationId(), userId);
             throw new IllegalStateException("Current location not found for player.");
         }
+        worldService.afterTurn(content, currentLocation);
 
         List<Choice> filteredChoices = new ArrayList<>();
         for (Choice choice : currentLocation.getAvailableChoices()) {
-            if (isChoiceAvailable(choice, player.getFlags())) {
+            if (ChoiceConditions.isAvailable(choice, player.getFlags())) {
                 filteredChoices.add(choice);
             }
         }
 
         GameState gameState = new GameState(player, currentLocation.getDescription(), filteredChoices);
+        gameState.setStaticNarrative(true);
+        gameState.setContentKey(contentKey(content, currentLocation));
 
         if (player.getFlags().getOrDefault("defeated_ancient_dragon", false)) {
             gameState.setGameCompleted(true);
@@ -159,61 +293,106 @@ public class GameService {
         }
 
         logger.debug("Game state fetched successfully for user: {}", userId);
-        return gameState;
+        return remember(userId, gameState, content);
     }
 
-    private boolean isChoiceAvailable(Choice choice, Map<String, Boolean> playerFlags) {
-        if (choice.getCondition() == null || choice.getCondition().isEmpty()) {
-            return true;
-        }
+    public GameState processCombatAction(String userId, CombatService.CombatAction action)
+            throws ExecutionException, InterruptedException {
+        return processCombatAction(userId, action, null);
+    }
 
-        if (choice.getCondition().containsKey("flag") && choice.getCondition().containsKey("value")) {
-            String flagName = (String) choice.getCondition().get("flag");
-            Boolean requiredValue = (Boolean) choice.getCondition().get("value");
-            if (flagName != null && requiredValue != null) {
-                return playerFlags.getOrDefault(flagName, false).equals(requiredValue);
-            }
-        }
+    /** {@code targetId} is the encounter id of the enemy to attack; null attacks the enemy in focus. */
+    public GameState processCombatAction(String userId, CombatService.CombatAction action, String targetId)
+            throws ExecutionException, InterruptedException {
 
-        for (Map.Entry<String, Object> entry : choice.getCondition().entrySet()) {
-            String flagName = entry.getKey();
-            Object value = entry.getValue();
+        logger.info("Processing combat action {} for user: {}", action, userId);
 
-            if (value instanceof Boolean requiredValue) {
-                Boolean playerValue = playerFlags.getOrDefault(flagName, false);
-                if (!playerValue.equals(requiredValue)) {
-                    return false;
-                }
+        ContentSource content = worldService.current();
+        // A user's turns run one at a time, so the encounter a turn reads is the one the previous turn published.
+        // The encounter is still read inside the mutation, in case a write from another node forces a retry.
+        CombatTurn turn;
+        Lock lock = combatLocks.get(userId);
+        lock.lock();
+        try {
+            turn = playerStore.mutate(userId, "combat:" + action,
+                    player -> resolveCombatTurn(player, activeCombat(userId, targetId).nextVersion(), action, targetId, content));
+            if (!publish(userId, turn.encounter())) {
+                // Only a reset, load or new fight replaces the encounter mid-turn, and its state supersedes this one.
+                logger.warn("Combat turn of user {} was resolved on encounter version {}, which has since been replaced",
+                        userId, turn.encounter().version() - 1);
+                throw new ConflictException("The fight changed while this turn was resolved. Please refresh and try again.");
             }
+        } finally {
+            lock.unlock();
+        }
+        PlayerCharacter player = turn.player();
+        Encounter encounter = turn.encounter();
+        CombatService.CombatState combatState = encounter.view(CombatService.PLAYER);
+
+        if (turn.narrative() != null) {
+            GameState gameState = new GameState();
+            gameState.setPlayerCharacter(player);
+            gameState.setCombatState(combatState);
+            gameState.setCurrentNarrative(turn.narrative());
+            gameState.setAvailableChoices(List.of());
+            return remember(userId, gameState, content);
         }
 
-        return true;
-    }
-
-    public GameState processCombatAction(String userId, CombatService.CombatAction action)
-            throws ExecutionException, InterruptedException {
+        CombatService.CombatResult result = turn.result();
+        if (!combatState.isCombatActive() && (result.isVictory() || result.isDefeated() || result.isFled())) {
+            return buildGameState(userId, player, content);
+        }
 
-        logger.info("Processing combat action {} for user: {}", action, userId);
+        GameState gameState = new GameState();
+        gameState.setPlayerCharacter(player);
+        gameState.setCombatState(combatState);
+        gameState.setCurrentNarrative(String.join("\n", result.getCombatLog()));
+        gameState.setAvailableChoices(List.of());
 
-        PlayerCharacter player = getPlayerCharacter(userId);
-        if (player == null) {
-            logger.warn("Player not found for combat action, user: {}", userId);
-            throw new IllegalArgumentException("Player not found.");
-        }
+        return remember(userId, gameState, content);
+    }
 
-        CombatService.CombatState combatState = activeCombats.get(userId);
-        if (combatState == null) {
+    private Encounter activeCombat(String userId, String targetId) {
+        Encounter activeCombat = activeCombats.get(userId);
+        if (activeCombat == null) {
             logger.warn("No active combat found for user: {}", userId);
             throw new IllegalArgumentException("No active combat for this user.");
         }
+        if (targetId != null) {
+            int target = activeCombat.indexOf(targetId);
+            if (target < 0 || activeCombat.side(target) != Encounter.ENEMIES) {
+                throw new IllegalArgumentException("Unknown combat target: " + targetId);
+            }
+        }
+        logger.debug("Encounter: {} combatants, {} enemies standing, player HP={}", activeCombat.size(),
+                activeCombat.standing(Encounter.ENEMIES), activeCombat.health(CombatService.PLAYER));
+        return activeCombat;
+    }
 
-        logger.debug("Combat state: player HP={}, enemy HP={}", combatState.getPlayerCurrentHealth(), combatState.getEnemyCurrentHealth());
+    /** Replaces the active encounter only if it is still the one the turn was resolved from. */
+    private boolean publish(String userId, Encounter encounter) {
+        boolean[] published = {false};
+        activeCombats.compute(userId, (id, current) -> {
+            if (current == null || current.version() != encounter.version() - 1) {
+                return current;
+            }
+            published[0] = true;
+            return encounter.isActive() ? encounter : null;
+        });
+        return published[0];
+    }
 
+    private CombatTurn resolveCombatTurn(PlayerCharacter player, Encounter encounter, CombatService.CombatAction action,
+                                         String targetId, ContentSource content)
+            throws ExecutionException, InterruptedException {
         if (action == CombatService.CombatAction.USE_ITEM) {
-            Item healingItem = player.getInventory().stream()
-                    .filter(item -> "healing".equalsIgnoreCase(item.getType()) || "food".equalsIgnoreCase(item.getType()))
+            Map<String, Item> items = inventoryItems(player, content);
+            String healingItemId = player.getInventory().keySet().stream()
+                    .filter(itemId -> items.containsKey(itemId) && ("healing".equalsIgnoreCase(items.get(itemId).getType())
+                            || "food".equalsIgnoreCase(items.get(itemId).getType())))
                     .findFirst()
                     .orElse(null);
+            Item healingItem = healingItemId != null ? items.get(healingItemId) : null;
 
             if (healingItem == null) {
                 StringBuilder itemsMessage = new StringBuilder("You have no healing items to use! ");
@@ -221,99 +400,117 @@ public class GameService {
                     itemsMessage.append("Your inventory is empty.");
                 } else {
                     itemsMessage.append("You have: ");
-                    for (Item item : player.getInventory()) {
-                        itemsMessage.append(item.getName()).append(" (").append(item.getType()).append("), ");
+                    for (Map.Entry<String, Integer> stack : player.getInventory().entrySet()) {
+                        Item item = items.get(stack.getKey());
+                        itemsMessage.append(item != null ? item.getName() : stack.getKey());
+                        if (stack.getValue() > 1) {
+                            itemsMessage.append(" x").append(stack.getValue());
+                        }
+                        itemsMessage.append(item != null ? " (" + item.getType() + ")" : "").append(", ");
                     }
                     itemsMessage.setLength(itemsMessage.length() - 2);
                     itemsMessage.append(". Weapons and armor are automatically equipped!");
                 }
 
-                combatState.getCombatLog().add(itemsMessage.toString());
-
-                GameState gameState = new GameState();
-                gameState.setPlayerCharacter(player);
-                gameState.setCombatState(combatState);
-                gameState.setCurrentNarrative(itemsMessage.toString());
-                gameState.setAvailableChoices(List.of());
-                return gameState;
+                encounter.log(itemsMessage.toString());
+                return new CombatTurn(player, encounter, null, itemsMessage.toString());
             }
 
-            int healAmount = healingItem.getPower();
-            int oldHealth = combatState.getPlayerCurrentHealth();
-            int newHealth = Math.min(oldHealth + healAmount, combatState.getPlayerMaxHealth());
-            combatState.setPlayerCurrentHealth(newHealth);
-            combatState.getCombatLog().add("You use " + healingItem.getName() + " and recover " + (newHealth - oldHealth) + " health!");
+            int healed = encounter.heal(CombatService.PLAYER, healingItem.getPower());
+            encounter.log("You use " + healingItem.getName() + " and recover " + healed + " health!");
 
-            player.getInventory().remove(healingItem);
-            player.setCurrentHealth(newHealth);
-            saveDocument(userId, player);
+            player.removeItem(healingItemId);
+            player.setCurrentHealth(encounter.health(CombatService.PLAYER));
         }
 
-        CombatService.CombatResult result = combatService.processAction(combatState, action);
-        combatState = result.getCombatState();
-
-        player.setCurrentHealth(combatState.getPlayerCurrentHealth());
+        CombatService.CombatResult result = combatService.processAction(encounter, CombatService.PLAYER, action, targetId);
 
-        if (!combatState.isCombatActive()) {
-            activeCombats.remove(userId);
-            if (result.isVictory()) {
-                int oldLevel = player.getLevel();
-                player.setExperience(player.getExperience() + result.getExperienceGained());
-                checkAndProcessLevelUp(player);
+        player.setCurrentHealth(encounter.health(CombatService.PLAYER));
 
-                String defeatFlag = "defeated_" + combatState.getEnemyId();
-                player.getFlags().put(defeatFlag, true);
+        if (result.isDefeated()) {
+            logger.info("Player {} defeated by {}, respawning", player.getId(), encounter.name(encounter.focus()));
+            respawn(player);
+        } else if (!encounter.isActive() && result.isVictory()) {
+            int oldLevel = player.getLevel();
+            player.setExperience(player.getExperience() + result.getExperienceGained());
+            checkAndProcessLevelUp(player);
 
-                if ("grumpy_fisherman".equals(combatState.getEnemyId())) {
-                    player.getFlags().put("fisherman_distracted", true);
+            for (int i = 0; i < encounter.size(); i++) {
+                if (encounter.side(i) != Encounter.ENEMIES || encounter.hasFled(i)) {
+                    continue;
                 }
-
-                saveDocument(userId, player);
-
-                if (oldLevel < player.getLevel()) {
-                    result.getCombatLog().add("Level up! You are now level " + player.getLevel() + "!");
+                for (String flag : ChoiceEffects.defeatFlags(encounter.contentId(i))) {
+                    player.getFlags().put(flag, true);
                 }
+            }
 
-                return getGameState(userId);
-            } else if (result.isDefeated()) {
-                saveDocument(userId, player);
-                return getGameState(userId);
-            } else if (result.isFled()) {
-                saveDocument(userId, player);
-                return getGameState(userId);
+            if (oldLevel < player.getLevel()) {
+                result.getCombatLog().add("Level up! You are now level " + player.getLevel() + "!");
             }
-        } else {
-            activeCombats.put(userId, combatState);
-            saveDocument(userId, player);
         }
 
-        GameState gameState = new GameState();
-        gameState.setPlayerCharacter(player);
-        gameState.setCombatState(combatState);
-        gameState.setCurrentNarrative(String.join("\n", result.getCombatLog()));
-        gameState.setAvailableChoices(List.of());
-
-        return gameState;
+        return new CombatTurn(player, encounter, result, null);
     }
 
 
     public GameState processChoice(String userId, String choiceId) throws ExecutionException, InterruptedException {
+        return processChoice(userId, choiceId, null);
+    }
+
+    /**
+     * With on-demand content the player and the hinted current location arrive in one batched read, and every
+     * later content lookup of the turn is deduplicated by the {@link TurnReadPlan}.
+     */
+    public GameState processChoice(String userId, String choiceId, String locationHint) throws ExecutionException, InterruptedException {
         logger.info("Processing choice {} for user: {}", choiceId, userId);
 
-        PlayerCharacter player = getPlayerCharacter(userId);
-        if (player == null) {
-            logger.warn("Player not found for user: {}", userId);
-            throw new IllegalArgumentException("Player character not found.");
+        ContentSource content = worldService.planTurn(locationHint);
+        TurnReadPlan plan = content instanceof TurnReadPlan turnPlan ? turnPlan : null;
+        ChoiceOutcome outcome = playerStore.mutate(userId, "choice:" + choiceId, plan,
+                player -> applyChoice(userId, player, choiceId, content));
+        PlayerCharacter player = outcome.player();
+
+        if (outcome.encounter() != null) {
+            activeCombats.put(userId, outcome.encounter());
+
+            GameState gameState = new GameState(player, outcome.narrative(), new ArrayList<>());
+            gameState.setCombatState(outcome.encounter().view(CombatService.PLAYER));
+            return remember(userId, gameState, content);
+        }
+
+        Location currentLocation = content.getLocation(player.getCurrentLocationId());
+        if (currentLocation == null) {
+            throw new IllegalStateException("New current location not found after choice processing.");
         }
+        worldService.afterTurn(content, currentLocation);
+
+        List<Choice> filteredChoices = new ArrayList<>();
+        for (Choice choice : currentLocation.getAvailableChoices()) {
+            if (ChoiceConditions.isAvailable(choice, player.getFlags())) {
+                filteredChoices.add(choice);
+            }
+        }
+
+        if (plan != null) {
+            logger.debug("Choice turn for {} needed {} content round trip(s) besides the player read", userId, plan.getRoundTrips());
+        }
+        GameState gameState = new GameState(player, outcome.narrative(), filteredChoices);
+        gameState.setContentKey(contentKey(content, currentLocation));
+        return remember(userId, gameState, content);
+    }
+
+    private ChoiceOutcome applyChoice(String userId, PlayerCharacter player, String choiceId, ContentSource content)
+            throws ExecutionException, InterruptedException {
+        respawnIfDefeated(player);
 
-        Location currentLocation = getLocation(player.getCurrentLocationId());
+        Location currentLocation = content.getLocation(player.getCurrentLocationId());
         if (currentLocation == null) {
             logger.error("Current location not found for user: {}", userId);
             throw new IllegalStateException("Current location not found.");
         }
 
         Choice chosen = currentLocation.getAvailableChoices().stream()
-                .filter(c -> c.getId().equals(choiceId) && isChoiceAvailable(c, player.getFlags()))
+                .filter(c -> c.getId().equals(choiceId) && ChoiceConditions.isAvailable(c, player.getFlags()))
                 .findFirst()
                 .orElseThrow(() -> {
                     logger.warn("Invalid choice {} for user: {}", choiceId, userId);
@@ -322,95 +519,9 @@ public class GameService {
 
         logger.debug("User {} selected choice with effect type: {}", userId, chosen.getEffectType());
 
-        String newDescription = "";
-
-        switch (chosen.getEffectType()) {
-            case "move_location":
-                player.setCurrentLocationId(chosen.getTargetId());
-                Location newLocation = getLocation(chosen.getTargetId());
-                if (newLocation != null) {
-                    newDescription = newLocation.getDescription();
-                    player.getGameHistory().add(newDescription);
-
-                    // Set flags if specified
-                    if (chosen.getFlagToSet() != null) {
-                        player.getFlags().putAll(chosen.getFlagToSet());
-                    }
-                } else {
-                    newDescription = "You moved to an unknown place.";
-                }
-                break;
-            case "find_item":
-                Item foundItem = getDocument("items", chosen.getTargetId(), Item.class);
-                if (foundItem != null) {
-                    player.getInventory().add(foundItem);
-                    newDescription = "You found a " + foundItem.getName() + "!";
-                    player.getGameHistory().add(newDescription);
-
-                    if (chosen.getFlagToSet() != null) {
-                        player.getFlags().putAll(chosen.getFlagToSet());
-                    }
-                } else {
-                    newDescription = "You tried to find an item, but found nothing.";
-                }
-                break;
-            case "start_combat":
-                Enemy enemy = getEnemy(chosen.getTargetId());
-                if (enemy != null) {
-                    CombatService.CombatState combatState = combatService.startCombat(player, enemy);
-
-                    activeCombats.put(userId, combatState);
-
-                    newDescription = "You are now in combat with " + enemy.getName() + "!";
-                    player.getGameHistory().add(newDescription);
-
-                    saveDocument(userId, player);
-
-                    GameState gameState = new GameState(player, newDescription, new ArrayList<>());
-                    gameState.setCombatState(combatState);
-                    return gameState;
-                } else {
-                    newDescription = "You prepared for combat, but no enemy appeared.";
-                }
-                break;
-
-            case "set_flag":
-                if (chosen.getFlagToSet() != null) {
-                    player.getFlags().putAll(chosen.getFlagToSet());
-                    newDescription = "Something changed in the world...";
-                    player.getGameHistory().add(newDescription);
-                }
-                break;
-            case "display_text":
-                newDescription = chosen.getTargetId();
-                player.getGameHistory().add(newDescription);
-
-                if (chosen.getFlagToSet() != null) {
-                    player.getFlags().putAll(chosen.getFlagToSet());
-                }
-                break;
-            default:
-                newDescription = "Nothing happened.";
-                break;
-        }
-
-        saveDocument(userId, player);
-
-        currentLocation = getLocation(player.getCurrentLocationId());
-        if (currentLocation == null) {
-            throw new IllegalStateException("New current location not found after choice processing.");
-        }
-
-        List<Choice> filteredChoices = new ArrayList<>();
-        for (Choice choice : currentLocation.getAvailableChoices()) {
-            if (isChoiceAvailable(choice, player.getFlags())) {
-                filteredChoices.add(choice);
-            }
-        }
-
-        return new GameState(player, newDescription, filteredChoices);
+        EffectTurn turn = effectRegistry.apply(currentLocation.getId(), chosen, player, content);
+        return new ChoiceOutcome(player, turn.getNarrative(), turn.getEncounter());
     }
 
 
 }
-
@@ -0,0 +1,13 @@
+package com.osu.textventures.services;
+
+import com.osu.textventures.models.PlayerCharacter;
+
+/**
+ * Told about every committed change to a user's active game. {@code before} is null for a new game and
+ * {@code after} is null for a deleted one. Called on the request thread after the write, so it must be quick
+ * and must not throw.
+ */
+public interface PlayerChangeListener {
+
+    void playerChanged(String userId, PlayerCharacter before, PlayerCharacter after);
+}
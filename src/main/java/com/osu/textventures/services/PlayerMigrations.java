@@ -0,0 +1,60 @@
+package com.osu.textventures.services;
+
+import com.osu.textventures.models.PlayerCharacter;
+
+import java.util.Map;
+
+/**
+ * The player transformations an admin job can run. Each must be idempotent: a resumed job repeats the last
+ * unfinished page, so some players see the transformation twice.
+ */
+public final class PlayerMigrations {
+
+    @FunctionalInterface
+    public interface PlayerMigration {
+        /** Transforms the player in place; true if anything changed. */
+        boolean apply(PlayerCharacter player);
+    }
+
+    private PlayerMigrations() {
+    }
+
+    public static PlayerMigration create(String kind, Map<String, String> params) {
+        if (kind == null) {
+            throw new IllegalArgumentException("kind is required.");
+        }
+        return switch (kind) {
+            case "rename-flag" -> renameFlag(required(params, "from"), required(params, "to"));
+            case "remove-flag" -> removeFlag(required(params, "flag"));
+            case "remove-item" -> removeItem(required(params, "itemId"));
+            default -> throw new IllegalArgumentException("Unknown job kind: " + kind);
+        };
+    }
+
+    private static String required(Map<String, String> params, String name) {
+        String value = params != null ? params.get(name) : null;
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException("Parameter '" + name + "' is required.");
+        }
+        return value;
+    }
+
+    static PlayerMigration renameFlag(String from, String to) {
+        return player -> {
+            if (player.getFlags() == null || !player.getFlags().containsKey(from)) {
+                return false;
+            }
+            Boolean value = player.getFlags().remove(from);
+            player.getFlags().merge(to, value, (existing, renamed) -> existing || renamed);
+            return true;
+        };
+    }
+
+    static PlayerMigration removeFlag(String flag) {
+        return player -> player.getFlags() != null && player.getFlags().remove(flag) != null;
+    }
+
+    static PlayerMigration removeItem(String itemId) {
+        return player -> player.getInventory() != null && player.getInventory().remove(itemId) != null;
+    }
+}
@@ -0,0 +1,481 @@
+package com.osu.textventures.services;
+
+import com.google.api.core.ApiFuture;
+import com.google.api.core.ApiFutures;
+import com.google.api.gax.rpc.StatusCode;
+import com.google.cloud.firestore.*;
+import com.google.firebase.cloud.FirestoreClient;
+import com.osu.textventures.content.TurnReadPlan;
+import com.osu.textventures.models.PlayerCharacter;
+import com.osu.textventures.utils.FirestoreGuard;
+import com.osu.textventures.utils.HedgedReader;
+import com.osu.textventures.utils.PlayerCodec;
+import com.osu.textventures.utils.ShardRouter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+
+@Service
+public class PlayerStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(PlayerStore.class);
+
+    private static final String COLLECTION = ShardRouter.PLAYERS;
+    private static final String STATE_FIELD = "state";
+    private static final String EVENTS = "events";
+    // Pre-stacking field holding a full copy of every item picked up; replaced by itemCounts on the next write.
+    private static final String LEGACY_INVENTORY = "inventory";
+    private static final List<String> LEGACY_FIELDS = List.of("id", "name", "level", "experience", "inventory",
+            PlayerTimeline.ITEMS, "baseDamage", "baseHealth", "currentHealth", "currentLocationId", "gameHistory", "flags");
+
+    private final Firestore db = FirestoreClient.getFirestore();
+    private final List<PlayerChangeListener> listeners;
+    private final FirestoreGuard guard;
+    private final HedgedReader reader;
+    private final ShardRouter shards;
+
+    @Value("${game.player.max-write-attempts:5}")
+    private int maxWriteAttempts;
+
+    // "fields" keeps the field-per-property document; "binary" stores a PlayerCodec blob instead.
+    @Value("${game.player.encoding:fields}")
+    private String encoding;
+
+    // "document" updates the player document on every change; "events" appends a PlayerTimeline event per change
+    // and only rewrites the document as a snapshot every snapshot-every events.
+    @Value("${game.player.storage:document}")
+    private String storage;
+
+    @Value("${game.player.snapshot-every:20}")
+    private int snapshotEvery;
+
+    public PlayerStore(ObjectProvider<PlayerChangeListener> listeners, FirestoreGuard guard, HedgedReader reader,
+                       ShardRouter shards) {
+        this.listeners = listeners.orderedStream().toList();
+        this.guard = guard;
+        this.reader = reader;
+        this.shards = shards;
+    }
+
+    @FunctionalInterface
+    public interface PlayerMutation<R> {
+        R apply(PlayerCharacter player) throws ExecutionException, InterruptedException;
+    }
+
+    Firestore firestore() {
+        return db;
+    }
+
+    DocumentReference document(String userId) {
+        return shards.collection(db, COLLECTION, userId).document(userId);
+    }
+
+    public PlayerCharacter get(String userId) throws ExecutionException, InterruptedException {
+        return get(userId, null);
+    }
+
+    /** Reads the player, fetching whatever the plan expects in the same round trip. */
+    public PlayerCharacter get(String userId, TurnReadPlan plan) throws ExecutionException, InterruptedException {
+        ApiFuture<List<QueryDocumentSnapshot>> events = recentEvents(userId);
+        DocumentSnapshot snapshot = readAlong(document(userId), plan);
+        return snapshot.exists() ? replay(snapshot, guard.await(events)) : null;
+    }
+
+    private DocumentSnapshot readAlong(DocumentReference docRef, TurnReadPlan plan) throws ExecutionException, InterruptedException {
+        List<DocumentReference> planned = plan != null ? plan.takePlanned() : List.of();
+        if (planned.isEmpty()) {
+            return reader.read(COLLECTION, docRef::get);
+        }
+
+        List<DocumentReference> references = new ArrayList<>(planned.size() + 1);
+        references.add(docRef);
+        references.addAll(planned);
+        DocumentReference[] batch = references.toArray(new DocumentReference[0]);
+        List<DocumentSnapshot> snapshots = reader.read(COLLECTION, () -> db.getAll(batch));
+        plan.accept(snapshots);
+        return snapshots.stream().filter(snapshot -> snapshot.getReference().equals(docRef)).findFirst().orElseThrow();
+    }
+
+    private boolean binaryEncoding() {
+        return "binary".equalsIgnoreCase(encoding);
+    }
+
+    boolean eventSourced() {
+        return "events".equalsIgnoreCase(storage);
+    }
+
+    private CollectionReference events(String userId) {
+        return document(userId).collection(EVENTS);
+    }
+
+    private static String eventId(long seq) {
+        return String.format("%012d", seq);
+    }
+
+    /**
+     * Events that may be newer than the snapshot document. Fetched alongside the document rather than after it:
+     * a snapshot is written at least every {@code snapshot-every} events, so the newest that many cover it unless
+     * more writes land between the two reads, which {@link #replay} detects.
+     */
+    ApiFuture<List<QueryDocumentSnapshot>> recentEvents(String userId) {
+        if (!eventSourced()) {
+            return ApiFutures.immediateFuture(List.of());
+        }
+        return ApiFutures.transform(recentEventsQuery(userId).get(), QuerySnapshot::getDocuments, Runnable::run);
+    }
+
+    /** As {@link #recentEvents(String)}, read within a transaction. */
+    List<QueryDocumentSnapshot> recentEvents(Transaction transaction, String userId)
+            throws ExecutionException, InterruptedException {
+        return eventSourced() ? transaction.get(recentEventsQuery(userId)).get().getDocuments() : List.of();
+    }
+
+    private Query recentEventsQuery(String userId) {
+        return events(userId).orderBy(PlayerTimeline.SEQ, Query.Direction.DESCENDING).limit(snapshotEvery);
+    }
+
+    /**
+     * The snapshot document with every later event applied; its version is the last applied sequence number.
+     * The recent events are read alongside the snapshot rather than with it, so a snapshot that lost the race to
+     * newer writes can be older than the oldest of them. The events after the snapshot are then read again
+     * directly rather than replayed across the gap.
+     */
+    PlayerCharacter replay(DocumentSnapshot snapshot, List<QueryDocumentSnapshot> recentEvents)
+            throws ExecutionException, InterruptedException {
+        PlayerCharacter player = read(snapshot);
+        long snapshotVersion = player.getVersion();
+        List<Map<String, Object>> pending = PlayerTimeline.after(snapshotVersion, data(recentEvents));
+        if (pending == null) {
+            logger.debug("Events of player {} do not reach back to version {}, reading them again",
+                    snapshot.getId(), snapshotVersion);
+            pending = PlayerTimeline.after(snapshotVersion, data(guard.await(snapshot.getReference().collection(EVENTS)
+                    .whereGreaterThan(PlayerTimeline.SEQ, snapshotVersion)
+                    .orderBy(PlayerTimeline.SEQ).get()).getDocuments()));
+            if (pending == null) {
+                throw new IllegalStateException("Player " + snapshot.getId() + " is missing events after version "
+                        + snapshotVersion + ".");
+            }
+        }
+        pending.forEach(event -> PlayerTimeline.apply(player, event));
+        return player;
+    }
+
+    private static List<Map<String, Object>> data(List<QueryDocumentSnapshot> events) {
+        return events.stream().map(QueryDocumentSnapshot::getData).toList();
+    }
+
+    /** The whole player in the configured document form, for writes that replace a document. */
+    Map<String, Object> documentData(PlayerCharacter player) {
+        Map<String, Object> data = new HashMap<>();
+        if (binaryEncoding()) {
+            data.put(STATE_FIELD, Blob.fromBytes(PlayerCodec.encode(player)));
+            data.put("version", player.getVersion());
+            return data;
+        }
+        for (Map.Entry<String, Object> field : toFields(player).entrySet()) {
+            if (!field.getKey().startsWith("flags.")) {
+                data.put(field.getKey(), field.getValue());
+            }
+        }
+        data.put("id", player.getId());
+        data.put("flags", new HashMap<>(player.getFlags() != null ? player.getFlags() : Map.of()));
+        return data;
+    }
+
+    /**
+     * Adds the event for a change to the batch. Creating the event document doubles as the concurrency guard:
+     * a second writer claiming the same sequence number fails with ALREADY_EXISTS.
+     */
+    void appendEvent(WriteBatch batch, String userId, String type, PlayerCharacter before, PlayerCharacter after) {
+        Map<String, Object> beforeFields = before != null ? toFields(before) : Map.of();
+        batch.create(events(userId).document(eventId(after.getVersion())),
+                PlayerTimeline.event(after.getVersion(), type, beforeFields, toFields(after)));
+    }
+
+    PlayerCharacter read(DocumentSnapshot snapshot) {
+        Blob state = snapshot.getBlob(STATE_FIELD);
+        if (state != null) {
+            return PlayerCodec.decode(state.toBytes());
+        }
+        PlayerCharacter player = snapshot.toObject(PlayerCharacter.class);
+        if (player.getInventory() == null && snapshot.get(LEGACY_INVENTORY) instanceof List<?> items) {
+            player.setInventory(PlayerTimeline.stacks(items));
+        }
+        return player;
+    }
+
+    public void create(PlayerCharacter player) throws ExecutionException, InterruptedException {
+        player.setVersion(1);
+        try {
+            if (eventSourced()) {
+                // Events outlive a reset as an audit trail, so a new game continues the user's sequence.
+                List<QueryDocumentSnapshot> last = guard.await(events(player.getId())
+                        .orderBy(PlayerTimeline.SEQ, Query.Direction.DESCENDING).limit(1).get()).getDocuments();
+                player.setVersion(last.isEmpty() ? 1 : last.get(0).getLong(PlayerTimeline.SEQ) + 1);
+                WriteBatch batch = db.batch();
+                batch.create(document(player.getId()), documentData(player));
+                appendEvent(batch, player.getId(), "start", null, player);
+                guard.await(batch.commit());
+            } else if (binaryEncoding()) {
+                Map<String, Object> data = new HashMap<>();
+                data.put(STATE_FIELD, Blob.fromBytes(PlayerCodec.encode(player)));
+                data.put("version", player.getVersion());
+                guard.await(document(player.getId()).create(data));
+            } else {
+                guard.await(document(player.getId()).create(player));
+            }
+            notifyChanged(player.getId(), null, player);
+        } catch (ExecutionException e) {
+            if (hasStatus(e, StatusCode.Code.ALREADY_EXISTS)) {
+                throw new IllegalArgumentException("Player character already exists for this user.");
+            }
+            throw e;
+        }
+    }
+
+    public void delete(String userId) throws ExecutionException, InterruptedException {
+        PlayerCharacter before = listeners.isEmpty() ? null : get(userId);
+        guard.await(document(userId).delete());
+        if (before != null) {
+            notifyChanged(userId, before, null);
+        }
+    }
+
+    /** The newest events of the user's timeline, newest first; empty unless events storage is on. */
+    public List<Map<String, Object>> timeline(String userId, int limit) throws ExecutionException, InterruptedException {
+        List<Map<String, Object>> timeline = new ArrayList<>();
+        if (eventSourced()) {
+            for (QueryDocumentSnapshot event : guard.await(events(userId)
+                    .orderBy(PlayerTimeline.SEQ, Query.Direction.DESCENDING).limit(limit).get()).getDocuments()) {
+                timeline.add(event.getData());
+            }
+        }
+        return timeline;
+    }
+
+    void notifyChanged(String userId, PlayerCharacter before, PlayerCharacter after) {
+        for (PlayerChangeListener listener : listeners) {
+            try {
+                listener.playerChanged(userId, before, after);
+            } catch (RuntimeException e) {
+                logger.warn("Player change listener {} failed for user {}: {}", listener.getClass().getSimpleName(), userId, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Applies a mutation as an optimistic compare-and-set against the stored document. The mutation
+     * may run more than once when another request wins the race, so it must only touch the player
+     * it is given and whatever local state it creates itself.
+     */
+    public <R> R mutate(String userId, PlayerMutation<R> mutation) throws ExecutionException, InterruptedException {
+        return mutate(userId, "update", null, mutation);
+    }
+
+    public <R> R mutate(String userId, String eventType, PlayerMutation<R> mutation) throws ExecutionException, InterruptedException {
+        return mutate(userId, eventType, null, mutation);
+    }
+
+    /**
+     * As {@link #mutate(String, PlayerMutation)}, labelling the change with an event type such as {@code choice:<id>}
+     * and reading the documents the plan expects together with the player.
+     */
+    public <R> R mutate(String userId, String eventType, TurnReadPlan plan, PlayerMutation<R> mutation)
+            throws ExecutionException, InterruptedException {
+        DocumentReference docRef = document(userId);
+
+        for (int attempt = 1; attempt <= maxWriteAttempts; attempt++) {
+            ApiFuture<List<QueryDocumentSnapshot>> eventsFuture = recentEvents(userId);
+            DocumentSnapshot snapshot = readAlong(docRef, plan);
+            if (!snapshot.exists()) {
+                throw new IllegalArgumentException("Player character not found.");
+            }
+
+            List<QueryDocumentSnapshot> recentEvents = guard.await(eventsFuture);
+            PlayerCharacter player = replay(snapshot, recentEvents);
+            Map<String, Object> before = toFields(player);
+            R result = mutation.apply(player);
+
+            Map<String, Object> changes = diff(before, toFields(player));
+            if (changes.isEmpty()) {
+                return result;
+            }
+            player.setVersion(player.getVersion() + 1);
+            if (eventSourced()) {
+                if (appendChange(userId, eventType, snapshot, recentEvents, before, player)) {
+                    return result;
+                }
+                logger.debug("Concurrent event on player {} (attempt {}/{}), retrying", userId, attempt, maxWriteAttempts);
+                continue;
+            }
+            changes = documentChanges(snapshot, player, changes);
+
+            try {
+                guard.await(docRef.update(changes, Precondition.updatedAt(snapshot.getUpdateTime())));
+                logger.debug("Player {} updated to version {} ({} fields)", userId, player.getVersion(), changes.size());
+                if (!listeners.isEmpty()) {
+                    // The mutation worked on the decoded copy, so decode the snapshot again for the old state.
+                    notifyChanged(userId, replay(snapshot, recentEvents), player);
+                }
+                return result;
+            } catch (ExecutionException e) {
+                if (!hasStatus(e, StatusCode.Code.FAILED_PRECONDITION)) {
+                    throw e;
+                }
+                logger.debug("Concurrent update on player {} (attempt {}/{}), retrying", userId, attempt, maxWriteAttempts);
+            }
+        }
+
+        logger.warn("Giving up on player {} after {} conflicting writes", userId, maxWriteAttempts);
+        throw new IllegalStateException("Player state is being modified concurrently. Please try again.");
+    }
+
+    private Map<String, Object> documentChanges(DocumentSnapshot snapshot, PlayerCharacter player, Map<String, Object> diff) {
+        if (binaryEncoding()) {
+            return encodedChanges(snapshot, player);
+        }
+        if (snapshot.contains(STATE_FIELD)) {
+            // Switching a binary document back to fields needs every field, not just the changed ones.
+            Map<String, Object> changes = toFields(player);
+            changes.put(STATE_FIELD, FieldValue.delete());
+            return changes;
+        }
+        diff.put("version", player.getVersion());
+        replaceLegacyInventory(snapshot, player, diff);
+        return diff;
+    }
+
+    private static void replaceLegacyInventory(DocumentSnapshot snapshot, PlayerCharacter player, Map<String, Object> changes) {
+        if (snapshot.contains(LEGACY_INVENTORY)) {
+            changes.put(LEGACY_INVENTORY, FieldValue.delete());
+            changes.put(PlayerTimeline.ITEMS, toFields(player).get(PlayerTimeline.ITEMS));
+        }
+    }
+
+    record StagedChange(String userId, PlayerCharacter before, PlayerCharacter after) {
+    }
+
+    /**
+     * Applies a mutation to an already-read player and stages its write in the batch, guarded by the snapshot's
+     * update time so a concurrent game write fails the batch instead of being overwritten. Document storage only;
+     * returns null when the mutation changed nothing. Call {@link #notifyChanged} once the batch is committed.
+     */
+    StagedChange stageMutation(WriteBatch batch, DocumentSnapshot snapshot, PlayerMutation<?> mutation)
+            throws ExecutionException, InterruptedException {
+        PlayerCharacter player = read(snapshot);
+        Map<String, Object> before = toFields(player);
+        mutation.apply(player);
+        Map<String, Object> changes = diff(before, toFields(player));
+        if (changes.isEmpty()) {
+            return null;
+        }
+        player.setVersion(player.getVersion() + 1);
+        batch.update(snapshot.getReference(), documentChanges(snapshot, player, changes),
+                Precondition.updatedAt(snapshot.getUpdateTime()));
+        return new StagedChange(snapshot.getId(), read(snapshot), player);
+    }
+
+    private boolean appendChange(String userId, String eventType, DocumentSnapshot snapshot,
+                                 List<QueryDocumentSnapshot> recentEvents, Map<String, Object> before,
+                                 PlayerCharacter player) throws ExecutionException, InterruptedException {
+        PlayerCharacter stored = read(snapshot);
+        WriteBatch batch = db.batch();
+        batch.create(events(userId).document(eventId(player.getVersion())),
+                PlayerTimeline.event(player.getVersion(), eventType, before, toFields(player)));
+
+        boolean snapshotDue = player.getVersion() - stored.getVersion() >= snapshotEvery;
+        if (snapshotDue) {
+            Map<String, Object> changes;
+            if (binaryEncoding()) {
+                changes = encodedChanges(snapshot, player);
+            } else if (snapshot.contains(STATE_FIELD)) {
+                changes = toFields(player);
+                changes.put(STATE_FIELD, FieldValue.delete());
+            } else {
+                changes = diff(toFields(stored), toFields(player));
+                replaceLegacyInventory(snapshot, player, changes);
+            }
+            changes.put("version", player.getVersion());
+            // No precondition needed: the event document created in the same batch already guards the write.
+            batch.update(document(userId), changes);
+        }
+
+        try {
+            guard.await(batch.commit());
+        } catch (ExecutionException e) {
+            if (hasStatus(e, StatusCode.Code.ALREADY_EXISTS)) {
+                return false;
+            }
+            throw e;
+        }
+        logger.debug("Player {} appended event {}{}", userId, player.getVersion(), snapshotDue ? " with snapshot" : "");
+        if (!listeners.isEmpty()) {
+            notifyChanged(userId, replay(snapshot, recentEvents), player);
+        }
+        return true;
+    }
+
+    private Map<String, Object> encodedChanges(DocumentSnapshot snapshot, PlayerCharacter player) {
+        Map<String, Object> changes = new HashMap<>();
+        changes.put(STATE_FIELD, Blob.fromBytes(PlayerCodec.encode(player)));
+        changes.put("version", player.getVersion());
+        if (!snapshot.contains(STATE_FIELD)) {
+            // First binary write of a field-form document: drop the fields the blob now replaces.
+            for (String field : LEGACY_FIELDS) {
+                if (snapshot.contains(field)) {
+                    changes.put(field, FieldValue.delete());
+                }
+            }
+        }
+        return changes;
+    }
+
+    static Map<String, Object> toFields(PlayerCharacter player) {
+        Map<String, Object> fields = new LinkedHashMap<>();
+        fields.put("name", player.getName());
+        fields.put("level", player.getLevel());
+        fields.put("experience", player.getExperience());
+        fields.put(PlayerTimeline.ITEMS, player.getInventory() != null ? new LinkedHashMap<>(player.getInventory()) : null);
+        fields.put("baseDamage", player.getBaseDamage());
+        fields.put("baseHealth", player.getBaseHealth());
+        fields.put("currentHealth", player.getCurrentHealth());
+        fields.put("currentLocationId", player.getCurrentLocationId());
+        fields.put("gameHistory", player.getGameHistory() != null ? new ArrayList<>(player.getGameHistory()) : null);
+        fields.put("version", player.getVersion());
+
+        Map<String, Boolean> flags = player.getFlags() != null ? player.getFlags() : Map.of();
+        for (Map.Entry<String, Boolean> flag : flags.entrySet()) {
+            fields.put("flags." + flag.getKey(), flag.getValue());
+        }
+        return fields;
+    }
+
+    private Map<String, Object> diff(Map<String, Object> before, Map<String, Object> after) {
+        Map<String, Object> changes = new HashMap<>();
+        for (Map.Entry<String, Object> field : after.entrySet()) {
+            if (!before.containsKey(field.getKey()) || !Objects.equals(before.get(field.getKey()), field.getValue())) {
+                changes.put(field.getKey(), field.getValue());
+            }
+        }
+        for (String field : before.keySet()) {
+            if (!after.containsKey(field)) {
+                changes.put(field, FieldValue.delete());
+            }
+        }
+        return changes;
+    }
+
+    static boolean hasStatus(Throwable error, StatusCode.Code code) {
+        return FirestoreGuard.hasStatus(error, code);
+    }
+}
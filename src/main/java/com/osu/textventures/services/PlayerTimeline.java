@@ -0,0 +1,198 @@
+package com.osu.textventures.services;
+
+import com.osu.textventures.models.PlayerCharacter;
+
+import java.util.*;
+
+/**
+ * Compact player events: what one committed action changed, derived from the before/after field maps of a
+ * mutation. Plain fields that changed go under {@code set}, flag changes under {@code flags}, and history growth
+ * is stored as just the appended entries, so a typical turn is a few hundred bytes whatever the history length.
+ * {@link #apply} replays an event onto a player, so state can be rebuilt from a snapshot plus later events.
+ */
+public final class PlayerTimeline {
+
+    public static final String SEQ = "seq";
+    private static final String FLAGS_PREFIX = "flags.";
+    static final String ITEMS = "itemCounts";
+
+    private PlayerTimeline() {
+    }
+
+    public static Map<String, Object> event(long seq, String type, Map<String, Object> before, Map<String, Object> after) {
+        Map<String, Object> set = new HashMap<>();
+        Map<String, Object> flags = new HashMap<>();
+        List<String> removed = new ArrayList<>();
+        List<String> appended = List.of();
+
+        for (Map.Entry<String, Object> field : after.entrySet()) {
+            String name = field.getKey();
+            Object value = field.getValue();
+            if ("version".equals(name) || (before.containsKey(name) && Objects.equals(before.get(name), value))) {
+                continue;
+            }
+            if (name.startsWith(FLAGS_PREFIX)) {
+                flags.put(name.substring(FLAGS_PREFIX.length()), value);
+            } else if ("gameHistory".equals(name) && value instanceof List<?> history && isAppend(before.get(name), history)) {
+                List<?> previous = before.get(name) instanceof List<?> list ? list : List.of();
+                appended = history.subList(previous.size(), history.size()).stream().map(String::valueOf).toList();
+            } else {
+                set.put(name, value);
+            }
+        }
+        for (String name : before.keySet()) {
+            if (!after.containsKey(name)) {
+                removed.add(name);
+            }
+        }
+
+        Map<String, Object> event = new LinkedHashMap<>();
+        event.put(SEQ, seq);
+        event.put("type", type);
+        event.put("at", System.currentTimeMillis());
+        event.put("tags", tags(before, after));
+        if (!set.isEmpty()) {
+            event.put("set", set);
+        }
+        if (!flags.isEmpty()) {
+            event.put("flags", flags);
+        }
+        if (!removed.isEmpty()) {
+            event.put("removed", removed);
+        }
+        if (!appended.isEmpty()) {
+            event.put("history", appended);
+        }
+        return event;
+    }
+
+    private static boolean isAppend(Object before, List<?> after) {
+        if (before == null) {
+            return true;
+        }
+        return before instanceof List<?> previous && previous.size() <= after.size()
+                && previous.equals(after.subList(0, previous.size()));
+    }
+
+    private static List<String> tags(Map<String, Object> before, Map<String, Object> after) {
+        List<String> tags = new ArrayList<>();
+        if (!Objects.equals(before.get("level"), after.get("level")) && before.containsKey("level")) {
+            tags.add("level_up");
+        }
+        if (itemTotal(after.get(ITEMS)) > itemTotal(before.get(ITEMS))) {
+            tags.add("item_found");
+        }
+        if (!Objects.equals(before.get("currentLocationId"), after.get("currentLocationId"))) {
+            tags.add("moved");
+        }
+        if (!Objects.equals(before.get("currentHealth"), after.get("currentHealth"))) {
+            tags.add("health");
+        }
+        return tags;
+    }
+
+    private static int itemTotal(Object stacks) {
+        if (!(stacks instanceof Map<?, ?> counts)) {
+            return 0;
+        }
+        int total = 0;
+        for (Object quantity : counts.values()) {
+            total += intValue(quantity);
+        }
+        return total;
+    }
+
+    /**
+     * Inventory stacks from a stored value: the current item id to quantity map, or the list of full item copies
+     * that documents, checkpoints and events held before inventories were stacked.
+     */
+    public static Map<String, Integer> stacks(Object stored) {
+        if (stored == null) {
+            return null;
+        }
+        Map<String, Integer> stacks = new LinkedHashMap<>();
+        if (stored instanceof Map<?, ?> counts) {
+            counts.forEach((id, quantity) -> stacks.put(String.valueOf(id), intValue(quantity)));
+        } else if (stored instanceof List<?> items) {
+            for (Object item : items) {
+                Object id = item instanceof Map<?, ?> fields ? fields.get("id") : null;
+                if (id != null) {
+                    stacks.merge(String.valueOf(id), 1, Integer::sum);
+                }
+            }
+        }
+        return stacks;
+    }
+
+    private static int intValue(Object value) {
+        return value instanceof Number number ? number.intValue() : 0;
+    }
+
+    /**
+     * The events newer than {@code version} in replay order, or null when they do not run contiguously from
+     * {@code version + 1}: replaying across a gap would silently lose the missing changes.
+     */
+    public static List<Map<String, Object>> after(long version, List<Map<String, Object>> events) {
+        List<Map<String, Object>> pending = events.stream()
+                .filter(event -> seq(event) > version)
+                .sorted(Comparator.comparingLong(PlayerTimeline::seq))
+                .toList();
+        long expected = version + 1;
+        for (Map<String, Object> event : pending) {
+            if (seq(event) != expected++) {
+                return null;
+            }
+        }
+        return pending;
+    }
+
+    private static long seq(Map<String, Object> event) {
+        return ((Number) event.get(SEQ)).longValue();
+    }
+
+    /** Replays one event, as read back from Firestore or produced by {@link #event}, onto the player. */
+    public static void apply(PlayerCharacter player, Map<String, Object> event) {
+        if (player.getFlags() == null) {
+            player.setFlags(new HashMap<>());
+        }
+        if (player.getGameHistory() == null) {
+            player.setGameHistory(new ArrayList<>());
+        }
+
+        if (event.get("set") instanceof Map<?, ?> set) {
+            for (Map.Entry<?, ?> field : set.entrySet()) {
+                Object value = field.getValue();
+                switch (String.valueOf(field.getKey())) {
+                    case "name" -> player.setName((String) value);
+                    case "level" -> player.setLevel(intValue(value));
+                    case "experience" -> player.setExperience(intValue(value));
+                    case "baseDamage" -> player.setBaseDamage(intValue(value));
+                    case "baseHealth" -> player.setBaseHealth(intValue(value));
+                    case "currentHealth" -> player.setCurrentHealth(intValue(value));
+                    case "currentLocationId" -> player.setCurrentLocationId((String) value);
+                    // "inventory" is the list form written by events from before inventories were stacked.
+                    case ITEMS, "inventory" -> player.setInventory(stacks(value));
+                    case "gameHistory" -> player.setGameHistory(value == null ? new ArrayList<>()
+                            : new ArrayList<>(((List<?>) value).stream().map(String::valueOf).toList()));
+                    default -> {
+                        // Field written by a newer version; ignore it.
+                    }
+                }
+            }
+        }
+        if (event.get("flags") instanceof Map<?, ?> flags) {
+            flags.forEach((name, value) -> player.getFlags().put(String.valueOf(name), (Boolean) value));
+        }
+        if (event.get("removed") instanceof List<?> removed) {
+            for (Object name : removed) {
+                if (String.valueOf(name).startsWith(FLAGS_PREFIX)) {
+                    player.getFlags().remove(String.valueOf(name).substring(FLAGS_PREFIX.length()));
+                }
+            }
+        }
+        if (event.get("history") instanceof List<?> history) {
+            history.forEach(entry -> player.getGameHistory().add(String.valueOf(entry)));
+        }
+        player.setVersion(seq(event));
+    }
+}
@@ -0,0 +1,359 @@
+package com.osu.textventures.services;
+
+import com.google.api.core.ApiFuture;
+import com.google.api.gax.rpc.StatusCode;
+import com.google.cloud.firestore.*;
+import com.osu.textventures.models.Checkpoint;
+import com.osu.textventures.models.PlayerCharacter;
+import com.osu.textventures.utils.FirestoreGuard;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.regex.Pattern;
+
+/**
+ * Save slots and checkpoints. The player document stays the active game; other slots are parked, document for
+ * document, under {@code playerCharacters/{userId}/slots}, so every other request still costs one read.
+ * Checkpoints live under {@code playerCharacters/{userId}/checkpoints} and share the live game history.
+ */
+@Service
+public class SaveService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SaveService.class);
+
+    static final String ACTIVE_SLOT_FIELD = "activeSlot";
+    static final String DEFAULT_SLOT = "default";
+    private static final String SLOTS = "slots";
+    private static final String CHECKPOINTS = "checkpoints";
+    private static final Pattern SLOT_ID = Pattern.compile("[A-Za-z0-9_-]{1,32}");
+
+    private final PlayerStore playerStore;
+    private final FirestoreGuard guard;
+    private final Firestore db;
+
+    @Value("${game.saves.max-slots:5}")
+    private int maxSlots;
+
+    @Value("${game.saves.max-checkpoints-per-slot:20}")
+    private int maxCheckpointsPerSlot;
+
+    public SaveService(PlayerStore playerStore, FirestoreGuard guard) {
+        this.playerStore = playerStore;
+        this.guard = guard;
+        this.db = playerStore.firestore();
+    }
+
+    private static String activeSlot(DocumentSnapshot snapshot) {
+        String slot = snapshot.getString(ACTIVE_SLOT_FIELD);
+        return slot != null ? slot : DEFAULT_SLOT;
+    }
+
+    private static void requireSlotId(String slotId) {
+        if (slotId == null || !SLOT_ID.matcher(slotId).matches()) {
+            throw new IllegalArgumentException("Slot ids are 1-32 letters, digits, '-' or '_'.");
+        }
+    }
+
+    // The active document and the player it describes, with any events newer than the document applied.
+    private record ActiveGame(DocumentSnapshot snapshot, PlayerCharacter player, long lastSeq) {
+        boolean exists() {
+            return snapshot.exists();
+        }
+    }
+
+    private ActiveGame loadActive(DocumentSnapshot snapshot, ApiFuture<List<QueryDocumentSnapshot>> events)
+            throws ExecutionException, InterruptedException {
+        return loadActive(snapshot, guard.await(events));
+    }
+
+    private ActiveGame loadActive(DocumentSnapshot snapshot, List<QueryDocumentSnapshot> recentEvents)
+            throws ExecutionException, InterruptedException {
+        long lastSeq = recentEvents.stream().mapToLong(event -> event.getLong(PlayerTimeline.SEQ)).max().orElse(0);
+        PlayerCharacter player = snapshot.exists() ? playerStore.replay(snapshot, recentEvents) : null;
+        return new ActiveGame(snapshot, player, player != null ? Math.max(lastSeq, player.getVersion()) : lastSeq);
+    }
+
+    private ActiveGame loadActive(Transaction transaction, String userId) throws ExecutionException, InterruptedException {
+        DocumentSnapshot snapshot = transaction.get(playerStore.document(userId)).get();
+        return loadActive(snapshot, playerStore.recentEvents(transaction, userId));
+    }
+
+    private ActiveGame requireActive(Transaction transaction, String userId) throws ExecutionException, InterruptedException {
+        ActiveGame active = loadActive(transaction, userId);
+        if (!active.exists()) {
+            throw new IllegalArgumentException("Player character not found.");
+        }
+        return active;
+    }
+
+    /**
+     * Runs a read-modify-write in a transaction, so a concurrent turn or slot switch makes it retry on fresh data
+     * rather than be overwritten. Validation errors thrown inside come back unwrapped.
+     */
+    private <T> T inTransaction(Transaction.Function<T> work) throws ExecutionException, InterruptedException {
+        try {
+            return guard.await(db.runTransaction(work));
+        } catch (ExecutionException e) {
+            for (Throwable cause = e.getCause(); cause != null; cause = cause.getCause()) {
+                if (cause instanceof IllegalArgumentException || cause instanceof IllegalStateException) {
+                    throw (RuntimeException) cause;
+                }
+            }
+            throw e;
+        }
+    }
+
+    public List<Map<String, Object>> listSlots(String userId) throws ExecutionException, InterruptedException {
+        DocumentReference active = playerStore.document(userId);
+        ApiFuture<DocumentSnapshot> activeFuture = active.get();
+        ApiFuture<List<QueryDocumentSnapshot>> events = playerStore.recentEvents(userId);
+        ApiFuture<QuerySnapshot> parkedFuture = active.collection(SLOTS).get();
+
+        List<Map<String, Object>> slots = new ArrayList<>();
+        ActiveGame current = loadActive(guard.await(activeFuture), events);
+        if (current.exists()) {
+            slots.add(describe(activeSlot(current.snapshot()), current.player(), true));
+        }
+        for (DocumentSnapshot parked : guard.await(parkedFuture).getDocuments()) {
+            slots.add(describe(parked.getId(), playerStore.read(parked), false));
+        }
+        return slots;
+    }
+
+    private Map<String, Object> describe(String slotId, PlayerCharacter player, boolean active) {
+        Map<String, Object> slot = new HashMap<>();
+        slot.put("slotId", slotId);
+        slot.put("active", active);
+        slot.put("characterName", player.getName());
+        slot.put("level", player.getLevel());
+        slot.put("currentLocationId", player.getCurrentLocationId());
+        return slot;
+    }
+
+    /** Copies the active game into another slot, overwriting it, and keeps playing the active one. */
+    public void saveSlot(String userId, String slotId) throws ExecutionException, InterruptedException {
+        requireSlotId(slotId);
+        CollectionReference slots = playerStore.document(userId).collection(SLOTS);
+        inTransaction(transaction -> {
+            ActiveGame active = requireActive(transaction, userId);
+            if (slotId.equals(activeSlot(active.snapshot()))) {
+                throw new IllegalArgumentException("That slot is the game in progress.");
+            }
+
+            List<QueryDocumentSnapshot> parked = transaction.get(slots).get().getDocuments();
+            boolean overwrite = parked.stream().anyMatch(slot -> slot.getId().equals(slotId));
+            if (!overwrite && parked.size() + 1 >= maxSlots) {
+                throw new IllegalArgumentException("All " + maxSlots + " save slots are in use.");
+            }
+
+            transaction.set(slots.document(slotId), playerStore.documentData(active.player()));
+            return null;
+        });
+        logger.info("Saved active game of user {} into slot {}", userId, slotId);
+    }
+
+    /**
+     * Makes a parked slot the active game and parks the current one under its own slot id. Both documents come
+     * back from a single batched read, and the swap is one batch guarded by the active document's update time.
+     * The loaded game continues the user's version sequence, so versions and events never repeat.
+     */
+    public PlayerCharacter loadSlot(String userId, String slotId) throws ExecutionException, InterruptedException {
+        requireSlotId(slotId);
+        DocumentReference active = playerStore.document(userId);
+        DocumentReference target = active.collection(SLOTS).document(slotId);
+
+        ApiFuture<List<QueryDocumentSnapshot>> events = playerStore.recentEvents(userId);
+        List<DocumentSnapshot> snapshots = guard.await(db.getAll(active, target));
+        ActiveGame current = loadActive(snapshots.get(0), events);
+        DocumentSnapshot stored = snapshots.get(1);
+        if (!stored.exists()) {
+            throw new IllegalArgumentException("Save slot not found.");
+        }
+
+        PlayerCharacter loaded = playerStore.read(stored);
+        loaded.setVersion(Math.max(current.lastSeq(), loaded.getVersion()) + 1);
+        Map<String, Object> restored = playerStore.documentData(loaded);
+        restored.put(ACTIVE_SLOT_FIELD, slotId);
+
+        WriteBatch batch = db.batch();
+        if (current.exists()) {
+            batch.set(active.collection(SLOTS).document(activeSlot(current.snapshot())), playerStore.documentData(current.player()));
+            for (String field : current.snapshot().getData().keySet()) {
+                restored.putIfAbsent(field, FieldValue.delete());
+            }
+            batch.update(active, restored, Precondition.updatedAt(current.snapshot().getUpdateTime()));
+        } else {
+            batch.create(active, restored);
+        }
+        batch.delete(target);
+        if (playerStore.eventSourced()) {
+            playerStore.appendEvent(batch, userId, "slot:" + slotId, current.player(), loaded);
+        }
+
+        try {
+            guard.await(batch.commit());
+        } catch (ExecutionException e) {
+            if (PlayerStore.hasStatus(e, StatusCode.Code.FAILED_PRECONDITION)
+                    || PlayerStore.hasStatus(e, StatusCode.Code.ALREADY_EXISTS)) {
+                throw new IllegalStateException("The game changed while switching slots. Please try again.");
+            }
+            throw e;
+        }
+        logger.info("User {} switched to slot {}", userId, slotId);
+        playerStore.notifyChanged(userId, current.player(), loaded);
+        return loaded;
+    }
+
+    public void deleteSlot(String userId, String slotId) throws ExecutionException, InterruptedException {
+        requireSlotId(slotId);
+        WriteBatch batch = db.batch();
+        batch.delete(playerStore.document(userId).collection(SLOTS).document(slotId));
+        for (Checkpoint checkpoint : checkpoints(userId, slotId)) {
+            batch.delete(playerStore.document(userId).collection(CHECKPOINTS).document(checkpoint.getId()));
+        }
+        guard.await(batch.commit());
+    }
+
+    /** Deletes the active game and its checkpoints; parked slots are kept. */
+    public void deleteActive(String userId) throws ExecutionException, InterruptedException {
+        ActiveGame active = inTransaction(transaction -> {
+            ActiveGame current = loadActive(transaction, userId);
+            if (current.exists()) {
+                // Read before any write, as transactions require; the slot is the one being deleted.
+                List<Checkpoint> checkpoints = checkpoints(transaction, userId, activeSlot(current.snapshot()));
+                for (Checkpoint checkpoint : checkpoints) {
+                    transaction.delete(playerStore.document(userId).collection(CHECKPOINTS).document(checkpoint.getId()));
+                }
+            }
+            transaction.delete(playerStore.document(userId));
+            return current;
+        });
+        if (active.exists()) {
+            playerStore.notifyChanged(userId, active.player(), null);
+        }
+    }
+
+    public Checkpoint createCheckpoint(String userId, String label) throws ExecutionException, InterruptedException {
+        CollectionReference collection = playerStore.document(userId).collection(CHECKPOINTS);
+        DocumentReference created = collection.document();
+        Checkpoint checkpoint = inTransaction(transaction -> {
+            ActiveGame active = requireActive(transaction, userId);
+            Checkpoint next = checkpointOf(active, label);
+            next.setId(created.getId());
+            List<Checkpoint> existing = checkpoints(transaction, userId, next.getSlotId());
+            transaction.set(created, next);
+            // Oldest checkpoints of the slot make room for the new one.
+            for (int i = 0; i <= existing.size() - maxCheckpointsPerSlot; i++) {
+                transaction.delete(collection.document(existing.get(i).getId()));
+            }
+            return next;
+        });
+
+        logger.info("Checkpoint {} created for user {} in slot {}", checkpoint.getId(), userId, checkpoint.getSlotId());
+        return checkpoint;
+    }
+
+    private static Checkpoint checkpointOf(ActiveGame active, String label) {
+        PlayerCharacter player = active.player();
+        List<String> history = player.getGameHistory() != null ? player.getGameHistory() : List.of();
+
+        PlayerCharacter state = copyWithoutHistory(player);
+        Checkpoint checkpoint = new Checkpoint();
+        checkpoint.setSlotId(activeSlot(active.snapshot()));
+        checkpoint.setLabel(label != null && !label.isBlank() ? label : player.getCurrentLocationId());
+        checkpoint.setCreatedAt(System.currentTimeMillis());
+        checkpoint.setHistoryLength(history.size());
+        checkpoint.setHistoryHash(history.hashCode());
+        checkpoint.setState(state);
+        return checkpoint;
+    }
+
+    /** Checkpoints of the active slot, oldest first, without their state. */
+    public List<Checkpoint> listCheckpoints(String userId) throws ExecutionException, InterruptedException {
+        DocumentSnapshot active = guard.await(playerStore.document(userId).get());
+        if (!active.exists()) {
+            throw new IllegalArgumentException("Player character not found.");
+        }
+        List<Checkpoint> result = checkpoints(userId, activeSlot(active));
+        result.forEach(checkpoint -> checkpoint.setState(null));
+        return result;
+    }
+
+    private List<Checkpoint> checkpoints(String userId, String slotId) throws ExecutionException, InterruptedException {
+        return sorted(guard.await(checkpointsQuery(userId, slotId).get()).getDocuments());
+    }
+
+    private List<Checkpoint> checkpoints(Transaction transaction, String userId, String slotId)
+            throws ExecutionException, InterruptedException {
+        return sorted(transaction.get(checkpointsQuery(userId, slotId)).get().getDocuments());
+    }
+
+    private Query checkpointsQuery(String userId, String slotId) {
+        return playerStore.document(userId).collection(CHECKPOINTS).whereEqualTo("slotId", slotId);
+    }
+
+    private static List<Checkpoint> sorted(List<QueryDocumentSnapshot> snapshots) {
+        List<Checkpoint> result = new ArrayList<>();
+        for (DocumentSnapshot snapshot : snapshots) {
+            result.add(snapshot.toObject(Checkpoint.class));
+        }
+        result.sort(Comparator.comparingLong(Checkpoint::getCreatedAt));
+        return result;
+    }
+
+    /**
+     * Rewinds the active game to a checkpoint of its slot. Checkpoints taken later stay valid: restoring one again
+     * only succeeds while the live history still starts with the prefix it was taken on.
+     */
+    public PlayerCharacter restoreCheckpoint(String userId, String checkpointId) throws ExecutionException, InterruptedException {
+        DocumentSnapshot snapshot = guard.await(playerStore.document(userId).collection(CHECKPOINTS).document(checkpointId).get());
+        if (!snapshot.exists()) {
+            throw new IllegalArgumentException("Checkpoint not found.");
+        }
+        Checkpoint checkpoint = snapshot.toObject(Checkpoint.class);
+        if (checkpoint.getState().getInventory() == null) {
+            // Checkpoints taken before inventories were stacked keep the item list under "inventory".
+            checkpoint.getState().setInventory(PlayerTimeline.stacks(snapshot.get("state.inventory")));
+        }
+
+        return playerStore.mutate(userId, "restore:" + checkpointId, player -> {
+            // Checked on every attempt: a slot saved from this game shares its history prefix, so the history
+            // check alone would let a checkpoint of a parked slot be restored over the game. A slot switch after
+            // this read changes the player document, which fails the write and brings the check round again.
+            String slot = activeSlot(guard.await(playerStore.document(userId).get()));
+            if (!slot.equals(checkpoint.getSlotId())) {
+                throw new IllegalArgumentException("This checkpoint belongs to save slot " + checkpoint.getSlotId() + ".");
+            }
+            List<String> history = player.getGameHistory();
+            if (history.size() < checkpoint.getHistoryLength()
+                    || history.subList(0, checkpoint.getHistoryLength()).hashCode() != checkpoint.getHistoryHash()) {
+                throw new IllegalArgumentException("This checkpoint belongs to a different playthrough.");
+            }
+
+            PlayerCharacter state = checkpoint.getState();
+            player.setName(state.getName());
+            player.setLevel(state.getLevel());
+            player.setExperience(state.getExperience());
+            player.setInventory(state.getInventory() != null ? new LinkedHashMap<>(state.getInventory()) : new LinkedHashMap<>());
+            player.setBaseDamage(state.getBaseDamage());
+            player.setBaseHealth(state.getBaseHealth());
+            player.setCurrentHealth(state.getCurrentHealth());
+            player.setCurrentLocationId(state.getCurrentLocationId());
+            player.setFlags(new HashMap<>(state.getFlags()));
+            player.setGameHistory(new ArrayList<>(history.subList(0, checkpoint.getHistoryLength())));
+            return player;
+        });
+    }
+
+    private static PlayerCharacter copyWithoutHistory(PlayerCharacter player) {
+        Map<String, Integer> inventory = player.getInventory() != null ? player.getInventory() : Map.of();
+        Map<String, Boolean> flags = player.getFlags() != null ? player.getFlags() : Map.of();
+        return new PlayerCharacter(player.getId(), player.getName(), player.getLevel(), player.getExperience(),
+                new LinkedHashMap<>(inventory), player.getBaseDamage(), player.getBaseHealth(), player.getCurrentHealth(),
+                player.getCurrentLocationId(), new ArrayList<>(), new HashMap<>(flags));
+    }
+}
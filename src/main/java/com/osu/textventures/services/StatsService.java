@@ -0,0 +1,460 @@
+package com.osu.textventures.services;
+
+import com.google.cloud.firestore.*;
+import com.google.firebase.cloud.FirestoreClient;
+import com.osu.textventures.content.WorldValidator;
+import com.osu.textventures.models.PlayerCharacter;
+import com.osu.textventures.utils.FirestoreGuard;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Progression statistics kept as running aggregates, so no query ever reads {@code playerCharacters}.
+ *
+ * <p>Each node turns the player changes it commits into local deltas. A periodic flush adds them to one random
+ * shard under {@code stats/counters/shards} with {@code FieldValue.increment}, so writers never contend on a single
+ * document, merges local leaderboard updates into the stored top-K documents, and then reloads the cluster-wide
+ * totals. Reads are answered from memory: the last totals plus whatever this node has not flushed yet.
+ *
+ * <p>The counters are approximate in two ways. A flush whose write times out after Firestore applied it puts its
+ * deltas back and writes them again, so they are counted twice from then on. And other nodes' changes only show up
+ * once this node reloads the totals, so nodes briefly disagree by up to one flush interval.
+ */
+@Service
+public class StatsService implements PlayerChangeListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(StatsService.class);
+
+    static final int MAX_LEVEL = 50;
+    public static final String EXPERIENCE = "experience";
+    public static final String SPEEDRUN = "speedrun";
+
+    private static final String STATS = "stats";
+    private static final String COUNTERS = "counters";
+    private static final String SHARDS = "shards";
+    private static final String LEADERBOARD_PREFIX = "leaderboard-";
+
+    private final Firestore db = FirestoreClient.getFirestore();
+    private final FirestoreGuard guard;
+
+    @Value("${game.stats.counter-shards:10}")
+    private int counterShards;
+
+    @Value("${game.stats.leaderboard-size:100}")
+    private int leaderboardSize;
+
+    @Value("${game.stats.flush-interval-ms:10000}")
+    private long flushIntervalMs;
+
+    record Totals(long games, long completions, long[] levels) {
+        static Totals empty() {
+            return new Totals(0, 0, new long[MAX_LEVEL + 1]);
+        }
+
+        Totals plus(Totals other, int sign) {
+            long[] sum = levels.clone();
+            for (int level = 0; level <= MAX_LEVEL; level++) {
+                sum[level] += sign * other.levels[level];
+            }
+            return new Totals(games + sign * other.games, completions + sign * other.completions, sum);
+        }
+    }
+
+    public record Entry(String userId, String characterName, int level, long score) {
+    }
+
+    private final Counters counters = new Counters();
+    private final Map<String, Leaderboard> leaderboards = new LinkedHashMap<>();
+    private ScheduledExecutorService executor;
+
+    public StatsService(FirestoreGuard guard) {
+        this.guard = guard;
+    }
+
+    @PostConstruct
+    public void init() {
+        leaderboards.put(EXPERIENCE, new Leaderboard(false, leaderboardSize));
+        // Fewest turns to finish the game; an achievement, so resets do not remove it.
+        leaderboards.put(SPEEDRUN, new Leaderboard(true, leaderboardSize));
+
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "stats-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.execute(this::flushQuietly);
+        executor.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+            flush();
+        } catch (Exception e) {
+            logger.warn("Final stats flush failed: {}", e.getMessage());
+        }
+    }
+
+    private static boolean completed(PlayerCharacter player) {
+        return player != null && player.getFlags() != null
+                && Boolean.TRUE.equals(player.getFlags().get(WorldValidator.COMPLETION_FLAG));
+    }
+
+    @Override
+    public void playerChanged(String userId, PlayerCharacter before, PlayerCharacter after) {
+        counters.record(before, after);
+
+        boolean wasCompleted = completed(before);
+        boolean isCompleted = completed(after);
+        if (after == null) {
+            leaderboards.get(EXPERIENCE).remove(userId);
+            return;
+        }
+        if (before == null || before.getExperience() != after.getExperience() || before.getLevel() != after.getLevel()
+                || !Objects.equals(before.getName(), after.getName())) {
+            leaderboards.get(EXPERIENCE).offer(new Entry(userId, after.getName(), after.getLevel(), after.getExperience()));
+        }
+        if (isCompleted && !wasCompleted) {
+            int turns = after.getGameHistory() != null ? after.getGameHistory().size() : 0;
+            leaderboards.get(SPEEDRUN).offer(new Entry(userId, after.getName(), after.getLevel(), turns));
+        }
+    }
+
+    public Map<String, Object> getSummary() {
+        return counters.summary();
+    }
+
+    public List<Entry> getLeaderboard(String name, int limit) {
+        Leaderboard leaderboard = leaderboards.get(name);
+        if (leaderboard == null) {
+            throw new IllegalArgumentException("Unknown leaderboard. Available: " + leaderboards.keySet());
+        }
+        return leaderboard.top(Math.max(1, Math.min(limit, leaderboardSize)));
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (Exception e) {
+            logger.warn("Stats flush failed, will retry: {}", e.getMessage());
+        }
+    }
+
+    private synchronized void flush() throws Exception {
+        Totals delta = counters.drain();
+        try {
+            writeCounters(delta);
+        } catch (Exception e) {
+            counters.restore(delta);
+            throw e;
+        }
+
+        for (Map.Entry<String, Leaderboard> leaderboard : leaderboards.entrySet()) {
+            mergeLeaderboard(leaderboard.getKey(), leaderboard.getValue());
+        }
+
+        counters.loaded(readCounters());
+    }
+
+    private void writeCounters(Totals delta) throws Exception {
+        Map<String, Object> levelIncrements = new HashMap<>();
+        for (int level = 0; level <= MAX_LEVEL; level++) {
+            if (delta.levels()[level] != 0) {
+                levelIncrements.put(String.valueOf(level), FieldValue.increment(delta.levels()[level]));
+            }
+        }
+        if (delta.games() == 0 && delta.completions() == 0 && levelIncrements.isEmpty()) {
+            return;
+        }
+
+        Map<String, Object> data = new HashMap<>();
+        data.put("games", FieldValue.increment(delta.games()));
+        data.put("completions", FieldValue.increment(delta.completions()));
+        data.put("levels", levelIncrements);
+        String shard = String.valueOf(ThreadLocalRandom.current().nextInt(counterShards));
+        guard.await(db.collection(STATS).document(COUNTERS).collection(SHARDS).document(shard).set(data, SetOptions.merge()));
+    }
+
+    private Totals readCounters() throws Exception {
+        List<Map<String, Object>> shards = new ArrayList<>();
+        for (DocumentSnapshot shard : guard.await(db.collection(STATS).document(COUNTERS).collection(SHARDS).get()).getDocuments()) {
+            shards.add(shard.getData());
+        }
+        return sum(shards);
+    }
+
+    static Totals sum(List<Map<String, Object>> shards) {
+        long games = 0;
+        long completions = 0;
+        long[] levels = new long[MAX_LEVEL + 1];
+        for (Map<String, Object> shard : shards) {
+            games += longValue(shard.get("games"));
+            completions += longValue(shard.get("completions"));
+            if (shard.get("levels") instanceof Map<?, ?> shardLevels) {
+                for (Map.Entry<?, ?> level : shardLevels.entrySet()) {
+                    int index = Integer.parseInt(String.valueOf(level.getKey()));
+                    if (index >= 0 && index <= MAX_LEVEL) {
+                        levels[index] += longValue(level.getValue());
+                    }
+                }
+            }
+        }
+        return new Totals(games, completions, levels);
+    }
+
+    private static long longValue(Object value) {
+        return value instanceof Number number ? number.longValue() : 0;
+    }
+
+    // Read-merge-write in a transaction so concurrent nodes do not drop each other's entries.
+    private void mergeLeaderboard(String name, Leaderboard leaderboard) throws Exception {
+        Map<String, Entry> updates = leaderboard.drainPending();
+        DocumentReference docRef = db.collection(STATS).document(LEADERBOARD_PREFIX + name);
+        List<Entry> merged;
+        try {
+            merged = guard.await(db.runTransaction(transaction -> {
+                DocumentSnapshot snapshot = transaction.get(docRef).get();
+                Leaderboard stored = new Leaderboard(leaderboard.ascending, leaderboardSize);
+                stored.load(readEntries(snapshot));
+                updates.forEach((userId, entry) -> {
+                    if (entry == null) {
+                        stored.remove(userId);
+                    } else {
+                        stored.offer(entry);
+                    }
+                });
+                List<Entry> top = stored.top(leaderboardSize);
+                if (!updates.isEmpty()) {
+                    transaction.set(docRef, Map.of("entries", top.stream().map(StatsService::toMap).toList()));
+                }
+                return top;
+            }));
+        } catch (Exception e) {
+            leaderboard.restorePending(updates);
+            throw e;
+        }
+        leaderboard.load(merged);
+    }
+
+    private static List<Entry> readEntries(DocumentSnapshot snapshot) {
+        List<Entry> entries = new ArrayList<>();
+        if (snapshot.exists() && snapshot.get("entries") instanceof List<?> stored) {
+            for (Object raw : stored) {
+                if (raw instanceof Map<?, ?> entry) {
+                    entries.add(new Entry((String) entry.get("userId"), (String) entry.get("characterName"),
+                            (int) longValue(entry.get("level")), longValue(entry.get("score"))));
+                }
+            }
+        }
+        return entries;
+    }
+
+    private static Map<String, Object> toMap(Entry entry) {
+        Map<String, Object> map = new HashMap<>();
+        map.put("userId", entry.userId());
+        map.put("characterName", entry.characterName());
+        map.put("level", entry.level());
+        map.put("score", entry.score());
+        return map;
+    }
+
+    /**
+     * This node's view of the counters: the totals last read from the shards, the deltas a flush is writing, and
+     * the deltas recorded since. The stored totals and the in-flight deltas are replaced together, so a read never
+     * counts a flushed delta both in the reloaded totals and in flight. It may miss a delta for the instant between
+     * a flush draining the pending counters and publishing them as in flight.
+     */
+    static final class Counters {
+        private final AtomicLong pendingGames = new AtomicLong();
+        private final AtomicLong pendingCompletions = new AtomicLong();
+        private final AtomicLongArray pendingLevels = new AtomicLongArray(MAX_LEVEL + 1);
+        // Only the flushing thread replaces this.
+        private volatile View view = new View(Totals.empty(), Totals.empty());
+
+        private record View(Totals stored, Totals inFlight) {
+        }
+
+        private static int levelBucket(PlayerCharacter player) {
+            return player == null ? -1 : Math.max(0, Math.min(player.getLevel(), MAX_LEVEL));
+        }
+
+        void record(PlayerCharacter before, PlayerCharacter after) {
+            if (before == null && after != null) {
+                pendingGames.incrementAndGet();
+            } else if (before != null && after == null) {
+                pendingGames.decrementAndGet();
+            }
+
+            int levelBefore = levelBucket(before);
+            int levelAfter = levelBucket(after);
+            if (levelBefore != levelAfter) {
+                if (levelBefore >= 0) {
+                    pendingLevels.decrementAndGet(levelBefore);
+                }
+                if (levelAfter >= 0) {
+                    pendingLevels.incrementAndGet(levelAfter);
+                }
+            }
+
+            boolean wasCompleted = completed(before);
+            boolean isCompleted = completed(after);
+            if (wasCompleted != isCompleted) {
+                pendingCompletions.addAndGet(isCompleted ? 1 : -1);
+            }
+        }
+
+        /**
+         * Takes the pending deltas for a flush. They stay visible as in flight until the totals are reloaded, along
+         * with those of earlier flushes that were written but not reloaded.
+         */
+        Totals drain() {
+            long[] levels = new long[MAX_LEVEL + 1];
+            for (int level = 0; level <= MAX_LEVEL; level++) {
+                levels[level] = pendingLevels.getAndSet(level, 0);
+            }
+            Totals delta = new Totals(pendingGames.getAndSet(0), pendingCompletions.getAndSet(0), levels);
+            view = new View(view.stored(), view.inFlight().plus(delta, 1));
+            return delta;
+        }
+
+        /** Puts back the deltas of a flush whose write failed. */
+        void restore(Totals delta) {
+            pendingGames.addAndGet(delta.games());
+            pendingCompletions.addAndGet(delta.completions());
+            for (int level = 0; level <= MAX_LEVEL; level++) {
+                pendingLevels.addAndGet(level, delta.levels()[level]);
+            }
+            view = new View(view.stored(), view.inFlight().plus(delta, -1));
+        }
+
+        /** Totals reloaded after a successful write, which already include the in-flight deltas. */
+        void loaded(Totals stored) {
+            view = new View(stored, Totals.empty());
+        }
+
+        Map<String, Object> summary() {
+            View current = view;
+            long games = current.stored().games() + current.inFlight().games() + pendingGames.get();
+            long completions = current.stored().completions() + current.inFlight().completions() + pendingCompletions.get();
+
+            Map<String, Long> levels = new TreeMap<>(Comparator.comparingInt(Integer::parseInt));
+            for (int level = 0; level <= MAX_LEVEL; level++) {
+                long count = current.stored().levels()[level] + current.inFlight().levels()[level] + pendingLevels.get(level);
+                if (count > 0) {
+                    levels.put(String.valueOf(level), count);
+                }
+            }
+
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("activeGames", games);
+            summary.put("completedGames", completions);
+            summary.put("completionRate", games > 0 ? (double) completions / games : 0.0);
+            summary.put("levelDistribution", levels);
+            return summary;
+        }
+    }
+
+    /**
+     * Bounded top-K: an ordered set for ranking plus an index by user, so updating a player's entry is
+     * O(log K). Entries pushed out of the top K are forgotten; after removals the board may briefly show fewer
+     * than K players until someone else qualifies.
+     */
+    static final class Leaderboard {
+        private final boolean ascending;
+        private final int capacity;
+        private final TreeSet<Entry> ranking;
+        private final Map<String, Entry> byUser = new HashMap<>();
+        // Local changes not yet merged into the stored board; a null value is a removal.
+        private final Map<String, Entry> pending = new HashMap<>();
+
+        Leaderboard(boolean ascending, int capacity) {
+            this.ascending = ascending;
+            this.capacity = capacity;
+            Comparator<Entry> byScore = Comparator.comparingLong(Entry::score);
+            this.ranking = new TreeSet<>((ascending ? byScore : byScore.reversed()).thenComparing(Entry::userId));
+        }
+
+        private boolean better(Entry candidate, Entry current) {
+            return ascending ? candidate.score() < current.score() : candidate.score() > current.score();
+        }
+
+        synchronized void offer(Entry entry) {
+            Entry existing = byUser.get(entry.userId());
+            if (existing != null && ascending && !better(entry, existing)) {
+                return;
+            }
+            if (existing == null && ranking.size() >= capacity && !better(entry, ranking.last())) {
+                return;
+            }
+            if (existing != null) {
+                ranking.remove(existing);
+            }
+            ranking.add(entry);
+            byUser.put(entry.userId(), entry);
+            pending.put(entry.userId(), entry);
+            while (ranking.size() > capacity) {
+                byUser.remove(ranking.pollLast().userId());
+            }
+        }
+
+        synchronized void remove(String userId) {
+            Entry existing = byUser.remove(userId);
+            if (existing != null) {
+                ranking.remove(existing);
+            }
+            pending.put(userId, null);
+        }
+
+        synchronized List<Entry> top(int limit) {
+            return ranking.stream().limit(limit).toList();
+        }
+
+        synchronized Map<String, Entry> drainPending() {
+            Map<String, Entry> drained = new HashMap<>(pending);
+            pending.clear();
+            return drained;
+        }
+
+        synchronized void restorePending(Map<String, Entry> drained) {
+            drained.forEach(pending::putIfAbsent);
+        }
+
+        // Replaces the board with the stored one, re-applying local changes made since the merge started.
+        synchronized void load(List<Entry> stored) {
+            ranking.clear();
+            byUser.clear();
+            for (Entry entry : stored) {
+                ranking.add(entry);
+                byUser.put(entry.userId(), entry);
+            }
+            for (Map.Entry<String, Entry> change : new ArrayList<>(pending.entrySet())) {
+                Entry entry = change.getValue();
+                Entry existing = byUser.remove(change.getKey());
+                if (existing != null) {
+                    ranking.remove(existing);
+                }
+                if (entry != null) {
+                    ranking.add(entry);
+                    byUser.put(entry.userId(), entry);
+                }
+            }
+            while (ranking.size() > capacity) {
+                byUser.remove(ranking.pollLast().userId());
+            }
+        }
+    }
+}
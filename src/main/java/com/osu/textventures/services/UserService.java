@@ -1,40 +1,108 @@
 package com.osu.textventures.services;
 
 import com.google.api.core.ApiFuture;
+import com.google.api.gax.rpc.StatusCode;
 import com.google.cloud.firestore.*;
 import com.google.firebase.cloud.FirestoreClient;
 import com.osu.textventures.models.User;
+import com.osu.textventures.utils.FirestoreGuard;
+import com.osu.textventures.utils.JwtUtil;
+import com.osu.textventures.utils.ShardRouter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ExecutionException;
 
+/**
+ * Users live in the shard of their id (see {@link ShardRouter}); {@value #USERNAMES} maps each username to its id
+ * so logins are a document read instead of a query over every shard. Creating the index entry also enforces
+ * unique usernames atomically.
+ */
 @Service
 public class UserService {
 
     private static final Logger logger = LoggerFactory.getLogger(UserService.class);
 
+    public static final String USERNAMES = "usernames";
+    public static final String USER_ID_FIELD = "userId";
+
     private final Firestore db = FirestoreClient.getFirestore();
     private final BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
+    private final FirestoreGuard guard;
+    private final ShardRouter shards;
+
+    // Users created before the username index existed are only found by querying the user collections. Turn this
+    // on only until ShardMigrationTool has backfilled the index: it costs a query per shard on every registration
+    // and on every login with an unknown username.
+    @Value("${game.shards.legacy-username-lookup:false}")
+    private boolean legacyUsernameLookup;
+
+    // Anyone can register with role "admin", so admin rights additionally require being listed here.
+    @Value("${game.admin.usernames:}")
+    private Set<String> adminUsernames;
+
+    public UserService(FirestoreGuard guard, ShardRouter shards) {
+        this.guard = guard;
+        this.shards = shards;
+    }
+
+    // Document ids cannot contain '/', so usernames are escaped.
+    public static String usernameKey(String username) {
+        return URLEncoder.encode(username, StandardCharsets.UTF_8);
+    }
+
+    /** The role to put into the user's tokens: the stored role, except that "admin" must also be allow-listed. */
+    public String grantedRole(String username, String role) {
+        if (JwtUtil.ADMIN_ROLE.equals(role) && !adminUsernames.contains(username)) {
+            return "player";
+        }
+        return role;
+    }
+
+    /**
+     * The role a refreshed token may carry: re-derived from the stored user, so a revoked admin role does not
+     * live on through sliding refreshes. Null if the user no longer exists.
+     */
+    public String currentRole(String userId, String username) throws ExecutionException, InterruptedException {
+        DocumentSnapshot snapshot = guard.await(shards.collection(db, ShardRouter.USERS, userId).document(userId).get());
+        User user = snapshot.exists() ? snapshot.toObject(User.class) : findByUsername(username);
+        return user != null ? grantedRole(user.getUsername(), user.getRole()) : null;
+    }
 
     public String createUser(String username, String password, String role) throws ExecutionException, InterruptedException {
         logger.info("Creating new user: {}", username);
 
-        CollectionReference users = db.collection("users");
-        ApiFuture<QuerySnapshot> query = users.whereEqualTo("username", username).get();
-        if (!query.get().isEmpty()) {
+        if (legacyUsernameLookup && findLegacy(username) != null) {
             logger.warn("Registration failed - username already exists: {}", username);
             throw new IllegalArgumentException("Username already exists");
         }
 
-        String id = db.collection("users").document().getId();
+        String id = db.collection(ShardRouter.USERS).document().getId();
         String passwordHash = passwordEncoder.encode(password);
 
         User user = new User(id, username, passwordHash, role, null);
 
-        db.collection("users").document(id).set(user);
+        WriteBatch batch = db.batch();
+        batch.create(db.collection(USERNAMES).document(usernameKey(username)), Map.of(USER_ID_FIELD, id));
+        batch.set(shards.collection(db, ShardRouter.USERS, id).document(id), user);
+        try {
+            guard.await(batch.commit());
+        } catch (ExecutionException e) {
+            if (PlayerStore.hasStatus(e, StatusCode.Code.ALREADY_EXISTS)) {
+                logger.warn("Registration failed - username already exists: {}", username);
+                throw new IllegalArgumentException("Username already exists");
+            }
+            throw e;
+        }
         logger.info("User created successfully: {} with role: {}", username, role);
         return id;
     }
@@ -42,16 +110,12 @@ public class UserService {
     public User login(String username, String password) throws ExecutionException, InterruptedException {
         logger.info("Login attempt for user: {}", username);
 
-        CollectionReference users = db.collection("users");
-        ApiFuture<QuerySnapshot> query = users.whereEqualTo("username", username).get();
-
-        QuerySnapshot snapshot = query.get();
-        if (snapshot.isEmpty()) {
+        User user = findByUsername(username);
+        if (user == null) {
             logger.warn("Login failed - user not found: {}", username);
             throw new IllegalArgumentException("User not found");
         }
 
-        User user = snapshot.getDocuments().get(0).toObject(User.class);
         if (!passwordEncoder.matches(password, user.getPasswordHash())) {
             logger.warn("Login failed - invalid password for user: {}", username);
             throw new IllegalArgumentException("Invalid password");
@@ -60,4 +124,29 @@ public class UserService {
         logger.info("User logged in successfully: {}", username);
         return user;
     }
+
+    private User findByUsername(String username) throws ExecutionException, InterruptedException {
+        DocumentSnapshot entry = guard.await(db.collection(USERNAMES).document(usernameKey(username)).get());
+        if (entry.exists()) {
+            String id = entry.getString(USER_ID_FIELD);
+            DocumentSnapshot snapshot = guard.await(shards.collection(db, ShardRouter.USERS, id).document(id).get());
+            return snapshot.exists() ? snapshot.toObject(User.class) : null;
+        }
+        return legacyUsernameLookup ? findLegacy(username) : null;
+    }
+
+    // The shard queries are all sent before any is awaited, so the lookup takes about one round trip.
+    private User findLegacy(String username) throws ExecutionException, InterruptedException {
+        List<ApiFuture<QuerySnapshot>> queries = new ArrayList<>();
+        for (CollectionReference users : shards.allCollections(db, ShardRouter.USERS)) {
+            queries.add(users.whereEqualTo("username", username).limit(1).get());
+        }
+        for (ApiFuture<QuerySnapshot> query : queries) {
+            QuerySnapshot snapshot = guard.await(query);
+            if (!snapshot.isEmpty()) {
+                return snapshot.getDocuments().get(0).toObject(User.class);
+            }
+        }
+        return null;
+    }
 }
@@ -0,0 +1,243 @@
+package com.osu.textventures.utils;
+
+import com.google.api.core.ApiFuture;
+import com.google.api.gax.rpc.ApiException;
+import com.google.api.gax.rpc.StatusCode;
+import com.google.cloud.firestore.FirestoreException;
+import com.osu.textventures.exceptions.FirestoreUnavailableException;
+import io.grpc.StatusRuntimeException;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Keeps a slow or failing Firestore from tying up every request thread.
+ *
+ * <ul>
+ *   <li>Every blocking read or write waits at most {@code firestore.guard.timeout-ms} ({@link #await}).</li>
+ *   <li>Requests hold a permit of one of three bulkheads while they run (see {@code BulkheadFilter}), so stuck
+ *   game reads cannot starve logins or writes. A full bulkhead rejects after a short wait instead of queueing.</li>
+ *   <li>A circuit breaker opens once enough operations in the current window time out or fail with a transient
+ *   status. While open, {@link #await} fails immediately; after {@code open-ms} a single probe is let through and
+ *   its outcome closes or re-opens the breaker. Callers can check {@link #isDegraded()} to serve cached data.</li>
+ * </ul>
+ */
+@Component
+public class FirestoreGuard {
+
+    private static final Logger logger = LoggerFactory.getLogger(FirestoreGuard.class);
+
+    public enum Bulkhead { AUTH, READ, WRITE }
+
+    private enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private static final Set<StatusCode.Code> TRANSIENT_CODES = Set.of(StatusCode.Code.UNAVAILABLE,
+            StatusCode.Code.DEADLINE_EXCEEDED, StatusCode.Code.RESOURCE_EXHAUSTED, StatusCode.Code.INTERNAL,
+            StatusCode.Code.UNKNOWN);
+
+    @Value("${firestore.guard.timeout-ms:3000}")
+    private long timeoutMs;
+
+    @Value("${firestore.guard.auth-permits:16}")
+    private int authPermits;
+
+    @Value("${firestore.guard.read-permits:64}")
+    private int readPermits;
+
+    @Value("${firestore.guard.write-permits:32}")
+    private int writePermits;
+
+    @Value("${firestore.guard.bulkhead-wait-ms:100}")
+    private long bulkheadWaitMs;
+
+    @Value("${firestore.guard.failure-rate:0.5}")
+    private double failureRate;
+
+    @Value("${firestore.guard.minimum-calls:20}")
+    private int minimumCalls;
+
+    @Value("${firestore.guard.window-ms:10000}")
+    private long windowMs;
+
+    @Value("${firestore.guard.open-ms:15000}")
+    private long openMs;
+
+    private final Map<Bulkhead, Semaphore> bulkheads = new EnumMap<>(Bulkhead.class);
+    private final Map<Bulkhead, Integer> capacities = new EnumMap<>(Bulkhead.class);
+
+    private State state = State.CLOSED;
+    private long stateSince = System.currentTimeMillis();
+    private long windowStart = stateSince;
+    private int windowCalls;
+    private int windowFailures;
+    private boolean probeInFlight;
+    private long rejected;
+    private long timeouts;
+
+    @PostConstruct
+    public void init() {
+        if (!(failureRate > 0 && failureRate <= 1) || minimumCalls < 1) {
+            throw new IllegalStateException("firestore.guard.failure-rate must be in (0, 1] and "
+                    + "firestore.guard.minimum-calls at least 1, got " + failureRate + " and " + minimumCalls);
+        }
+        capacities.put(Bulkhead.AUTH, authPermits);
+        capacities.put(Bulkhead.READ, readPermits);
+        capacities.put(Bulkhead.WRITE, writePermits);
+        capacities.forEach((bulkhead, permits) -> bulkheads.put(bulkhead, new Semaphore(permits)));
+    }
+
+    /** Takes a permit of the bulkhead, waiting briefly; false when it stays full. Pair with {@link #release}. */
+    public boolean acquire(Bulkhead bulkhead) throws InterruptedException {
+        if (bulkheads.get(bulkhead).tryAcquire(bulkheadWaitMs, TimeUnit.MILLISECONDS)) {
+            return true;
+        }
+        synchronized (this) {
+            rejected++;
+        }
+        return false;
+    }
+
+    public void release(Bulkhead bulkhead) {
+        bulkheads.get(bulkhead).release();
+    }
+
+    /**
+     * {@link ApiFuture#get()} bounded by the configured timeout. Timeouts and transient failures count against the
+     * breaker; while it is open the call fails straight away without waiting on the future.
+     */
+    public <T> T await(ApiFuture<T> future) throws ExecutionException, InterruptedException {
+        boolean probe = admit(future);
+        boolean success = false;
+        try {
+            T result = future.get(timeoutMs, TimeUnit.MILLISECONDS);
+            success = true;
+            return result;
+        } catch (ExecutionException e) {
+            success = !isTransient(e.getCause());
+            throw e;
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            synchronized (this) {
+                timeouts++;
+            }
+            throw new FirestoreUnavailableException("Database did not respond within " + timeoutMs + " ms",
+                    retryAfterSeconds());
+        } finally {
+            record(success, probe);
+        }
+    }
+
+    public synchronized boolean isDegraded() {
+        return state != State.CLOSED;
+    }
+
+    private synchronized boolean admit(ApiFuture<?> future) {
+        long now = System.currentTimeMillis();
+        if (state == State.OPEN && now - stateSince >= openMs) {
+            transition(State.HALF_OPEN, now);
+        }
+        if (state == State.CLOSED) {
+            return false;
+        }
+        if (state == State.HALF_OPEN && !probeInFlight) {
+            probeInFlight = true;
+            return true;
+        }
+        rejected++;
+        future.cancel(true);
+        throw new FirestoreUnavailableException("Database is degraded, only cached reads are served", retryAfterSeconds());
+    }
+
+    private synchronized void record(boolean success, boolean probe) {
+        long now = System.currentTimeMillis();
+        if (probe) {
+            probeInFlight = false;
+            transition(success ? State.CLOSED : State.OPEN, now);
+            return;
+        }
+        if (state != State.CLOSED) {
+            return;
+        }
+        if (now - windowStart >= windowMs) {
+            windowStart = now;
+            windowCalls = 0;
+            windowFailures = 0;
+        }
+        windowCalls++;
+        if (!success) {
+            windowFailures++;
+        }
+        if (windowCalls >= minimumCalls && windowFailures > 0 && windowFailures >= failureRate * windowCalls) {
+            logger.error("Opening Firestore circuit breaker: {} of {} calls failed in the last window",
+                    windowFailures, windowCalls);
+            transition(State.OPEN, now);
+        }
+    }
+
+    private void transition(State next, long now) {
+        if (state != next) {
+            logger.warn("Firestore circuit breaker {} -> {}", state, next);
+        }
+        state = next;
+        stateSince = now;
+        windowStart = now;
+        windowCalls = 0;
+        windowFailures = 0;
+    }
+
+    private synchronized long retryAfterSeconds() {
+        long remaining = state == State.OPEN ? openMs - (System.currentTimeMillis() - stateSince) : 1000;
+        return Math.max(1, TimeUnit.MILLISECONDS.toSeconds(remaining + 999));
+    }
+
+    private static boolean isTransient(Throwable error) {
+        return TRANSIENT_CODES.stream().anyMatch(code -> hasStatus(error, code));
+    }
+
+    /**
+     * Whether the error carries the status code. Firestore wraps gRPC errors in several ways depending on the call,
+     * so the whole cause chain is checked, but only against the codes it reports, never its message text.
+     */
+    public static boolean hasStatus(Throwable error, StatusCode.Code code) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ApiException apiException && apiException.getStatusCode().getCode() == code) {
+                return true;
+            }
+            if (cause instanceof FirestoreException firestoreException && firestoreException.getStatus() != null
+                    && firestoreException.getStatus().getCode().name().equals(code.name())) {
+                return true;
+            }
+            if (cause instanceof StatusRuntimeException statusException
+                    && statusException.getStatus().getCode().name().equals(code.name())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public synchronized Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("state", state.name());
+        status.put("since", stateSince);
+        status.put("windowCalls", windowCalls);
+        status.put("windowFailures", windowFailures);
+        status.put("rejected", rejected);
+        status.put("timeouts", timeouts);
+        Map<String, Object> inUse = new LinkedHashMap<>();
+        bulkheads.forEach((bulkhead, permits) ->
+                inUse.put(bulkhead.name().toLowerCase(), capacities.get(bulkhead) - permits.availablePermits()));
+        status.put("bulkheadsInUse", inUse);
+        return status;
+    }
+}
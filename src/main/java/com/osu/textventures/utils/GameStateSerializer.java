@@ -0,0 +1,298 @@
+package com.osu.textventures.utils;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.osu.textventures.models.Choice;
+import com.osu.textventures.models.GameState;
+import com.osu.textventures.models.Item;
+import com.osu.textventures.models.PlayerCharacter;
+import com.osu.textventures.services.CombatService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.jackson.JsonComponent;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes {@link GameState} responses field by field instead of through bean reflection. The JSON shape matches
+ * what Jackson produced for the Lombok beans, except that the combat log is capped to its most recent entries and
+ * the inventory is written as one entry per item stack, with the catalogue details and a {@code quantity}.
+ */
+@JsonComponent
+public class GameStateSerializer extends StdSerializer<GameState> {
+
+    // Carries an ObjectMapper codec so unusual condition values still have a fallback when fragments are built.
+    static final JsonFactory FACTORY = new ObjectMapper().getFactory();
+
+    private static final SerializedString PLAYER_CHARACTER = new SerializedString("playerCharacter");
+    private static final SerializedString CURRENT_NARRATIVE = new SerializedString("currentNarrative");
+    private static final SerializedString AVAILABLE_CHOICES = new SerializedString("availableChoices");
+    private static final SerializedString COMBAT_STATE = new SerializedString("combatState");
+    private static final SerializedString GAME_COMPLETED = new SerializedString("gameCompleted");
+    private static final SerializedString DEGRADED = new SerializedString("degraded");
+
+    private static final SerializedString ID = new SerializedString("id");
+    private static final SerializedString NAME = new SerializedString("name");
+    private static final SerializedString LEVEL = new SerializedString("level");
+    private static final SerializedString EXPERIENCE = new SerializedString("experience");
+    private static final SerializedString INVENTORY = new SerializedString("inventory");
+    private static final SerializedString BASE_DAMAGE = new SerializedString("baseDamage");
+    private static final SerializedString BASE_HEALTH = new SerializedString("baseHealth");
+    private static final SerializedString CURRENT_HEALTH = new SerializedString("currentHealth");
+    private static final SerializedString CURRENT_LOCATION_ID = new SerializedString("currentLocationId");
+    private static final SerializedString GAME_HISTORY = new SerializedString("gameHistory");
+    private static final SerializedString FLAGS = new SerializedString("flags");
+    private static final SerializedString VERSION = new SerializedString("version");
+
+    private static final SerializedString TYPE = new SerializedString("type");
+    private static final SerializedString POWER = new SerializedString("power");
+    private static final SerializedString GOLD_VALUE = new SerializedString("goldValue");
+    private static final SerializedString QUANTITY = new SerializedString("quantity");
+
+    private static final SerializedString TEXT = new SerializedString("text");
+    private static final SerializedString EFFECT_TYPE = new SerializedString("effectType");
+    private static final SerializedString TARGET_ID = new SerializedString("targetId");
+    private static final SerializedString FLAG_TO_SET = new SerializedString("flagToSet");
+    private static final SerializedString CONDITION = new SerializedString("condition");
+
+    private final ResponseFragmentCache fragments;
+
+    @Value("${game.response.combat-log-limit:50}")
+    private int combatLogLimit;
+
+    public GameStateSerializer(ResponseFragmentCache fragments) {
+        super(GameState.class);
+        this.fragments = fragments;
+    }
+
+    @Override
+    public void serialize(GameState state, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        gen.writeStartObject();
+
+        gen.writeFieldName(PLAYER_CHARACTER);
+        writePlayer(gen, state.getPlayerCharacter(), state.getInventoryItems());
+
+        gen.writeFieldName(CURRENT_NARRATIVE);
+        if (state.getCurrentNarrative() == null) {
+            gen.writeNull();
+        } else if (state.isStaticNarrative()) {
+            gen.writeRawValue(fragments.text(state.getCurrentNarrative()));
+        } else {
+            gen.writeString(state.getCurrentNarrative());
+        }
+
+        gen.writeFieldName(AVAILABLE_CHOICES);
+        if (state.getAvailableChoices() == null) {
+            gen.writeNull();
+        } else {
+            gen.writeStartArray();
+            for (Choice choice : state.getAvailableChoices()) {
+                if (state.getContentKey() != null) {
+                    gen.writeRawValue(fragments.choice(state.getContentKey(), choice, GameStateSerializer::writeChoice));
+                } else {
+                    writeChoice(gen, choice);
+                }
+            }
+            gen.writeEndArray();
+        }
+
+        gen.writeFieldName(COMBAT_STATE);
+        writeCombatState(gen, state.getCombatState());
+
+        gen.writeFieldName(GAME_COMPLETED);
+        gen.writeBoolean(state.isGameCompleted());
+
+        // Only present on fallback responses, so the normal response shape is unchanged.
+        if (state.isDegraded()) {
+            gen.writeFieldName(DEGRADED);
+            gen.writeBoolean(true);
+        }
+
+        gen.writeEndObject();
+    }
+
+    private void writePlayer(JsonGenerator gen, PlayerCharacter player, Map<String, Item> items) throws IOException {
+        if (player == null) {
+            gen.writeNull();
+            return;
+        }
+        gen.writeStartObject();
+        gen.writeFieldName(ID);
+        gen.writeString(player.getId());
+        gen.writeFieldName(NAME);
+        gen.writeString(player.getName());
+        gen.writeFieldName(LEVEL);
+        gen.writeNumber(player.getLevel());
+        gen.writeFieldName(EXPERIENCE);
+        gen.writeNumber(player.getExperience());
+
+        gen.writeFieldName(INVENTORY);
+        if (player.getInventory() == null) {
+            gen.writeNull();
+        } else {
+            gen.writeStartArray();
+            for (Map.Entry<String, Integer> stack : player.getInventory().entrySet()) {
+                writeStack(gen, stack.getKey(), stack.getValue(), items != null ? items.get(stack.getKey()) : null);
+            }
+            gen.writeEndArray();
+        }
+
+        gen.writeFieldName(BASE_DAMAGE);
+        gen.writeNumber(player.getBaseDamage());
+        gen.writeFieldName(BASE_HEALTH);
+        gen.writeNumber(player.getBaseHealth());
+        gen.writeFieldName(CURRENT_HEALTH);
+        gen.writeNumber(player.getCurrentHealth());
+        gen.writeFieldName(CURRENT_LOCATION_ID);
+        gen.writeString(player.getCurrentLocationId());
+
+        gen.writeFieldName(GAME_HISTORY);
+        writeStrings(gen, player.getGameHistory(), Integer.MAX_VALUE);
+
+        gen.writeFieldName(FLAGS);
+        writeFlags(gen, player.getFlags());
+
+        gen.writeFieldName(VERSION);
+        gen.writeNumber(player.getVersion());
+        gen.writeEndObject();
+    }
+
+    // One entry per stack; an item missing from the catalogue is written with just its id and quantity.
+    private static void writeStack(JsonGenerator gen, String itemId, int quantity, Item item) throws IOException {
+        gen.writeStartObject();
+        gen.writeFieldName(ID);
+        gen.writeString(itemId);
+        gen.writeFieldName(QUANTITY);
+        gen.writeNumber(quantity);
+        if (item == null) {
+            gen.writeEndObject();
+            return;
+        }
+        gen.writeFieldName(NAME);
+        gen.writeString(item.getName());
+        gen.writeFieldName(TYPE);
+        gen.writeString(item.getType());
+        gen.writeFieldName(POWER);
+        gen.writeNumber(item.getPower());
+        gen.writeFieldName(GOLD_VALUE);
+        gen.writeNumber(item.getGoldValue());
+        gen.writeEndObject();
+    }
+
+    private static void writeChoice(JsonGenerator gen, Choice choice) throws IOException {
+        gen.writeStartObject();
+        gen.writeFieldName(ID);
+        gen.writeString(choice.getId());
+        gen.writeFieldName(TEXT);
+        gen.writeString(choice.getText());
+        gen.writeFieldName(EFFECT_TYPE);
+        gen.writeString(choice.getEffectType());
+        gen.writeFieldName(TARGET_ID);
+        gen.writeString(choice.getTargetId());
+        gen.writeFieldName(FLAG_TO_SET);
+        writeFlags(gen, choice.getFlagToSet());
+        gen.writeFieldName(CONDITION);
+        if (choice.getCondition() == null) {
+            gen.writeNull();
+        } else {
+            gen.writeStartObject();
+            for (Map.Entry<String, Object> entry : choice.getCondition().entrySet()) {
+                gen.writeFieldName(entry.getKey());
+                writeScalar(gen, entry.getValue());
+            }
+            gen.writeEndObject();
+        }
+        gen.writeEndObject();
+    }
+
+    private void writeCombatState(JsonGenerator gen, CombatService.CombatState combat) throws IOException {
+        if (combat == null) {
+            gen.writeNull();
+            return;
+        }
+        gen.writeStartObject();
+        gen.writeBooleanField("combatActive", combat.isCombatActive());
+        gen.writeBooleanField("playerTurn", combat.isPlayerTurn());
+        gen.writeBooleanField("playerDefending", combat.isPlayerDefending());
+        gen.writeNumberField("playerCurrentHealth", combat.getPlayerCurrentHealth());
+        gen.writeNumberField("playerMaxHealth", combat.getPlayerMaxHealth());
+        gen.writeNumberField("playerDamage", combat.getPlayerDamage());
+        gen.writeNumberField("enemyCurrentHealth", combat.getEnemyCurrentHealth());
+        gen.writeNumberField("enemyMaxHealth", combat.getEnemyMaxHealth());
+        gen.writeNumberField("enemyDamage", combat.getEnemyDamage());
+        gen.writeStringField("enemyId", combat.getEnemyId());
+        gen.writeStringField("enemyName", combat.getEnemyName());
+        gen.writeStringField("enemyDescription", combat.getEnemyDescription());
+        gen.writeFieldName("combatants");
+        writeCombatants(gen, combat.getCombatants());
+        gen.writeFieldName("combatLog");
+        writeStrings(gen, combat.getCombatLog(), combatLogLimit);
+        gen.writeEndObject();
+    }
+
+    private static void writeCombatants(JsonGenerator gen, List<CombatService.Combatant> combatants) throws IOException {
+        if (combatants == null) {
+            gen.writeNull();
+            return;
+        }
+        gen.writeStartArray();
+        for (CombatService.Combatant combatant : combatants) {
+            gen.writeStartObject();
+            gen.writeStringField("id", combatant.getId());
+            gen.writeStringField("name", combatant.getName());
+            gen.writeStringField("side", combatant.getSide());
+            gen.writeNumberField("currentHealth", combatant.getCurrentHealth());
+            gen.writeNumberField("maxHealth", combatant.getMaxHealth());
+            gen.writeNumberField("damage", combatant.getDamage());
+            gen.writeBooleanField("standing", combatant.isStanding());
+            gen.writeEndObject();
+        }
+        gen.writeEndArray();
+    }
+
+    private static void writeStrings(JsonGenerator gen, List<String> values, int limit) throws IOException {
+        if (values == null) {
+            gen.writeNull();
+            return;
+        }
+        gen.writeStartArray();
+        for (int i = Math.max(0, values.size() - limit); i < values.size(); i++) {
+            gen.writeString(values.get(i));
+        }
+        gen.writeEndArray();
+    }
+
+    private static void writeFlags(JsonGenerator gen, Map<String, Boolean> flags) throws IOException {
+        if (flags == null) {
+            gen.writeNull();
+            return;
+        }
+        gen.writeStartObject();
+        for (Map.Entry<String, Boolean> flag : flags.entrySet()) {
+            gen.writeFieldName(flag.getKey());
+            writeScalar(gen, flag.getValue());
+        }
+        gen.writeEndObject();
+    }
+
+    private static void writeScalar(JsonGenerator gen, Object value) throws IOException {
+        if (value == null) {
+            gen.writeNull();
+        } else if (value instanceof Boolean bool) {
+            gen.writeBoolean(bool);
+        } else if (value instanceof Integer || value instanceof Long) {
+            gen.writeNumber(((Number) value).longValue());
+        } else if (value instanceof Number number) {
+            gen.writeNumber(number.doubleValue());
+        } else if (value instanceof String text) {
+            gen.writeString(text);
+        } else {
+            gen.writeObject(value);
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package com.osu.textventures.utils;
+
+import com.google.api.core.ApiFuture;
+import com.google.api.core.ApiFutureCallback;
+import com.google.api.core.ApiFutures;
+import com.google.api.core.SettableApiFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Idempotent Firestore reads with per-collection latency tracking and optional hedging. When hedging is on and a
+ * read has not answered within the collection's recent latency percentile ({@code firestore.hedge.percentile}),
+ * the same read is sent again; whichever answer arrives first is used and the other read is cancelled. Hedges draw
+ * from a budget of {@code budget-percent} of all reads, so a slow backend sees at most that much extra load.
+ *
+ * <p>Only reads go through here; a write sent twice is not safe to race. The combined read is still awaited via
+ * {@link FirestoreGuard#await}, so its timeout and circuit breaker apply as usual.
+ */
+@Component
+public class HedgedReader {
+
+    private final FirestoreGuard guard;
+    private final Map<String, LatencyWindow> windows = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "hedged-reads");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Value("${firestore.hedge.enabled:false}")
+    private boolean enabled;
+
+    @Value("${firestore.hedge.percentile:0.95}")
+    private double percentile;
+
+    @Value("${firestore.hedge.min-delay-ms:5}")
+    private long minDelayMs;
+
+    @Value("${firestore.hedge.default-delay-ms:50}")
+    private long defaultDelayMs;
+
+    @Value("${firestore.hedge.budget-percent:5}")
+    private double budgetPercent;
+
+    @Value("${firestore.hedge.window:512}")
+    private int windowSize;
+
+    private double budgetTokens;
+
+    public HedgedReader(FirestoreGuard guard) {
+        this.guard = guard;
+    }
+
+    @PreDestroy
+    public void stop() {
+        scheduler.shutdownNow();
+    }
+
+    /** Issues the read (possibly twice) and waits for the first answer. {@code request} must start a new read. */
+    public <T> T read(String collection, Supplier<ApiFuture<T>> request) throws ExecutionException, InterruptedException {
+        LatencyWindow window = windows.computeIfAbsent(collection, name -> new LatencyWindow(windowSize));
+        SettableApiFuture<T> winner = SettableApiFuture.create();
+        AtomicInteger pending = new AtomicInteger(1);
+        Attempts attempts = new Attempts();
+        ApiFuture<T> primary = request.get();
+        attempts.add(primary);
+        forward(primary, winner, pending, window, System.nanoTime(), false);
+
+        ScheduledFuture<?> hedge = null;
+        if (enabled && !winner.isDone()) {
+            hedge = scheduler.schedule(() -> {
+                if (winner.isDone()) {
+                    return;
+                }
+                if (!takeBudget()) {
+                    window.budgetDenied.increment();
+                    return;
+                }
+                pending.incrementAndGet();
+                window.hedges.increment();
+                ApiFuture<T> hedged = request.get();
+                attempts.add(hedged);
+                forward(hedged, winner, pending, window, System.nanoTime(), true);
+            }, window.threshold(defaultDelayMs, minDelayMs), TimeUnit.MILLISECONDS);
+        }
+        addBudget();
+
+        try {
+            return guard.await(winner);
+        } finally {
+            if (hedge != null) {
+                hedge.cancel(false);
+            }
+            attempts.cancelRemaining();
+        }
+    }
+
+    // The reads issued for one call. Whatever is still running when the call returns lost the race or is no longer
+    // awaited; a hedge that starts after that point is cancelled as soon as it is added.
+    private static final class Attempts {
+        private final List<ApiFuture<?>> futures = new ArrayList<>(2);
+        private boolean closed;
+
+        synchronized void add(ApiFuture<?> attempt) {
+            if (closed) {
+                attempt.cancel(true);
+            } else {
+                futures.add(attempt);
+            }
+        }
+
+        synchronized void cancelRemaining() {
+            closed = true;
+            for (ApiFuture<?> attempt : futures) {
+                if (!attempt.isDone()) {
+                    attempt.cancel(true);
+                }
+            }
+        }
+    }
+
+    private <T> void forward(ApiFuture<T> attempt, SettableApiFuture<T> winner, AtomicInteger pending,
+                             LatencyWindow window, long startNanos, boolean hedged) {
+        ApiFutures.addCallback(attempt, new ApiFutureCallback<>() {
+            @Override
+            public void onSuccess(T result) {
+                window.record(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos), percentile);
+                if (winner.set(result) && hedged) {
+                    window.hedgeWins.increment();
+                }
+            }
+
+            @Override
+            public void onFailure(Throwable error) {
+                // Only fail once no other attempt can still answer.
+                if (pending.decrementAndGet() == 0) {
+                    winner.setException(error);
+                }
+            }
+        }, MoreExecutors.directExecutor());
+    }
+
+    private synchronized void addBudget() {
+        budgetTokens = Math.min(budgetTokens + budgetPercent / 100, Math.max(1, budgetPercent));
+    }
+
+    private synchronized boolean takeBudget() {
+        if (budgetTokens < 1) {
+            return false;
+        }
+        budgetTokens -= 1;
+        return true;
+    }
+
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("hedgingEnabled", enabled);
+        Map<String, Object> collections = new TreeMap<>();
+        windows.forEach((collection, window) -> collections.put(collection, window.describe(defaultDelayMs, minDelayMs)));
+        metrics.put("collections", collections);
+        return metrics;
+    }
+
+    /** Recent successful latencies of one collection and the percentile threshold derived from them. */
+    static final class LatencyWindow {
+
+        private static final int MIN_SAMPLES = 32;
+        private static final int RECOMPUTE_EVERY = 32;
+
+        private final long[] samples;
+        private int next;
+        private long count;
+        private volatile long threshold = -1;
+
+        final LongAdder reads = new LongAdder();
+        final LongAdder hedges = new LongAdder();
+        final LongAdder hedgeWins = new LongAdder();
+        final LongAdder budgetDenied = new LongAdder();
+
+        LatencyWindow(int size) {
+            samples = new long[Math.max(size, MIN_SAMPLES)];
+        }
+
+        synchronized void record(long millis, double percentile) {
+            samples[next] = millis;
+            next = (next + 1) % samples.length;
+            count++;
+            reads.increment();
+            if (count >= MIN_SAMPLES && count % RECOMPUTE_EVERY == 0) {
+                int size = (int) Math.min(count, samples.length);
+                long[] sorted = Arrays.copyOf(samples, size);
+                Arrays.sort(sorted);
+                threshold = sorted[Math.min(size - 1, (int) Math.ceil(percentile * size) - 1)];
+            }
+        }
+
+        long threshold(long defaultMillis, long minMillis) {
+            long current = threshold;
+            return Math.max(minMillis, current < 0 ? defaultMillis : current);
+        }
+
+        Map<String, Object> describe(long defaultMillis, long minMillis) {
+            Map<String, Object> description = new LinkedHashMap<>();
+            description.put("reads", reads.sum());
+            description.put("hedgeThresholdMs", threshold(defaultMillis, minMillis));
+            description.put("hedges", hedges.sum());
+            description.put("hedgeWins", hedgeWins.sum());
+            description.put("budgetDenied", budgetDenied.sum());
+            return description;
+        }
+    }
+}
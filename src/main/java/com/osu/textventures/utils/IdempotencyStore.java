@@ -0,0 +1,124 @@
+package com.osu.textventures.utils;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Recent results keyed by user and client-supplied idempotency key. Each user keeps at most
+ * {@code maxKeysPerUser} results, the store tracks at most {@code maxUsers} users and about {@code maxBytes} of
+ * results, and entries expire after {@code ttlMillis}; the least recently used entries go first when a bound is
+ * hit. Results are sized by the caller's estimate, since a response can be anything from a few hundred bytes to
+ * a long game history.
+ */
+@Component
+public class IdempotencyStore {
+
+    private record Entry(String fingerprint, Object result, long bytes, long expiresAt) {
+    }
+
+    @Value("${game.idempotency.ttl-ms:600000}")
+    private long ttlMillis;
+
+    @Value("${game.idempotency.max-keys-per-user:32}")
+    private int maxKeysPerUser;
+
+    @Value("${game.idempotency.max-users:50000}")
+    private int maxUsers;
+
+    @Value("${game.idempotency.max-bytes:67108864}")
+    private long maxBytes;
+
+    private long totalBytes;
+
+    private final LinkedHashMap<String, LinkedHashMap<String, Entry>> entriesByUser = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, LinkedHashMap<String, Entry>> eldest) {
+            if (size() <= maxUsers) {
+                return false;
+            }
+            totalBytes -= bytesOf(eldest.getValue());
+            return true;
+        }
+    };
+
+    private static long bytesOf(Map<String, Entry> entries) {
+        long bytes = 0;
+        for (Entry entry : entries.values()) {
+            bytes += entry.bytes();
+        }
+        return bytes;
+    }
+
+    /**
+     * Returns the stored result for this key, or null if there is none. Throws if the key was used
+     * for a different request, since replaying that result would be wrong.
+     */
+    public synchronized <T> T find(String userId, String key, String fingerprint, Class<T> type) {
+        LinkedHashMap<String, Entry> entries = entriesByUser.get(userId);
+        if (entries == null) {
+            return null;
+        }
+
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAt() < System.currentTimeMillis()) {
+            entries.remove(key);
+            totalBytes -= entry.bytes();
+            return null;
+        }
+        if (!entry.fingerprint().equals(fingerprint)) {
+            throw new IllegalArgumentException("Idempotency-Key was already used for a different request.");
+        }
+        return type.cast(entry.result());
+    }
+
+    /** Stores the result with its estimated size; a result larger than the whole store is not kept. */
+    public synchronized void put(String userId, String key, String fingerprint, Object result, long bytes) {
+        if (bytes > maxBytes) {
+            return;
+        }
+        LinkedHashMap<String, Entry> entries = entriesByUser.computeIfAbsent(userId, id -> new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() <= maxKeysPerUser && eldest.getValue().expiresAt() >= System.currentTimeMillis()) {
+                    return false;
+                }
+                totalBytes -= eldest.getValue().bytes();
+                return true;
+            }
+        });
+        Entry previous = entries.put(key, new Entry(fingerprint, result, bytes, System.currentTimeMillis() + ttlMillis));
+        totalBytes += bytes - (previous != null ? previous.bytes() : 0);
+        evictOverBudget(userId, key);
+    }
+
+    // Drops whole users, least recently used first, then the caller's own older results if they alone are too big.
+    private void evictOverBudget(String userId, String key) {
+        Iterator<Map.Entry<String, LinkedHashMap<String, Entry>>> users = entriesByUser.entrySet().iterator();
+        while (totalBytes > maxBytes && users.hasNext()) {
+            Map.Entry<String, LinkedHashMap<String, Entry>> user = users.next();
+            if (!user.getKey().equals(userId)) {
+                totalBytes -= bytesOf(user.getValue());
+                users.remove();
+            }
+        }
+        Iterator<Map.Entry<String, Entry>> own = entriesByUser.get(userId).entrySet().iterator();
+        while (totalBytes > maxBytes && own.hasNext()) {
+            Map.Entry<String, Entry> entry = own.next();
+            if (!entry.getKey().equals(key)) {
+                totalBytes -= entry.getValue().bytes();
+                own.remove();
+            }
+        }
+    }
+
+    synchronized long totalBytes() {
+        return totalBytes;
+    }
+}
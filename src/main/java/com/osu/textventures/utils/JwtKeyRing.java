@@ -0,0 +1,230 @@
+package com.osu.textventures.utils;
+
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.LocatorAdapter;
+import io.jsonwebtoken.UnsupportedJwtException;
+import io.jsonwebtoken.security.Jwks;
+import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.SecretKey;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyFactory;
+import java.security.PublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+/**
+ * Parsed signing and verification keys, swapped as one snapshot so requests never re-derive key objects.
+ *
+ * <p>Without {@code jwt.keys.dir} the ring holds the {@code jwt.secret} HMAC key, as before. With it, every
+ * {@code <kid>.pub.pem} (X.509, EC P-256 or Ed25519) in the directory verifies tokens carrying that {@code kid},
+ * and every {@code <kid>.key.pem} (PKCS#8) can sign. Nodes given only public keys verify but cannot issue tokens.
+ * The signing key is {@code jwt.keys.active-kid}, or the greatest kid with a private key, so date-like kids rotate
+ * by adding files. Rotation: copy the new public key to every node first, then the private key to signing nodes,
+ * and remove the old public key once tokens signed with it have expired. Kid-less HMAC tokens stay valid only while
+ * {@code jwt.keys.accept-hmac} is on, which it is not by default once a key directory is set. Accepting HMAC
+ * tokens signed with the built-in default secret alongside a key directory is refused at startup, since that
+ * secret is public.
+ */
+@Component
+public class JwtKeyRing {
+
+    private static final Logger logger = LoggerFactory.getLogger(JwtKeyRing.class);
+
+    static final String PRIVATE_KEY_SUFFIX = ".key.pem";
+    static final String PUBLIC_KEY_SUFFIX = ".pub.pem";
+
+    static final String DEFAULT_SECRET = "textventures-super-secret-key-change-in-production-minimum-256-bits";
+
+    @Value("${jwt.secret:" + DEFAULT_SECRET + "}")
+    private String secret;
+
+    @Value("${jwt.keys.dir:}")
+    private String keysDir;
+
+    @Value("${jwt.keys.active-kid:}")
+    private String activeKid;
+
+    // Empty: accept HMAC tokens only when there is no key directory.
+    @Value("${jwt.keys.accept-hmac:}")
+    private String acceptHmac;
+
+    @Value("${jwt.keys.reload-interval-ms:60000}")
+    private long reloadIntervalMs;
+
+    record KeySet(String signingKid, Key signingKey, Map<String, Key> verificationKeys, SecretKey hmacKey,
+                  List<Map<String, Object>> jwks) {
+    }
+
+    private record ParsedFile(FileTime modified, Key key) {
+    }
+
+    private final AtomicReference<KeySet> keys = new AtomicReference<>();
+    private final Map<Path, ParsedFile> parsedFiles = new HashMap<>();
+    private ScheduledExecutorService executor;
+
+    @PostConstruct
+    public void init() throws IOException {
+        if (DEFAULT_SECRET.equals(secret)) {
+            if (!keysDir.isBlank() && acceptsHmac()) {
+                throw new IllegalStateException("jwt.keys.accept-hmac is on with the default jwt.secret; "
+                        + "set a private jwt.secret or turn HMAC acceptance off");
+            }
+            if (keysDir.isBlank()) {
+                logger.warn("Tokens are signed with the built-in default jwt.secret, which is public; "
+                        + "set jwt.secret or jwt.keys.dir outside development");
+            }
+        }
+        reload();
+        if (!keysDir.isBlank() && reloadIntervalMs > 0) {
+            executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "jwt-key-reloader");
+                thread.setDaemon(true);
+                return thread;
+            });
+            executor.scheduleWithFixedDelay(this::reloadQuietly, reloadIntervalMs, reloadIntervalMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    boolean acceptsHmac() {
+        return acceptHmac.isBlank() ? keysDir.isBlank() : Boolean.parseBoolean(acceptHmac.trim());
+    }
+
+    KeySet current() {
+        return keys.get();
+    }
+
+    /** Public keys in JWK form, for other services that verify our tokens. */
+    public List<Map<String, Object>> jwks() {
+        return keys.get().jwks();
+    }
+
+    LocatorAdapter<Key> locator() {
+        return new LocatorAdapter<>() {
+            @Override
+            protected Key locate(JwsHeader header) {
+                KeySet current = keys.get();
+                String kid = header.getKeyId();
+                if (kid == null) {
+                    if (current.hmacKey() == null) {
+                        throw new UnsupportedJwtException("Token has no key id");
+                    }
+                    return current.hmacKey();
+                }
+                Key key = current.verificationKeys().get(kid);
+                if (key == null) {
+                    throw new UnsupportedJwtException("Unknown signing key " + kid);
+                }
+                return key;
+            }
+        };
+    }
+
+    private void reloadQuietly() {
+        try {
+            reload();
+        } catch (Exception e) {
+            logger.error("Failed to reload JWT keys, keeping previous key set: {}", e.getMessage());
+        }
+    }
+
+    synchronized void reload() throws IOException {
+        SecretKey hmacKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        if (keysDir.isBlank()) {
+            keys.set(new KeySet(null, hmacKey, Map.of(), hmacKey, List.of()));
+            return;
+        }
+
+        Map<String, Key> privateKeys = new TreeMap<>();
+        Map<String, Key> publicKeys = new TreeMap<>();
+        Set<Path> seen = new HashSet<>();
+        try (Stream<Path> files = Files.list(Path.of(keysDir))) {
+            for (Path file : files.filter(Files::isRegularFile).toList()) {
+                String name = file.getFileName().toString();
+                if (name.endsWith(PRIVATE_KEY_SUFFIX)) {
+                    privateKeys.put(name.substring(0, name.length() - PRIVATE_KEY_SUFFIX.length()), parsed(file, true));
+                } else if (name.endsWith(PUBLIC_KEY_SUFFIX)) {
+                    publicKeys.put(name.substring(0, name.length() - PUBLIC_KEY_SUFFIX.length()), parsed(file, false));
+                } else {
+                    continue;
+                }
+                seen.add(file);
+            }
+        }
+        parsedFiles.keySet().retainAll(seen);
+
+        String signingKid = activeKid.isBlank()
+                ? privateKeys.keySet().stream().reduce((first, second) -> second).orElse(null)
+                : (privateKeys.containsKey(activeKid) ? activeKid : null);
+        if (signingKid != null && !publicKeys.containsKey(signingKid)) {
+            throw new IllegalStateException("Signing key " + signingKid + " has no " + PUBLIC_KEY_SUFFIX + " file");
+        }
+
+        List<Map<String, Object>> jwks = new ArrayList<>();
+        for (Map.Entry<String, Key> entry : publicKeys.entrySet()) {
+            jwks.add(new LinkedHashMap<>(Jwks.builder().key((PublicKey) entry.getValue())
+                    .id(entry.getKey()).publicKeyUse("sig").build()));
+        }
+
+        KeySet next = new KeySet(signingKid, signingKid != null ? privateKeys.get(signingKid) : null,
+                Map.copyOf(publicKeys), acceptsHmac() ? hmacKey : null, List.copyOf(jwks));
+        KeySet previous = keys.getAndSet(next);
+        if (previous == null || !Objects.equals(previous.signingKid(), signingKid)
+                || !previous.verificationKeys().keySet().equals(next.verificationKeys().keySet())) {
+            logger.info("JWT key ring loaded: signing with {}, verifying {}", signingKid != null ? signingKid : "nothing (verify-only node)",
+                    publicKeys.keySet());
+        }
+    }
+
+    private Key parsed(Path file, boolean privateKey) throws IOException {
+        FileTime modified = Files.getLastModifiedTime(file);
+        ParsedFile cached = parsedFiles.get(file);
+        if (cached != null && cached.modified().equals(modified)) {
+            return cached.key();
+        }
+        Key key = readPem(Files.readString(file), privateKey);
+        parsedFiles.put(file, new ParsedFile(modified, key));
+        return key;
+    }
+
+    static Key readPem(String pem, boolean privateKey) {
+        byte[] der = Base64.getDecoder().decode(pem.replaceAll("-----[A-Z ]+-----", "").replaceAll("\\s", ""));
+        for (String algorithm : List.of("EC", "Ed25519")) {
+            try {
+                KeyFactory factory = KeyFactory.getInstance(algorithm);
+                return privateKey
+                        ? factory.generatePrivate(new PKCS8EncodedKeySpec(der))
+                        : factory.generatePublic(new X509EncodedKeySpec(der));
+            } catch (GeneralSecurityException e) {
+                // Not this algorithm; try the next one.
+            }
+        }
+        throw new IllegalStateException("Unsupported " + (privateKey ? "private" : "public")
+                + " key; expected EC P-256 or Ed25519");
+    }
+}
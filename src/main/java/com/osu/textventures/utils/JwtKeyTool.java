@@ -0,0 +1,53 @@
+package com.osu.textventures.utils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.spec.ECGenParameterSpec;
+import java.util.Base64;
+
+/**
+ * Generates a key pair for {@link JwtKeyRing}:
+ * {@code mvn -q exec:java -Dexec.mainClass=com.osu.textventures.utils.JwtKeyTool -Dexec.args="keys 2026-10 ES256"}
+ */
+public final class JwtKeyTool {
+
+    private JwtKeyTool() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2 || args.length > 3) {
+            System.err.println("Usage: JwtKeyTool <key directory> <kid> [ES256|EdDSA]");
+            System.exit(2);
+        }
+
+        String algorithm = args.length == 3 ? args[2] : "ES256";
+        KeyPairGenerator generator;
+        if ("ES256".equalsIgnoreCase(algorithm)) {
+            generator = KeyPairGenerator.getInstance("EC");
+            generator.initialize(new ECGenParameterSpec("secp256r1"));
+        } else if ("EdDSA".equalsIgnoreCase(algorithm)) {
+            generator = KeyPairGenerator.getInstance("Ed25519");
+        } else {
+            System.err.println("Unsupported algorithm " + algorithm);
+            System.exit(2);
+            return;
+        }
+
+        KeyPair pair = generator.generateKeyPair();
+        Path directory = Files.createDirectories(Path.of(args[0]));
+        Path publicKey = directory.resolve(args[1] + JwtKeyRing.PUBLIC_KEY_SUFFIX);
+        Path privateKey = directory.resolve(args[1] + JwtKeyRing.PRIVATE_KEY_SUFFIX);
+        Files.writeString(publicKey, pem("PUBLIC KEY", pair.getPublic().getEncoded()));
+        Files.writeString(privateKey, pem("PRIVATE KEY", pair.getPrivate().getEncoded()));
+
+        System.out.println("Wrote " + publicKey + " and " + privateKey);
+        System.out.println("Distribute the public key to every node before the private key reaches a signing node.");
+    }
+
+    private static String pem(String type, byte[] der) {
+        String body = Base64.getMimeEncoder(64, "\n".getBytes()).encodeToString(der);
+        return "-----BEGIN " + type + "-----\n" + body + "\n-----END " + type + "-----\n";
+    }
+}
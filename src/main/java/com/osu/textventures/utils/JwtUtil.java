@@ -1,30 +1,46 @@
 package com.osu.textventures.utils;
 
+import com.osu.textventures.models.PlayerSummary;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
-import javax.crypto.SecretKey;
-import java.nio.charset.StandardCharsets;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Objects;
 import java.util.function.Function;
 
 @Component
 public class JwtUtil {
 
-    @Value("${jwt.secret:textventures-super-secret-key-change-in-production-minimum-256-bits}")
-    private String secret;
-
     @Value("${jwt.expiration:86400000}") // 24 hours default
     private Long expiration;
 
-    private SecretKey getSigningKey() {
-        byte[] keyBytes = secret.getBytes(StandardCharsets.UTF_8);
-        return Keys.hmacShaKeyFor(keyBytes);
+    // Refreshed tokens never outlive this much time after the login that started the chain.
+    @Value("${jwt.max-lifetime:${jwt.expiration:86400000}}")
+    private Long maxLifetime;
+
+    // Summaries older than this are ignored, so a token from another tab cannot hide a newer game for long.
+    @Value("${jwt.summary-max-age:300000}")
+    private Long summaryMaxAge;
+
+    private static final String SUMMARY_CLAIM = "player";
+    public static final String ROLE_CLAIM = "role";
+    // Milliseconds since the epoch of the login the token descends from; refreshes carry it over unchanged.
+    public static final String AUTH_TIME_CLAIM = "auth_time";
+    public static final String ADMIN_ROLE = "admin";
+
+    private final JwtKeyRing keyRing;
+    // Immutable and thread-safe; keys are resolved per token by kid from the ring's current snapshot.
+    private final JwtParser parser;
+
+    public JwtUtil(JwtKeyRing keyRing) {
+        this.keyRing = keyRing;
+        this.parser = Jwts.parser().keyLocator(keyRing.locator()).build();
     }
 
     public String extractUserId(String token) {
@@ -45,30 +61,110 @@ public class JwtUtil {
     }
 
     private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        return parser.parseSignedClaims(token).getPayload();
     }
 
     private Boolean isTokenExpired(String token) {
         return extractExpiration(token).before(new Date());
     }
 
-    public String generateToken(String userId, String username) {
+    public String generateToken(String userId, String username, String role) {
+        return generateToken(userId, username, role, null);
+    }
+
+    /** {@code role} is the granted role ({@value #ADMIN_ROLE} unlocks the admin API); null means a plain player. */
+    public String generateToken(String userId, String username, String role, PlayerSummary summary) {
+        return refreshToken(userId, username, role, summary, System.currentTimeMillis());
+    }
+
+    /**
+     * A token for a session that logged in at {@code authTime}. It expires {@code jwt.expiration} from now, but
+     * no later than {@code jwt.max-lifetime} after the login, so refreshing a token cannot keep it alive forever.
+     */
+    public String refreshToken(String userId, String username, String role, PlayerSummary summary, long authTime) {
         Map<String, Object> claims = new HashMap<>();
         claims.put("username", username);
-        return createToken(claims, userId);
+        if (role != null) {
+            claims.put(ROLE_CLAIM, role);
+        }
+        if (summary != null) {
+            Map<String, Object> player = new HashMap<>();
+            player.put("exists", summary.characterExists());
+            player.put("location", summary.locationId());
+            player.put("version", summary.version());
+            player.put("at", summary.issuedAt());
+            claims.put(SUMMARY_CLAIM, player);
+        }
+        claims.put(AUTH_TIME_CLAIM, authTime);
+        return createToken(claims, userId, authTime);
+    }
+
+    /** When the session behind the token logged in; tokens issued before the claim existed count from their iat. */
+    public long extractAuthTime(Claims claims) {
+        return claims.get(AUTH_TIME_CLAIM) instanceof Number authTime ? authTime.longValue()
+                : claims.getIssuedAt().getTime();
+    }
+
+    /** The summary embedded in the token, or null if there is none or it is too old to trust. */
+    public PlayerSummary extractPlayerSummary(Claims claims) {
+        Object raw = claims.get(SUMMARY_CLAIM);
+        if (!(raw instanceof Map<?, ?> player)) {
+            return null;
+        }
+        PlayerSummary summary = new PlayerSummary(
+                Boolean.TRUE.equals(player.get("exists")),
+                (String) player.get("location"),
+                player.get("version") instanceof Number version ? version.longValue() : 0,
+                player.get("at") instanceof Number at ? at.longValue() : 0);
+        return summary.isFresh(summaryMaxAge) ? summary : null;
+    }
+
+    /**
+     * Whether a client holding {@code current} should be handed a token carrying {@code next}.
+     *
+     * <p>Invalidation rules for summaries: a summary is replaced whenever a response shows a different existence,
+     * location or version, and once it is older than half of {@code jwt.summary-max-age} so active players never
+     * fall off the cheap path. A summary older than the max age is ignored entirely, which bounds how long a token
+     * kept by another tab or device can report an outdated game. Summaries are hints: state-changing requests
+     * always read the stored player, and the stored version wins over any summary.
+     */
+    public boolean needsRefresh(PlayerSummary current, PlayerSummary next) {
+        if (current == null) {
+            return true;
+        }
+        return current.characterExists() != next.characterExists()
+                || !Objects.equals(current.locationId(), next.locationId())
+                || current.version() != next.version()
+                || !current.isFresh(summaryMaxAge / 2);
     }
 
-    private String createToken(Map<String, Object> claims, String subject) {
-        return Jwts.builder()
+    /** Claims of a correctly signed, unexpired token, or null. */
+    public Claims validClaims(String token) {
+        try {
+            Claims claims = extractAllClaims(token);
+            return claims.getExpiration().before(new Date()) ? null : claims;
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private String createToken(Map<String, Object> claims, String subject, long authTime) {
+        JwtKeyRing.KeySet keys = keyRing.current();
+        if (keys.signingKey() == null) {
+            throw new IllegalStateException("This node has no JWT signing key.");
+        }
+
+        long now = System.currentTimeMillis();
+        JwtBuilder builder = Jwts.builder();
+        if (keys.signingKid() != null) {
+            builder.header().keyId(keys.signingKid()).and();
+        }
+        return builder
                 .claims(claims)
                 .subject(subject)
-                .issuedAt(new Date(System.currentTimeMillis()))
-                .expiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSigningKey())
+                .issuedAt(new Date(now))
+                .expiration(new Date(Math.min(now + expiration, authTime + maxLifetime)))
+                .signWith(keys.signingKey())
                 .compact();
     }
 
@@ -78,10 +174,6 @@ public class JwtUtil {
     }
 
     public Boolean validateToken(String token) {
-        try {
-            return !isTokenExpired(token);
-        } catch (Exception e) {
-            return false;
-        }
+        return validClaims(token) != null;
     }
 }
@@ -0,0 +1,293 @@
+package com.osu.textventures.utils;
+
+import com.osu.textventures.models.PlayerCharacter;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact binary form of a {@link PlayerCharacter}.
+ *
+ * <p>Layout: a format version, then tagged sections ({@code tag, length, payload}). Integers are varints
+ * (zig-zag for signed values) and every string is stored once in a leading string table and referenced by
+ * index, with 0 meaning null. Flags are a list of names followed by a bitset of their values.
+ *
+ * <p>Evolution rules: readers skip sections with unknown tags, and fields are only ever appended to the end of
+ * a section, so a reader stops at the section boundary and leaves missing fields at their defaults. A change
+ * that cannot follow these rules gets a new section tag. The inventory is one: it used to be a list of full item
+ * copies ({@code TAG_INVENTORY}, still read and stacked by id) and is now written as item id and quantity pairs.
+ * Readers from before that change only know {@code TAG_INVENTORY}, so it is still written alongside, one entry
+ * per unit with just the item id, until no such reader is left; readers that find both use the pairs. Raising
+ * {@link #FORMAT_VERSION} is reserved for changes these rules cannot cover, so a reader refuses data written
+ * with a newer version instead of misreading it.
+ */
+public final class PlayerCodec {
+
+    public static final int FORMAT_VERSION = 1;
+
+    private static final int TAG_STRINGS = 1;
+    private static final int TAG_CORE = 2;
+    private static final int TAG_INVENTORY = 3;
+    private static final int TAG_HISTORY = 4;
+    private static final int TAG_FLAGS = 5;
+    private static final int TAG_ITEM_COUNTS = 6;
+
+    private PlayerCodec() {
+    }
+
+    public static byte[] encode(PlayerCharacter player) {
+        StringTable strings = new StringTable();
+
+        Output core = new Output();
+        core.writeVarint(strings.ref(player.getId()));
+        core.writeVarint(strings.ref(player.getName()));
+        core.writeVarint(strings.ref(player.getCurrentLocationId()));
+        core.writeSigned(player.getLevel());
+        core.writeSigned(player.getExperience());
+        core.writeSigned(player.getBaseDamage());
+        core.writeSigned(player.getBaseHealth());
+        core.writeSigned(player.getCurrentHealth());
+        core.writeVarlong(player.getVersion());
+
+        Output inventory = new Output();
+        Map<String, Integer> items = player.getInventory() != null ? player.getInventory() : Map.of();
+        inventory.writeVarint(items.size());
+        for (Map.Entry<String, Integer> stack : items.entrySet()) {
+            inventory.writeVarint(strings.ref(stack.getKey()));
+            inventory.writeVarint(stack.getValue());
+        }
+
+        Output legacyInventory = new Output();
+        legacyInventory.writeVarint(items.values().stream().mapToInt(Integer::intValue).sum());
+        for (Map.Entry<String, Integer> stack : items.entrySet()) {
+            for (int unit = 0; unit < stack.getValue(); unit++) {
+                legacyInventory.writeVarint(strings.ref(stack.getKey()));
+                // Name, type, power and gold value: older readers take them from here, newer from the catalogue.
+                legacyInventory.writeVarint(0);
+                legacyInventory.writeVarint(0);
+                legacyInventory.writeSigned(0);
+                legacyInventory.writeSigned(0);
+            }
+        }
+
+        Output history = new Output();
+        List<String> entries = player.getGameHistory() != null ? player.getGameHistory() : List.of();
+        history.writeVarint(entries.size());
+        for (String entry : entries) {
+            history.writeVarint(strings.ref(entry));
+        }
+
+        Output flags = new Output();
+        Map<String, Boolean> flagValues = player.getFlags() != null ? player.getFlags() : Map.of();
+        flags.writeVarint(flagValues.size());
+        byte[] bits = new byte[(flagValues.size() + 7) / 8];
+        int index = 0;
+        for (Map.Entry<String, Boolean> flag : flagValues.entrySet()) {
+            flags.writeVarint(strings.ref(flag.getKey()));
+            if (Boolean.TRUE.equals(flag.getValue())) {
+                bits[index / 8] |= (byte) (1 << (index % 8));
+            }
+            index++;
+        }
+        flags.writeBytes(bits);
+
+        Output table = new Output();
+        table.writeVarint(strings.values.size());
+        for (String value : strings.values) {
+            byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+            table.writeVarint(utf8.length);
+            table.writeBytes(utf8);
+        }
+
+        Output out = new Output();
+        out.writeVarint(FORMAT_VERSION);
+        out.writeSection(TAG_STRINGS, table);
+        out.writeSection(TAG_CORE, core);
+        out.writeSection(TAG_ITEM_COUNTS, inventory);
+        out.writeSection(TAG_INVENTORY, legacyInventory);
+        out.writeSection(TAG_HISTORY, history);
+        out.writeSection(TAG_FLAGS, flags);
+        return out.toByteArray();
+    }
+
+    public static PlayerCharacter decode(byte[] data) {
+        Input in = new Input(data);
+        int formatVersion = in.readVarint();
+        if (formatVersion < 1 || formatVersion > FORMAT_VERSION) {
+            throw new IllegalArgumentException("Unsupported player encoding version " + formatVersion);
+        }
+
+        PlayerCharacter player = new PlayerCharacter();
+        player.setInventory(new LinkedHashMap<>());
+        player.setGameHistory(new ArrayList<>());
+        player.setFlags(new HashMap<>());
+        List<String> strings = new ArrayList<>();
+        strings.add(null);
+        Map<String, Integer> legacyInventory = new LinkedHashMap<>();
+        boolean itemCounts = false;
+
+        while (in.hasMore()) {
+            int tag = in.readVarint();
+            int length = in.readVarint();
+            int end = in.position + length;
+
+            switch (tag) {
+                case TAG_STRINGS -> {
+                    int count = in.readVarint();
+                    for (int i = 0; i < count; i++) {
+                        int size = in.readVarint();
+                        strings.add(new String(data, in.position, size, StandardCharsets.UTF_8));
+                        in.position += size;
+                    }
+                }
+                case TAG_CORE -> {
+                    player.setId(strings.get(in.readVarint()));
+                    player.setName(strings.get(in.readVarint()));
+                    player.setCurrentLocationId(strings.get(in.readVarint()));
+                    player.setLevel(in.readSigned());
+                    player.setExperience(in.readSigned());
+                    player.setBaseDamage(in.readSigned());
+                    player.setBaseHealth(in.readSigned());
+                    player.setCurrentHealth(in.readSigned());
+                    if (in.position < end) {
+                        player.setVersion(in.readVarlong());
+                    }
+                }
+                case TAG_INVENTORY -> {
+                    int count = in.readVarint();
+                    for (int i = 0; i < count; i++) {
+                        String itemId = strings.get(in.readVarint());
+                        // Name, type, power and gold value now come from the item catalogue.
+                        in.readVarint();
+                        in.readVarint();
+                        in.readSigned();
+                        in.readSigned();
+                        if (itemId != null) {
+                            legacyInventory.merge(itemId, 1, Integer::sum);
+                        }
+                    }
+                }
+                case TAG_ITEM_COUNTS -> {
+                    itemCounts = true;
+                    int count = in.readVarint();
+                    for (int i = 0; i < count; i++) {
+                        player.getInventory().put(strings.get(in.readVarint()), in.readVarint());
+                    }
+                }
+                case TAG_HISTORY -> {
+                    int count = in.readVarint();
+                    for (int i = 0; i < count; i++) {
+                        player.getGameHistory().add(strings.get(in.readVarint()));
+                    }
+                }
+                case TAG_FLAGS -> {
+                    int count = in.readVarint();
+                    List<String> names = new ArrayList<>(count);
+                    for (int i = 0; i < count; i++) {
+                        names.add(strings.get(in.readVarint()));
+                    }
+                    for (int i = 0; i < count; i++) {
+                        boolean value = (data[in.position + i / 8] & (1 << (i % 8))) != 0;
+                        player.getFlags().put(names.get(i), value);
+                    }
+                }
+                default -> {
+                    // Section written by a newer version; skip it.
+                }
+            }
+            in.position = end;
+        }
+
+        if (!itemCounts) {
+            player.setInventory(legacyInventory);
+        }
+        return player;
+    }
+
+    private static final class StringTable {
+        private final Map<String, Integer> refs = new HashMap<>();
+        private final List<String> values = new ArrayList<>();
+
+        int ref(String value) {
+            if (value == null) {
+                return 0;
+            }
+            return refs.computeIfAbsent(value, v -> {
+                values.add(v);
+                return values.size();
+            });
+        }
+    }
+
+    private static final class Output extends ByteArrayOutputStream {
+
+        Output() {
+            super(64);
+        }
+
+        void writeVarint(int value) {
+            writeVarlong(value & 0xFFFFFFFFL);
+        }
+
+        void writeVarlong(long value) {
+            while ((value & ~0x7FL) != 0) {
+                write((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            write((int) value);
+        }
+
+        void writeSigned(int value) {
+            writeVarint((value << 1) ^ (value >> 31));
+        }
+
+        void writeSection(int tag, Output section) {
+            writeVarint(tag);
+            writeVarint(section.size());
+            write(section.buf, 0, section.size());
+        }
+    }
+
+    private static final class Input {
+        private final byte[] data;
+        private int position;
+
+        Input(byte[] data) {
+            this.data = data;
+        }
+
+        boolean hasMore() {
+            return position < data.length;
+        }
+
+        int readVarint() {
+            return (int) readVarlong();
+        }
+
+        long readVarlong() {
+            long result = 0;
+            int shift = 0;
+            while (true) {
+                byte current = data[position++];
+                result |= (long) (current & 0x7F) << shift;
+                if ((current & 0x80) == 0) {
+                    return result;
+                }
+                shift += 7;
+                if (shift > 63) {
+                    throw new IllegalArgumentException("Malformed varint in player encoding");
+                }
+            }
+        }
+
+        int readSigned() {
+            int raw = readVarint();
+            return (raw >>> 1) ^ -(raw & 1);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.osu.textventures.utils;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Collapses identical concurrent calls into one execution. The first caller for a key runs the work on its
+ * own thread; callers that arrive while it is running wait for and share the same result.
+ */
+@Component
+public class RequestCoalescer {
+
+    @FunctionalInterface
+    public interface Work<T> {
+        T run() throws Exception;
+    }
+
+    private final Map<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String key, Work<T> work) throws Exception {
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(key, mine);
+
+        if (existing != null) {
+            try {
+                return (T) existing.get();
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof Exception cause) {
+                    throw cause;
+                }
+                throw e;
+            }
+        }
+
+        try {
+            T result = work.run();
+            mine.complete(result);
+            return result;
+        } catch (Exception e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+            if (!mine.isDone()) {
+                mine.completeExceptionally(new IllegalStateException("Coalesced request failed"));
+            }
+        }
+    }
+}
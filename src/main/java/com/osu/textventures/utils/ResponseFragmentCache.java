@@ -0,0 +1,72 @@
+package com.osu.textventures.utils;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import com.osu.textventures.models.Choice;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Pre-serialized JSON for the static parts of a game response: choices and location descriptions. Choices are keyed
+ * by the world version and location they come from plus their id, so a new content version never serves old text;
+ * descriptions are keyed by value. Once full, the least recently used fragments are dropped first.
+ */
+@Component
+public class ResponseFragmentCache {
+
+    private final Map<String, String> choices = lruMap();
+    private final Map<String, String> texts = lruMap();
+
+    @Value("${game.response.fragment-cache-size:10000}")
+    private int maxEntries;
+
+    private Map<String, String> lruMap() {
+        return Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+                return size() > maxEntries;
+            }
+        });
+    }
+
+    /** {@code contentKey} names the world version and location the choice was read from (see GameState). */
+    public String choice(String contentKey, Choice choice, FragmentWriter<Choice> writer) throws IOException {
+        String key = contentKey + '/' + choice.getId();
+        String cached = choices.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        StringWriter json = new StringWriter(128);
+        try (JsonGenerator generator = GameStateSerializer.FACTORY.createGenerator(json)) {
+            writer.write(generator, choice);
+        }
+        String fragment = json.toString();
+        choices.put(key, fragment);
+        return fragment;
+    }
+
+    /**
+     * The text as a quoted, escaped JSON string. Only for content text such as location descriptions: narration
+     * produced by a turn is rarely repeated and would only push the reusable entries out.
+     */
+    public String text(String text) {
+        String cached = texts.get(text);
+        if (cached != null) {
+            return cached;
+        }
+        String fragment = '"' + new String(JsonStringEncoder.getInstance().quoteAsString(text)) + '"';
+        texts.put(text, fragment);
+        return fragment;
+    }
+
+    @FunctionalInterface
+    public interface FragmentWriter<T> {
+        void write(JsonGenerator generator, T value) throws IOException;
+    }
+}
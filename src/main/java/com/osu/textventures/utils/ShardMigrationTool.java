@@ -0,0 +1,133 @@
+package com.osu.textventures.utils;
+
+import com.google.api.core.ApiFuture;
+import com.google.api.gax.rpc.StatusCode;
+import com.google.auth.oauth2.GoogleCredentials;
+import com.google.cloud.firestore.*;
+import com.google.firebase.FirebaseApp;
+import com.google.firebase.FirebaseOptions;
+import com.google.firebase.cloud.FirestoreClient;
+import com.osu.textventures.services.UserService;
+
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Moves player and user documents, with all their subcollections (events, slots, checkpoints), from one shard
+ * count to another and backfills the username index:
+ * {@code mvn -q exec:java -Dexec.mainClass=com.osu.textventures.utils.ShardMigrationTool
+ * -Dexec.args="service-account.json <from-shards> <to-shards>"}
+ *
+ * <p>Procedure: stop the game servers (or drain writes), run the tool, then start them with
+ * {@code game.shards.count=<to-shards>}. Each document is copied before its source is deleted, so an interrupted
+ * run can simply be repeated. Running it with equal counts only backfills the index; until it has, deployments
+ * with users from before the index need {@code game.shards.legacy-username-lookup=true}.
+ */
+public final class ShardMigrationTool {
+
+    private ShardMigrationTool() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length != 3) {
+            System.err.println("Usage: ShardMigrationTool <service account json> <from shards> <to shards>");
+            System.exit(2);
+        }
+        int from = Integer.parseInt(args[1]);
+        int to = Integer.parseInt(args[2]);
+        if (from < 1 || to < 1) {
+            System.err.println("Shard counts must be at least 1");
+            System.exit(2);
+        }
+
+        try (InputStream serviceAccount = new FileInputStream(args[0])) {
+            FirebaseApp.initializeApp(FirebaseOptions.builder()
+                    .setCredentials(GoogleCredentials.fromStream(serviceAccount))
+                    .build());
+        }
+        Firestore db = FirestoreClient.getFirestore();
+
+        for (String base : List.of(ShardRouter.PLAYERS, ShardRouter.USERS)) {
+            int moved = 0;
+            for (int shard = 0; shard < from; shard++) {
+                CollectionReference source = db.collection(ShardRouter.collectionName(base, shard));
+                for (DocumentReference document : source.listDocuments()) {
+                    int target = ShardRouter.shardOf(document.getId(), to);
+                    if (target != shard) {
+                        move(db, document, db.collection(ShardRouter.collectionName(base, target)).document(document.getId()));
+                        moved++;
+                    }
+                }
+            }
+            System.out.println("Moved " + moved + " document(s) of " + base + " from " + from + " to " + to + " shard(s)");
+        }
+
+        int indexed = 0;
+        int conflicts = 0;
+        for (int shard = 0; shard < to; shard++) {
+            for (QueryDocumentSnapshot user : db.collection(ShardRouter.collectionName(ShardRouter.USERS, shard)).get().get()) {
+                String username = user.getString("username");
+                if (username == null) {
+                    continue;
+                }
+                DocumentReference entry = db.collection(UserService.USERNAMES).document(UserService.usernameKey(username));
+                try {
+                    entry.create(Map.of(UserService.USER_ID_FIELD, user.getId())).get();
+                    indexed++;
+                } catch (ExecutionException e) {
+                    if (!FirestoreGuard.hasStatus(e, StatusCode.Code.ALREADY_EXISTS)) {
+                        throw e;
+                    }
+                    String existing = entry.get().get().getString(UserService.USER_ID_FIELD);
+                    if (!user.getId().equals(existing)) {
+                        System.out.println("WARN  username " + username + " is used by " + existing + " and " + user.getId());
+                        conflicts++;
+                    }
+                }
+            }
+        }
+        System.out.println("Indexed " + indexed + " username(s), " + conflicts + " conflict(s)");
+    }
+
+    private static void move(Firestore db, DocumentReference source, DocumentReference target)
+            throws ExecutionException, InterruptedException {
+        List<DocumentReference> copied = new ArrayList<>();
+        List<ApiFuture<WriteResult>> writes = new ArrayList<>();
+        BulkWriter writer = db.bulkWriter();
+        try {
+            copy(writer, source, target, copied, writes);
+            writer.flush().get();
+            // flush() completes even when a write failed, so each copy is checked before any source is deleted.
+            for (ApiFuture<WriteResult> write : writes) {
+                write.get();
+            }
+
+            // Children first, so an interrupted run still finds what is left under the parent document.
+            for (int i = copied.size() - 1; i >= 0; i--) {
+                writer.delete(copied.get(i));
+            }
+            writer.flush().get();
+        } finally {
+            writer.close();
+        }
+    }
+
+    private static void copy(BulkWriter writer, DocumentReference source, DocumentReference target,
+                             List<DocumentReference> copied, List<ApiFuture<WriteResult>> writes)
+            throws ExecutionException, InterruptedException {
+        DocumentSnapshot snapshot = source.get().get();
+        if (snapshot.exists()) {
+            writes.add(writer.set(target, snapshot.getData()));
+        }
+        copied.add(source);
+        for (CollectionReference subcollection : source.listCollections()) {
+            for (DocumentReference child : subcollection.listDocuments()) {
+                copy(writer, child, target.collection(subcollection.getId()).document(child.getId()), copied, writes);
+            }
+        }
+    }
+}
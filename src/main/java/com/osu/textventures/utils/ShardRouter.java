@@ -0,0 +1,54 @@
+package com.osu.textventures.utils;
+
+import com.google.cloud.firestore.CollectionReference;
+import com.google.cloud.firestore.Firestore;
+import com.google.common.hash.Hashing;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Spreads per-user documents over {@code game.shards.count} collections by a stable hash of the user id. Shard 0
+ * keeps the original collection name, so a single-shard deployment is unchanged; shard {@code i > 0} lives in
+ * {@code <name>_<i>}. The hash is consistent: growing from n to n+1 shards only moves about 1/(n+1) of the users,
+ * which is what {@link ShardMigrationTool} copies.
+ */
+@Component
+public class ShardRouter {
+
+    public static final String PLAYERS = "playerCharacters";
+    public static final String USERS = "users";
+
+    @Value("${game.shards.count:1}")
+    private int shardCount;
+
+    public static int shardOf(String userId, int shards) {
+        if (shards <= 1) {
+            return 0;
+        }
+        return Hashing.consistentHash(Hashing.murmur3_128().hashString(userId, StandardCharsets.UTF_8), shards);
+    }
+
+    public static String collectionName(String base, int shard) {
+        return shard == 0 ? base : base + "_" + shard;
+    }
+
+    public int getShardCount() {
+        return Math.max(1, shardCount);
+    }
+
+    public CollectionReference collection(Firestore db, String base, String userId) {
+        return db.collection(collectionName(base, shardOf(userId, getShardCount())));
+    }
+
+    public List<CollectionReference> allCollections(Firestore db, String base) {
+        List<CollectionReference> collections = new ArrayList<>(getShardCount());
+        for (int shard = 0; shard < getShardCount(); shard++) {
+            collections.add(db.collection(collectionName(base, shard)));
+        }
+        return collections;
+    }
+}
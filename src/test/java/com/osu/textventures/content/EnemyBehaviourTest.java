@@ -0,0 +1,82 @@
+package com.osu.textventures.content;
+
+import com.osu.textventures.models.Enemy;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EnemyBehaviourTest {
+
+    private static Enemy.Ability ability(String type) {
+        Enemy.Ability ability = new Enemy.Ability();
+        ability.setType(type);
+        return ability;
+    }
+
+    @Test
+    void enemiesWithoutKnownAbilitiesUseTheBasicTable() {
+        Enemy plain = new Enemy("wolf", "Wolf", 20, 5, "Grey.");
+        assertSame(EnemyBehaviour.BASIC, EnemyBehaviour.compile(plain));
+
+        plain.setAbilities(List.of(ability("dance")));
+        assertSame(EnemyBehaviour.BASIC, EnemyBehaviour.compile(plain));
+    }
+
+    @Test
+    void abilitiesCompileToRowsInPriorityOrder() {
+        Enemy.Ability rage = ability("enrage");
+        rage.setPower(50);
+        rage.setHealthBelowPercent(30);
+        Enemy.Ability bite = ability("attack");
+        bite.setName("Bite");
+        bite.setCooldown(-2);
+        Enemy wolf = new Enemy("wolf", "Wolf", 20, 5, "Grey.");
+        wolf.setAbilities(List.of(rage, ability("dance"), bite));
+
+        EnemyBehaviour behaviour = EnemyBehaviour.compile(wolf);
+
+        assertEquals(2, behaviour.size());
+        assertEquals(EnemyBehaviour.ENRAGE, behaviour.kind(0));
+        assertEquals(50, behaviour.power(0));
+        assertEquals(30, behaviour.healthBelowPercent(0));
+        assertEquals("enrage", behaviour.name(0));
+        assertEquals(EnemyBehaviour.ATTACK, behaviour.kind(1));
+        assertEquals(100, behaviour.power(1));
+        assertEquals(0, behaviour.cooldown(1));
+        assertEquals("Bite", behaviour.name(1));
+    }
+
+    @Test
+    void worldsCompileTheirEnemiesOnce() {
+        Enemy.Ability flee = ability("flee");
+        Enemy wolf = new Enemy("wolf", "Wolf", 20, 5, "Grey.");
+        wolf.setAbilities(List.of(flee));
+        WorldDefinition definition = new WorldDefinition();
+        definition.getEnemies().add(wolf);
+        World world = World.build(definition);
+
+        EnemyBehaviour behaviour = world.getBehaviour(world.getEnemy("wolf"));
+        assertSame(behaviour, world.getBehaviour(world.getEnemy("wolf")));
+        assertNotSame(behaviour, world.getBehaviour(new Enemy("wolf", "Wolf", 20, 5, "Grey.")));
+    }
+
+    @Test
+    void validatorRejectsMalformedAbilities() {
+        Enemy.Ability unknown = ability("dance");
+        Enemy.Ability cooldown = ability("heal");
+        cooldown.setCooldown(-1);
+        Enemy.Ability chance = ability("attack");
+        chance.setChance(0);
+        Enemy wolf = new Enemy("wolf", "Wolf", 20, 5, "Grey.");
+        wolf.setAbilities(List.of(unknown, cooldown, chance));
+        WorldDefinition definition = new WorldDefinition();
+        definition.getEnemies().add(wolf);
+
+        List<String> errors = WorldValidator.validate(definition).errors();
+        assertTrue(errors.contains("Enemy 'wolf' ability 0 has unknown type 'dance'"));
+        assertTrue(errors.contains("Enemy 'wolf' ability 1 has a negative cooldown"));
+        assertTrue(errors.contains("Enemy 'wolf' ability 2 has chance 0; expected 1 to 100"));
+    }
+}
@@ -0,0 +1,147 @@
+package com.osu.textventures.content;
+
+import com.osu.textventures.models.Choice;
+import com.osu.textventures.models.Enemy;
+import com.osu.textventures.models.Location;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WorldGraphTest {
+
+    private WorldDefinition definition() {
+        Location forest = new Location("bamboo_forest", "Forest", "Bamboo everywhere.", List.of(
+                new Choice("search", "Search", "set_flag", null, Map.of("foundMap", true), null),
+                new Choice("to_river", "Follow the path", "move_location", "river", null, null)
+        ), new ArrayList<>(), null);
+        Location river = new Location("river", "River", "A wide river.", List.of(
+                new Choice("to_cave", "Cross with the map", "move_location", "cave", null, Map.of("flag", "foundMap", "value", true)),
+                new Choice("back", "Go back", "move_location", "bamboo_forest", null, null)
+        ), new ArrayList<>(), null);
+        Location cave = new Location("cave", "Cave", "Dark.", List.of(
+                new Choice("fight", "Fight the dragon", "start_combat", "ancient_dragon", null, null)
+        ), new ArrayList<>(), "ancient_dragon");
+        Location island = new Location("island", "Island", "Nobody comes here.", List.of(
+                new Choice("swim", "Swim", "move_location", "river", null, null)
+        ), new ArrayList<>(), null);
+
+        WorldDefinition definition = new WorldDefinition();
+        definition.getLocations().addAll(List.of(forest, river, cave, island));
+        definition.getEnemies().add(new Enemy("ancient_dragon", "Dragon", 200, 30, "Old and angry."));
+        return definition;
+    }
+
+    @Test
+    void validWorldHasNoErrors() {
+        assertTrue(WorldValidator.validate(definition()).isValid());
+    }
+
+    @Test
+    void brokenTargetsAreReported() {
+        WorldDefinition definition = definition();
+        definition.getLocations().add(new Location("ruins", "Ruins", "Broken.", List.of(
+                new Choice("nowhere", "Walk", "move_location", "missing_place", null, null),
+                new Choice("loot", "Loot", "find_item", "missing_item", null, null)
+        ), new ArrayList<>(), null));
+
+        ValidationReport report = WorldValidator.validate(definition);
+
+        assertFalse(report.isValid());
+        assertEquals(2, report.errors().size());
+    }
+
+    @Test
+    void distancesFollowMoveChoices() {
+        WorldGraph graph = World.build(definition()).getGraph();
+
+        assertEquals(2, graph.distance("bamboo_forest", "cave"));
+        assertEquals("river", graph.nextStep("bamboo_forest", "cave"));
+        assertEquals(-1, graph.distance("cave", "bamboo_forest"));
+    }
+
+    @Test
+    void reachabilityRespectsFlags() {
+        WorldGraph.Reachability reachability = World.build(definition()).analyseReachability();
+
+        assertTrue(reachability.reachableLocations().contains("cave"));
+        assertEquals(List.of("island"), List.copyOf(reachability.unreachableLocations()));
+        assertTrue(reachability.reachableFlags().contains("defeated_ancient_dragon"));
+    }
+
+    @Test
+    void chainedEffectsMoveAndSetFlags() {
+        WorldDefinition definition = definition();
+        Choice raft = new Choice("raft", "Build a raft", "set_flag", null, Map.of("builtRaft", true), null);
+        raft.setEffects(List.of(new Choice.Effect("move_location", "island", null)));
+        List<Choice> forestChoices = new ArrayList<>(definition.getLocations().get(0).getAvailableChoices());
+        forestChoices.add(raft);
+        definition.getLocations().get(0).setAvailableChoices(forestChoices);
+
+        World world = World.build(definition);
+
+        assertTrue(WorldValidator.validate(definition).isValid());
+        assertEquals(1, world.getGraph().distance("bamboo_forest", "island"));
+        assertTrue(world.analyseReachability().unreachableLocations().isEmpty());
+        assertTrue(world.analyseReachability().reachableFlags().contains("builtRaft"));
+    }
+
+    @Test
+    void lookupsHandOutCopies() {
+        WorldDefinition definition = definition();
+        World world = World.build(definition);
+        definition.getLocations().get(0).setDescription("Burnt.");
+
+        Location forest = world.getLocation("bamboo_forest");
+        forest.getAvailableChoices().get(0).getFlagToSet().put("foundMap", false);
+        world.getEnemy("ancient_dragon").setHealth(1);
+
+        assertEquals("Bamboo everywhere.", world.getLocation("bamboo_forest").getDescription());
+        assertEquals(Map.of("foundMap", true), world.getLocation("bamboo_forest").getAvailableChoices().get(0).getFlagToSet());
+        assertEquals(200, world.getEnemy("ancient_dragon").getHealth());
+        assertSame(world.getBehaviour(world.getEnemy("ancient_dragon")), world.getBehaviour(world.getEnemy("ancient_dragon")));
+    }
+
+    @Test
+    void largeWorldsSearchInsteadOfStoringEveryPair() {
+        int size = WorldGraph.MAX_ALL_PAIRS_LOCATIONS + 1;
+        WorldDefinition definition = new WorldDefinition();
+        for (int i = 0; i < size; i++) {
+            List<Choice> choices = i + 1 < size
+                    ? List.of(new Choice("next", "Walk on", "move_location", "room_" + (i + 1), null, null)) : List.of();
+            definition.getLocations().add(new Location("room_" + i, "Room " + i, "A room.", choices, new ArrayList<>(), null));
+        }
+        definition.setStartLocationId("room_0");
+
+        WorldGraph graph = World.build(definition).getGraph();
+
+        assertEquals(size - 1, graph.distance("room_0", "room_" + (size - 1)));
+        assertEquals("room_1", graph.nextStep("room_0", "room_" + (size - 1)));
+        assertEquals(-1, graph.distance("room_1", "room_0"));
+    }
+
+    @Test
+    void conditionsBeyondTheTrackedFlagsAreAssumedToHold() {
+        List<Choice> hallChoices = new ArrayList<>();
+        for (int i = 0; i <= WorldGraph.MAX_TRACKED_FLAGS; i++) {
+            hallChoices.add(new Choice("pull_" + i, "Pull lever " + i, "set_flag", null, Map.of("lever_" + i, true),
+                    i > 0 ? Map.of("flag", "lever_" + (i - 1), "value", true) : null));
+        }
+        hallChoices.add(new Choice("vault", "Open the vault", "move_location", "vault", null,
+                Map.of("flag", "lever_" + WorldGraph.MAX_TRACKED_FLAGS, "value", true)));
+        WorldDefinition definition = new WorldDefinition();
+        definition.getLocations().add(new Location("bamboo_forest", "Hall", "Levers everywhere.", hallChoices, new ArrayList<>(), null));
+        definition.getLocations().add(new Location("vault", "Vault", "Gold.", List.of(), new ArrayList<>(), null));
+
+        World world = World.build(definition);
+        WorldGraph.Reachability reachability = world.analyseReachability();
+
+        assertTrue(reachability.unreachableLocations().isEmpty());
+        assertEquals(Set.of("lever_" + WorldGraph.MAX_TRACKED_FLAGS), reachability.untrackedFlags());
+        assertTrue(WorldValidator.validateGraph(world).stream().anyMatch(warning -> warning.contains("condition flags")));
+    }
+}
@@ -0,0 +1,113 @@
+package com.osu.textventures.content;
+
+import com.osu.textventures.models.Choice;
+import com.osu.textventures.models.Enemy;
+import com.osu.textventures.models.Location;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WorldValidatorTest {
+
+    private static WorldDefinition definition(Choice... choices) {
+        WorldDefinition definition = new WorldDefinition();
+        definition.getLocations().add(new Location("bamboo_forest", "Forest", "Bamboo everywhere.", List.of(choices),
+                new ArrayList<>(), null));
+        definition.getLocations().add(new Location("river", "River", "A wide river.", List.of(
+                new Choice("back", "Go back", "move_location", "bamboo_forest", null, null)
+        ), new ArrayList<>(), null));
+        definition.getEnemies().add(new Enemy("wolf", "Wolf", 20, 5, "Hungry."));
+        definition.getEnemies().add(new Enemy("bandit", "Bandit", 20, 5, "Armed."));
+        return definition;
+    }
+
+    @Test
+    void onlyEnemiesMayFollowACombatEffect() {
+        Choice ambush = new Choice("ambush", "Walk into the ambush", "start_combat", "wolf", null, null);
+        ambush.setEffects(List.of(new Choice.Effect("start_combat", "bandit", null)));
+        Choice flee = new Choice("flee", "Fight, then cross", "start_combat", "wolf", null, null);
+        flee.setEffects(List.of(new Choice.Effect("move_location", "river", null)));
+
+        assertTrue(WorldValidator.validate(definition(ambush)).isValid());
+
+        ValidationReport report = WorldValidator.validate(definition(flee));
+        assertEquals(List.of("Location 'bamboo_forest' choice 'flee' effect 1 follows a combat effect and would never run"),
+                report.errors());
+    }
+
+    @Test
+    void duplicateIdsAndAMissingStartAreErrors() {
+        WorldDefinition definition = definition(new Choice("wait", "Wait", "display_text", "Nothing happens.", null, null));
+        definition.getEnemies().add(new Enemy("wolf", "Another wolf", 10, 1, "Also hungry."));
+        definition.setStartLocationId("castle");
+
+        ValidationReport report = WorldValidator.validate(definition);
+
+        assertEquals(List.of("Duplicate enemy id 'wolf'", "Start location 'castle' does not exist"), report.errors());
+    }
+
+    @Test
+    void effectsAreCheckedByType() {
+        Choice choice = new Choice("odd", "Do odd things", "teleport", "river", null, null);
+        Choice empty = new Choice("empty", "Set nothing", "set_flag", null, null, null);
+        empty.setEffects(List.of(new Choice.Effect("display_text", " ", null), new Choice.Effect("find_item", "sword", null)));
+
+        ValidationReport report = WorldValidator.validate(definition(choice, empty));
+
+        assertEquals(List.of(
+                "Location 'bamboo_forest' choice 'odd' has unknown effect type 'teleport'",
+                "Location 'bamboo_forest' choice 'empty' sets no flags",
+                "Location 'bamboo_forest' choice 'empty' effect 1 has no text to display",
+                "Location 'bamboo_forest' choice 'empty' effect 2 targets unknown item 'sword'"), report.errors());
+    }
+
+    @Test
+    void requiredFlagsMustBeSettable() {
+        Choice bridge = new Choice("bridge", "Cross the bridge", "move_location", "river", null,
+                Map.of("flag", "fisherman_distracted", "value", true));
+        Choice boat = new Choice("boat", "Take the boat", "move_location", "river", null,
+                Map.of("flag", "hasOar", "value", true));
+
+        ValidationReport report = WorldValidator.validate(definition(bridge, boat));
+        assertEquals(List.of(
+                "Location 'bamboo_forest' choice 'bridge' requires flag 'fisherman_distracted' which nothing sets",
+                "Location 'bamboo_forest' choice 'boat' requires flag 'hasOar' which nothing sets"), report.errors());
+
+        WorldDefinition withFisherman = definition(bridge);
+        withFisherman.getEnemies().add(new Enemy("grumpy_fisherman", "Fisherman", 30, 4, "Grumpy."));
+        assertTrue(WorldValidator.validate(withFisherman).isValid());
+    }
+
+    @Test
+    void abilitiesAreChecked() {
+        Enemy.Ability unknown = new Enemy.Ability();
+        unknown.setType("teleport");
+        Enemy.Ability useless = new Enemy.Ability();
+        useless.setType("heal");
+        useless.setCooldown(-1);
+        useless.setHealthBelowPercent(0);
+        WorldDefinition definition = definition(new Choice("wait", "Wait", "display_text", "Nothing happens.", null, null));
+        definition.getEnemies().get(0).setAbilities(List.of(unknown, useless));
+
+        ValidationReport report = WorldValidator.validate(definition);
+
+        assertEquals(List.of("Enemy 'wolf' ability 0 has unknown type 'teleport'", "Enemy 'wolf' ability 1 has a negative cooldown"),
+                report.errors());
+        assertTrue(report.warnings().contains("Enemy 'wolf' ability 1 has healthBelowPercent 0 and can never be used"));
+    }
+
+    @Test
+    void graphWarningsCoverUnreachableContentAndCompletion() {
+        WorldDefinition definition = definition(new Choice("wait", "Wait", "display_text", "Nothing happens.", null, null));
+
+        List<String> warnings = WorldValidator.validateGraph(World.build(definition));
+
+        assertEquals(List.of(
+                "Location 'river' cannot be reached from 'bamboo_forest'",
+                "Flag 'defeated_ancient_dragon' is never set, so the game cannot be completed"), warnings);
+    }
+}
@@ -0,0 +1,180 @@
+package com.osu.textventures.controllers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.osu.textventures.models.Choice;
+import com.osu.textventures.models.GameState;
+import com.osu.textventures.models.Item;
+import com.osu.textventures.models.PlayerCharacter;
+import com.osu.textventures.utils.GameStateSerializer;
+import com.osu.textventures.utils.ResponseFragmentCache;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.apache.catalina.Context;
+import org.apache.catalina.connector.Connector;
+import org.apache.catalina.startup.Tomcat;
+import org.apache.coyote.http2.Http2Protocol;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Bytes on the wire and CPU per response for a typical mid-game state, serialized by {@link GameStateSerializer}
+ * as the game endpoints do, uncompressed and gzipped at the levels worth considering for server.compression.
+ * Then the same response served by an embedded Tomcat with gzip and h2c, fetched over HTTP/1.1 and HTTP/2, one
+ * request at a time and in bursts like the dashboard's parallel polls. Run the main method directly.
+ */
+public class ResponseCompressionBenchmark {
+
+    private static final int ITERATIONS = 20_000;
+    private static final int HTTP_ITERATIONS = 2_000;
+    private static final int BURST = 8;
+
+    public static void main(String[] args) throws Exception {
+        byte[] body = gameStateMapper().writeValueAsBytes(sampleState());
+        System.out.printf("identity: %6d bytes%n", body.length);
+
+        for (int level : new int[]{Deflater.BEST_SPEED, Deflater.DEFAULT_COMPRESSION, Deflater.BEST_COMPRESSION}) {
+            for (int i = 0; i < ITERATIONS / 10; i++) {
+                gzip(body, level);
+            }
+            long start = System.nanoTime();
+            int size = 0;
+            for (int i = 0; i < ITERATIONS; i++) {
+                size = gzip(body, level).length;
+            }
+            long perRequest = (System.nanoTime() - start) / ITERATIONS;
+            System.out.printf("gzip %2d:  %6d bytes (%.0f%%), %6d ns/response%n",
+                    level, size, 100.0 * size / body.length, perRequest);
+        }
+
+        compareHttpVersions(body);
+    }
+
+    private static ObjectMapper gameStateMapper() {
+        ResponseFragmentCache fragments = new ResponseFragmentCache();
+        ReflectionTestUtils.setField(fragments, "maxEntries", 10_000);
+        GameStateSerializer serializer = new GameStateSerializer(fragments);
+        ReflectionTestUtils.setField(serializer, "combatLogLimit", 50);
+        return new ObjectMapper().registerModule(new SimpleModule().addSerializer(GameState.class, serializer));
+    }
+
+    private static void compareHttpVersions(byte[] body) throws Exception {
+        Tomcat tomcat = new Tomcat();
+        tomcat.setBaseDir(Files.createTempDirectory("compression-benchmark").toString());
+        Connector connector = new Connector();
+        connector.setPort(0);
+        connector.setProperty("compression", "on");
+        connector.setProperty("compressibleMimeType", "application/json");
+        // h2c streams take their compression settings from the HTTP/1.1 connector they were upgraded from.
+        connector.addUpgradeProtocol(new Http2Protocol());
+        tomcat.setConnector(connector);
+        Context context = tomcat.addContext("", null);
+        Tomcat.addServlet(context, "state", new HttpServlet() {
+            @Override
+            protected void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
+                response.setContentType("application/json");
+                response.getOutputStream().write(body);
+            }
+        });
+        context.addServletMappingDecoded("/state", "state");
+        tomcat.start();
+        try {
+            URI uri = URI.create("http://localhost:" + connector.getLocalPort() + "/state");
+            for (HttpClient.Version version : new HttpClient.Version[]{HttpClient.Version.HTTP_1_1, HttpClient.Version.HTTP_2}) {
+                HttpClient client = HttpClient.newBuilder().version(version).build();
+                HttpRequest request = HttpRequest.newBuilder(uri).header("Accept-Encoding", "gzip").build();
+                HttpResponse<byte[]> first = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+                for (int i = 0; i < HTTP_ITERATIONS / 10; i++) {
+                    client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+                    burst(client, request);
+                }
+
+                long start = System.nanoTime();
+                for (int i = 0; i < HTTP_ITERATIONS; i++) {
+                    client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+                }
+                long sequential = (System.nanoTime() - start) / HTTP_ITERATIONS;
+
+                start = System.nanoTime();
+                for (int i = 0; i < HTTP_ITERATIONS / BURST; i++) {
+                    burst(client, request);
+                }
+                long perBurst = (System.nanoTime() - start) / (HTTP_ITERATIONS / BURST);
+
+                System.out.printf("%-8s  %6d bytes (%s), %8d ns/request, %8d ns per burst of %d%n",
+                        version, first.body().length, first.version(), sequential, perBurst, BURST);
+            }
+        } finally {
+            tomcat.stop();
+            tomcat.destroy();
+        }
+    }
+
+    private static void burst(HttpClient client, HttpRequest request) {
+        List<CompletableFuture<HttpResponse<byte[]>>> responses = new ArrayList<>(BURST);
+        for (int i = 0; i < BURST; i++) {
+            responses.add(client.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray()));
+        }
+        CompletableFuture.allOf(responses.toArray(CompletableFuture[]::new)).join();
+    }
+
+    private static byte[] gzip(byte[] body, int level) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(body.length / 4);
+        try (GZIPOutputStream out = new GZIPOutputStream(bytes) {
+            {
+                def.setLevel(level);
+            }
+        }) {
+            out.write(body);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static GameState sampleState() {
+        List<String> history = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            history.add("The bamboo sways around you as you follow the narrow trail deeper into the forest. "
+                    + "Somewhere ahead, water rushes over stones (" + i + ").");
+        }
+        Map<String, Integer> inventory = new LinkedHashMap<>();
+        Map<String, Item> items = new HashMap<>();
+        for (int i = 0; i < 12; i++) {
+            inventory.put("item_" + i, 1 + i % 3);
+            items.put("item_" + i, new Item("item_" + i, "Item " + i, i % 2 == 0 ? "weapon" : "food", i, i * 3));
+        }
+        Map<String, Boolean> flags = new HashMap<>();
+        for (int i = 0; i < 20; i++) {
+            flags.put("flag_" + i, i % 3 == 0);
+        }
+        List<Choice> choices = List.of(
+                new Choice("follow_river", "Follow the river downstream", "move_location", "river_bank", null, null),
+                new Choice("climb", "Climb the tallest bamboo to look around", "display_text",
+                        "From up here you can see smoke rising in the east.", Map.of("sawSmoke", true), null),
+                new Choice("fight", "Confront the grumpy fisherman", "start_combat", "grumpy_fisherman", null,
+                        Map.of("flag", "sawSmoke", "value", true))
+        );
+
+        PlayerCharacter player = new PlayerCharacter("user-1", "Hero", 4, 70, inventory, 19, 160, 120,
+                "bamboo_forest", history, flags);
+        GameState state = new GameState(player, history.get(history.size() - 1), choices);
+        state.setInventoryItems(items);
+        state.setContentKey("benchmark/bamboo_forest");
+        return state;
+    }
+}
@@ -0,0 +1,167 @@
+package com.osu.textventures.services;
+
+import com.osu.textventures.content.World;
+import com.osu.textventures.content.WorldDefinition;
+import com.osu.textventures.content.WorldValidator;
+import com.osu.textventures.models.Choice;
+import com.osu.textventures.models.Enemy;
+import com.osu.textventures.models.Location;
+import com.osu.textventures.models.PlayerCharacter;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class EffectRegistryTest {
+
+    private static World world() {
+        Location forest = new Location("bamboo_forest", "Forest", "Bamboo everywhere.", List.of(), new ArrayList<>(), null);
+        Location river = new Location("river", "River", "A wide river.", List.of(), new ArrayList<>(), null);
+        WorldDefinition definition = new WorldDefinition();
+        definition.getLocations().addAll(List.of(forest, river));
+        definition.getEnemies().add(new Enemy("wolf", "Wolf", 20, 5, "Hungry."));
+        definition.getEnemies().add(new Enemy("bandit", "Bandit", 20, 5, "Armed."));
+        return World.build(definition);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static EffectRegistry registry(ChoiceEffectHandler... extra) {
+        ObjectProvider<ChoiceEffectHandler> handlers = mock(ObjectProvider.class);
+        when(handlers.orderedStream()).thenReturn(Stream.of(extra));
+        return new EffectRegistry(new CombatService(), handlers);
+    }
+
+    private static PlayerCharacter hero() {
+        return new PlayerCharacter("user-1", "Hero", 1, 0, new LinkedHashMap<>(), 10, 100, 100,
+                "bamboo_forest", new ArrayList<>(), new HashMap<>());
+    }
+
+    private static Choice choice(String type, String targetId, Choice.Effect... chained) {
+        Choice choice = new Choice("choice", "Do it", type, targetId, null, null);
+        choice.setEffects(List.of(chained));
+        return choice;
+    }
+
+    @Test
+    void chainedEffectsRunInOrder() throws Exception {
+        World world = world();
+        PlayerCharacter player = hero();
+        Choice choice = choice("set_flag", null, new Choice.Effect("move_location", "river", Map.of("crossed", true)));
+        choice.setFlagToSet(Map.of("searched", true));
+
+        EffectTurn turn = registry().apply("bamboo_forest", choice, player, world);
+
+        assertEquals("river", player.getCurrentLocationId());
+        assertEquals(Map.of("searched", true, "crossed", true), player.getFlags());
+        assertEquals("Something changed in the world... A wide river.", turn.getNarrative());
+        assertNull(turn.getEncounter());
+    }
+
+    @Test
+    void onlyFurtherEnemiesFollowTheStartOfCombat() throws Exception {
+        World world = world();
+        PlayerCharacter player = hero();
+        Choice choice = choice("start_combat", "wolf",
+                new Choice.Effect("move_location", "river", Map.of("crossed", true)),
+                new Choice.Effect("start_combat", "bandit", null));
+
+        EffectTurn turn = registry().apply("bamboo_forest", choice, player, world);
+
+        assertNotNull(turn.getEncounter());
+        assertTrue(turn.getEncounter().indexOf("bandit") >= 0);
+        assertEquals("bamboo_forest", player.getCurrentLocationId());
+        assertTrue(player.getFlags().isEmpty());
+        assertEquals("You are now in combat with Wolf! Bandit joins the fight!", turn.getNarrative());
+    }
+
+    @Test
+    void publishedChoicesUseTheirCompiledEffects() throws Exception {
+        Choice search = choice("set_flag", null, new Choice.Effect("move_location", "river", null));
+        search.setFlagToSet(Map.of("searched", true));
+        WorldDefinition definition = new WorldDefinition();
+        definition.getLocations().add(new Location("bamboo_forest", "Forest", "Bamboo everywhere.", List.of(search),
+                new ArrayList<>(), null));
+        definition.getLocations().add(new Location("river", "River", "A wide river.", List.of(), new ArrayList<>(), null));
+        World world = World.build(definition);
+        EffectRegistry registry = registry();
+        registry.prepare(world);
+        PlayerCharacter player = hero();
+
+        Choice offered = world.getLocation("bamboo_forest").getAvailableChoices().get(0);
+        EffectTurn turn = registry.apply("bamboo_forest", offered, player, world);
+
+        assertEquals("river", player.getCurrentLocationId());
+        assertEquals(Map.of("searched", true), player.getFlags());
+        assertEquals("Something changed in the world... A wide river.", turn.getNarrative());
+    }
+
+    @Test
+    void unknownEffectsDoNothing() throws Exception {
+        World world = world();
+        PlayerCharacter player = hero();
+
+        EffectTurn turn = registry().apply("bamboo_forest", choice("teleport", "river"), player, world);
+
+        assertEquals("Nothing happened.", turn.getNarrative());
+        assertEquals("bamboo_forest", player.getCurrentLocationId());
+        assertTrue(player.getGameHistory().isEmpty());
+    }
+
+    private static ChoiceEffectHandler teleport() {
+        return new ChoiceEffectHandler() {
+            @Override
+            public String type() {
+                return "teleport";
+            }
+
+            @Override
+            public void apply(Choice.Effect effect, EffectTurn turn) {
+                turn.getPlayer().setCurrentLocationId(effect.getTargetId());
+                turn.narrate("Poof.");
+            }
+        };
+    }
+
+    @Test
+    void registeredTypesPassValidation() {
+        WorldDefinition definition = new WorldDefinition();
+        definition.getLocations().add(new Location("bamboo_forest", "Forest", "Bamboo everywhere.",
+                List.of(choice("teleport", "bamboo_forest")), new ArrayList<>(), null));
+
+        assertFalse(WorldValidator.validate(definition, registry().effectTypes()).isValid());
+        assertTrue(WorldValidator.validate(definition, registry(teleport()).effectTypes()).isValid());
+    }
+
+    @Test
+    void handlerBeansAddAndReplaceEffects() throws Exception {
+        World world = world();
+        PlayerCharacter player = hero();
+        ChoiceEffectHandler quietText = new ChoiceEffectHandler() {
+            @Override
+            public String type() {
+                return "display_text";
+            }
+
+            @Override
+            public void apply(Choice.Effect effect, EffectTurn turn) {
+                turn.report(effect.getTargetId().toUpperCase());
+            }
+        };
+
+        EffectTurn turn = registry(teleport(), quietText).apply("bamboo_forest",
+                choice("teleport", "river", new Choice.Effect("display_text", "splash", null)), player, world);
+
+        assertEquals("river", player.getCurrentLocationId());
+        assertEquals("Poof. SPLASH", turn.getNarrative());
+        assertEquals(List.of("Poof."), player.getGameHistory());
+    }
+}
@@ -0,0 +1,175 @@
+package com.osu.textventures.services;
+
+import com.osu.textventures.models.Enemy;
+import com.osu.textventures.models.PlayerCharacter;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EncounterTest {
+
+    private static PlayerCharacter hero(int damage, int health) {
+        return new PlayerCharacter("user-1", "Hero", 1, 0, new LinkedHashMap<>(), damage, health, health,
+                "bamboo_forest", new ArrayList<>(), new HashMap<>());
+    }
+
+    private static Enemy enemy(String id, int health, int damage, int initiative) {
+        Enemy enemy = new Enemy(id, id, health, damage, "A " + id + ".");
+        enemy.setInitiative(initiative);
+        return enemy;
+    }
+
+    @Test
+    void enemiesTakeTurnsByInitiativeThenArrival() {
+        CombatService combat = new CombatService();
+        Encounter encounter = combat.startEncounter(List.of(hero(10, 100)),
+                List.of(enemy("wolf", 20, 5, 1), enemy("bandit", 20, 5, 3), enemy("wolf", 20, 5, 1)), Map.of(), 1L);
+
+        List<String> order = new ArrayList<>();
+        for (int index : encounter.turnOrder()) {
+            order.add(encounter.id(index));
+        }
+        assertEquals(List.of("bandit", "wolf", "wolf_2", "user-1"), order);
+        assertEquals("wolf", encounter.contentId(encounter.indexOf("wolf_2")));
+    }
+
+    @Test
+    void queuedDamageIsAppliedOnceAndStancesEnd() {
+        Encounter encounter = new Encounter(1L);
+        int hero = encounter.add(Encounter.PARTY, "user-1", "Hero", null, 30, 30, 10, 0, null);
+        int wolf = encounter.add(Encounter.ENEMIES, "wolf", "Wolf", null, 20, 20, 5, 0, null);
+        encounter.setDefending(hero, true);
+        encounter.queueDamage(hero, 4);
+        encounter.queueDamage(hero, 6);
+        encounter.queueDamage(wolf, 50);
+
+        encounter.resolveDamage();
+        encounter.resolveDamage();
+
+        assertEquals(20, encounter.health(hero));
+        assertEquals(0, encounter.health(wolf));
+        assertFalse(encounter.isDefending(hero));
+        assertFalse(encounter.isStanding(wolf));
+    }
+
+    @Test
+    void groupIsWonWhenEveryEnemyIsDown() {
+        CombatService combat = new CombatService();
+        Encounter encounter = combat.startEncounter(List.of(hero(1000, 100)),
+                List.of(enemy("wolf", 10, 1, 0), enemy("wolf", 10, 1, 0)), Map.of(), 1L);
+
+        CombatService.CombatResult first = combat.processAction(encounter, CombatService.PLAYER, CombatService.CombatAction.ATTACK, "wolf_2");
+        assertFalse(first.isVictory());
+        assertTrue(encounter.isActive());
+        assertFalse(encounter.isStanding(encounter.indexOf("wolf_2")));
+        assertTrue(encounter.health(CombatService.PLAYER) < 100);
+
+        CombatService.CombatResult second = combat.processAction(encounter, CombatService.PLAYER, CombatService.CombatAction.ATTACK, null);
+        assertTrue(second.isVictory());
+        assertFalse(encounter.isActive());
+        assertEquals(12, second.getExperienceGained());
+
+        CombatService.CombatState view = encounter.view(CombatService.PLAYER);
+        assertFalse(view.isCombatActive());
+        assertEquals(3, view.getCombatants().size());
+        assertEquals(view.getCombatLog(), encounter.logLines());
+    }
+
+    @Test
+    void copiesAreIndependentAndTheLogIsBounded() {
+        Encounter encounter = new Encounter(1L);
+        encounter.add(Encounter.PARTY, "user-1", "Hero", null, 30, 30, 10, 0, null);
+        for (int i = 0; i < Encounter.LOG_CAPACITY + 10; i++) {
+            encounter.log("line " + i);
+        }
+        Encounter copy = encounter.copy();
+        copy.hit(0, 5);
+        copy.log("after copy");
+
+        assertEquals(30, encounter.health(0));
+        assertEquals(25, copy.health(0));
+        assertEquals(Encounter.LOG_CAPACITY, encounter.logLines().size());
+        assertEquals("line 10", encounter.logLines().get(0));
+        assertEquals("after copy", copy.logLines().get(Encounter.LOG_CAPACITY - 1));
+        assertEquals(encounter.version(), copy.version());
+        assertEquals(encounter.version() + 1, encounter.nextVersion().version());
+    }
+
+    @Test
+    void theSameSeedReplaysTheSameFight() {
+        CombatService combat = new CombatService();
+        List<List<String>> logs = new ArrayList<>();
+        for (int run = 0; run < 2; run++) {
+            Encounter encounter = combat.startEncounter(List.of(hero(12, 200)),
+                    List.of(enemy("wolf", 60, 8, 0), enemy("bandit", 60, 9, 1)), Map.of(), 42L);
+            while (encounter.isActive()) {
+                combat.processAction(encounter, CombatService.PLAYER, CombatService.CombatAction.ATTACK, null);
+            }
+            logs.add(encounter.logLines());
+        }
+        assertEquals(logs.get(0), logs.get(1));
+    }
+
+    @Test
+    void enemiesFollowTheirDecisionTable() {
+        Enemy.Ability flee = new Enemy.Ability();
+        flee.setType("flee");
+        flee.setHealthBelowPercent(25);
+        Enemy.Ability heal = new Enemy.Ability();
+        heal.setName("Bandage");
+        heal.setType("heal");
+        heal.setPower(5);
+        heal.setCooldown(3);
+        heal.setHealthBelowPercent(60);
+        Enemy bandit = enemy("bandit", 20, 1, 0);
+        bandit.setAbilities(List.of(flee, heal));
+
+        CombatService combat = new CombatService();
+        Encounter encounter = combat.startEncounter(List.of(hero(4, 100)), List.of(bandit), Map.of(), 7L);
+        int index = encounter.indexOf("bandit");
+
+        combat.processAction(encounter, CombatService.PLAYER, CombatService.CombatAction.ATTACK, null);
+        CombatService.CombatResult healed = combat.processAction(encounter, CombatService.PLAYER, CombatService.CombatAction.ATTACK, null);
+        assertEquals(17, encounter.health(index));
+        assertTrue(healed.getCombatLog().contains("bandit uses Bandage and recovers 5 health!"));
+
+        combat.processAction(encounter, CombatService.PLAYER, CombatService.CombatAction.ATTACK, null);
+        combat.processAction(encounter, CombatService.PLAYER, CombatService.CombatAction.ATTACK, null);
+        assertEquals(9, encounter.health(index));
+
+        CombatService.CombatResult fled = combat.processAction(encounter, CombatService.PLAYER, CombatService.CombatAction.ATTACK, null);
+        assertTrue(fled.isVictory());
+        assertTrue(encounter.hasFled(index));
+        assertEquals(0, fled.getExperienceGained());
+        assertEquals(97, encounter.health(CombatService.PLAYER));
+    }
+
+    @Test
+    void enrageRaisesDamageOnlyOnce() {
+        Enemy.Ability rage = new Enemy.Ability();
+        rage.setType("enrage");
+        rage.setPower(100);
+        rage.setHealthBelowPercent(50);
+        Enemy ogre = enemy("ogre", 40, 2, 0);
+        ogre.setAbilities(List.of(rage));
+
+        CombatService combat = new CombatService();
+        Encounter encounter = combat.startEncounter(List.of(hero(10, 100)), List.of(ogre), Map.of(), 3L);
+        int index = encounter.indexOf("ogre");
+
+        combat.processAction(encounter, CombatService.PLAYER, CombatService.CombatAction.ATTACK, null);
+        combat.processAction(encounter, CombatService.PLAYER, CombatService.CombatAction.ATTACK, null);
+        assertEquals(4, encounter.damage(index));
+        assertEquals(98, encounter.health(CombatService.PLAYER));
+
+        combat.processAction(encounter, CombatService.PLAYER, CombatService.CombatAction.ATTACK, null);
+        assertEquals(4, encounter.damage(index));
+        assertEquals(94, encounter.health(CombatService.PLAYER));
+    }
+}
@@ -0,0 +1,28 @@
+package com.osu.textventures.services;
+
+import com.google.api.gax.rpc.StatusCode;
+import io.grpc.Status;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PlayerStoreTest {
+
+    @Test
+    void statusIsMatchedOnTheCodeAnywhereInTheCauseChain() {
+        ExecutionException wrapped = new ExecutionException(new RuntimeException(
+                Status.FAILED_PRECONDITION.withDescription("update time mismatch").asRuntimeException()));
+
+        assertTrue(PlayerStore.hasStatus(wrapped, StatusCode.Code.FAILED_PRECONDITION));
+        assertFalse(PlayerStore.hasStatus(wrapped, StatusCode.Code.ALREADY_EXISTS));
+    }
+
+    @Test
+    void messagesMentioningACodeDoNotMatch() {
+        ExecutionException error = new ExecutionException(new IllegalStateException("Document ALREADY_EXISTS in text"));
+
+        assertFalse(PlayerStore.hasStatus(error, StatusCode.Code.ALREADY_EXISTS));
+    }
+}
@@ -0,0 +1,100 @@
+package com.osu.textventures.services;
+
+import com.osu.textventures.models.PlayerCharacter;
+import com.osu.textventures.utils.PlayerCodec;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PlayerTimelineTest {
+
+    private static PlayerCharacter samplePlayer() {
+        Map<String, Integer> inventory = new LinkedHashMap<>(Map.of("rusty_sword", 1));
+        List<String> history = new ArrayList<>(List.of("You wake up in a bamboo forest.", "You found a Rusty Sword!"));
+        Map<String, Boolean> flags = new HashMap<>(Map.of("foundKey", true));
+        PlayerCharacter player = new PlayerCharacter("user-1", "Hero", 2, 15, inventory, 12, 120, 90,
+                "bamboo_forest", history, flags);
+        player.setVersion(7);
+        return player;
+    }
+
+    private static PlayerCharacter copy(PlayerCharacter player) {
+        return PlayerCodec.decode(PlayerCodec.encode(player));
+    }
+
+    @Test
+    void replayingAnEventReproducesTheChange() {
+        PlayerCharacter before = samplePlayer();
+        PlayerCharacter after = copy(before);
+        after.getGameHistory().add("You walk to the river.");
+        after.addItem("bread");
+        after.getFlags().put("visited_river", true);
+        after.setLevel(3);
+        after.setCurrentLocationId("river");
+        after.setVersion(8);
+
+        Map<String, Object> event = PlayerTimeline.event(8, "choice:go_river",
+                PlayerStore.toFields(before), PlayerStore.toFields(after));
+        PlayerCharacter replayed = copy(before);
+        PlayerTimeline.apply(replayed, event);
+
+        assertEquals(after, replayed);
+        assertEquals(List.of("You walk to the river."), event.get("history"));
+        assertFalse(((Map<?, ?>) event.get("set")).containsKey("gameHistory"));
+        assertTrue(((List<?>) event.get("tags")).containsAll(List.of("level_up", "item_found", "moved")));
+    }
+
+    @Test
+    void startEventRebuildsTheWholePlayer() {
+        PlayerCharacter player = samplePlayer();
+
+        PlayerCharacter rebuilt = new PlayerCharacter();
+        rebuilt.setId(player.getId());
+        PlayerTimeline.apply(rebuilt, PlayerTimeline.event(player.getVersion(), "start", Map.of(), PlayerStore.toFields(player)));
+
+        assertEquals(player, rebuilt);
+    }
+
+    @Test
+    void truncatedHistoryAndRemovedFlagsAreReplayed() {
+        PlayerCharacter before = samplePlayer();
+        PlayerCharacter after = copy(before);
+        after.setGameHistory(new ArrayList<>(before.getGameHistory().subList(0, 1)));
+        after.getFlags().remove("foundKey");
+        after.setVersion(8);
+
+        PlayerCharacter replayed = copy(before);
+        PlayerTimeline.apply(replayed, PlayerTimeline.event(8, "restore:cp", PlayerStore.toFields(before), PlayerStore.toFields(after)));
+
+        assertEquals(after, replayed);
+    }
+
+    @Test
+    void legacyInventoryListsAreStacked() {
+        PlayerCharacter player = samplePlayer();
+        Map<String, Object> bread = Map.of("id", "bread", "name", "Bread", "type", "food", "power", 15, "goldValue", 2);
+        Map<String, Object> event = Map.of(PlayerTimeline.SEQ, 8L, "set", Map.of("inventory", List.of(bread, bread)));
+
+        PlayerTimeline.apply(player, event);
+
+        assertEquals(Map.of("bread", 2), player.getInventory());
+    }
+
+    @Test
+    void eventsAfterASnapshotMustBeContiguous() {
+        Map<String, Object> seven = Map.of(PlayerTimeline.SEQ, 7L);
+        Map<String, Object> eight = Map.of(PlayerTimeline.SEQ, 8L);
+        Map<String, Object> nine = Map.of(PlayerTimeline.SEQ, 9L);
+
+        assertEquals(List.of(eight, nine), PlayerTimeline.after(7, List.of(nine, seven, eight)));
+        assertEquals(List.of(), PlayerTimeline.after(9, List.of(nine, eight)));
+        assertNull(PlayerTimeline.after(6, List.of(nine, eight)));
+        assertNull(PlayerTimeline.after(7, List.of(seven, nine)));
+    }
+}
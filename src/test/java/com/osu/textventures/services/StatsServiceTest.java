@@ -0,0 +1,128 @@
+package com.osu.textventures.services;
+
+import com.osu.textventures.content.WorldValidator;
+import com.osu.textventures.models.PlayerCharacter;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StatsServiceTest {
+
+    private static PlayerCharacter player(int level, boolean completed) {
+        Map<String, Boolean> flags = new HashMap<>();
+        if (completed) {
+            flags.put(WorldValidator.COMPLETION_FLAG, true);
+        }
+        return new PlayerCharacter("user-1", "Hero", level, 0, new LinkedHashMap<>(), 10, 100, 100,
+                "bamboo_forest", new ArrayList<>(), flags);
+    }
+
+    private static StatsService.Entry entry(String userId, long score) {
+        return new StatsService.Entry(userId, userId, 1, score);
+    }
+
+    private static List<String> users(List<StatsService.Entry> entries) {
+        return entries.stream().map(StatsService.Entry::userId).toList();
+    }
+
+    @Test
+    void countersFollowPlayerChanges() {
+        StatsService.Counters counters = new StatsService.Counters();
+        counters.record(null, player(1, false));
+        counters.record(null, player(1, false));
+        counters.record(player(1, false), player(3, true));
+        counters.record(player(1, false), null);
+
+        Map<String, Object> summary = counters.summary();
+
+        assertEquals(1L, summary.get("activeGames"));
+        assertEquals(1L, summary.get("completedGames"));
+        assertEquals(1.0, summary.get("completionRate"));
+        assertEquals(Map.of("3", 1L), summary.get("levelDistribution"));
+    }
+
+    @Test
+    void flushedDeltasAreCountedOnce() {
+        StatsService.Counters counters = new StatsService.Counters();
+        counters.record(null, player(2, false));
+        counters.record(null, player(2, false));
+        Map<String, Object> before = counters.summary();
+
+        StatsService.Totals failed = counters.drain();
+        assertEquals(before, counters.summary());
+        counters.restore(failed);
+        assertEquals(before, counters.summary());
+
+        StatsService.Totals written = counters.drain();
+        counters.record(null, player(5, false));
+        StatsService.Totals unreloaded = counters.drain();
+        assertEquals(3L, counters.summary().get("activeGames"));
+
+        // Another node's game is in the shards as well.
+        counters.loaded(StatsService.Totals.empty().plus(written, 1).plus(unreloaded, 1)
+                .plus(new StatsService.Totals(1, 0, new long[StatsService.MAX_LEVEL + 1]), 1));
+        assertEquals(4L, counters.summary().get("activeGames"));
+        assertEquals(Map.of("2", 2L, "5", 1L), counters.summary().get("levelDistribution"));
+    }
+
+    @Test
+    void shardsAreSummed() {
+        StatsService.Totals totals = StatsService.sum(List.of(
+                Map.of("games", 3L, "completions", 1L, "levels", Map.of("1", 2L, "4", 1L)),
+                Map.of("games", 2L, "levels", Map.of("1", 1L, "99", 7L)),
+                Map.of()));
+
+        assertEquals(5, totals.games());
+        assertEquals(1, totals.completions());
+        assertEquals(3, totals.levels()[1]);
+        assertEquals(1, totals.levels()[4]);
+    }
+
+    @Test
+    void leaderboardKeepsTheTopEntries() {
+        StatsService.Leaderboard leaderboard = new StatsService.Leaderboard(false, 3);
+        leaderboard.offer(entry("a", 10));
+        leaderboard.offer(entry("b", 30));
+        leaderboard.offer(entry("c", 20));
+        leaderboard.offer(entry("d", 5));
+        leaderboard.offer(entry("a", 40));
+        leaderboard.offer(entry("e", 25));
+
+        assertEquals(List.of("a", "b", "e"), users(leaderboard.top(10)));
+        assertEquals(List.of("a"), users(leaderboard.top(1)));
+
+        leaderboard.remove("b");
+        assertEquals(List.of("a", "e"), users(leaderboard.top(10)));
+    }
+
+    @Test
+    void ascendingBoardsKeepEachPlayersBest() {
+        StatsService.Leaderboard speedrun = new StatsService.Leaderboard(true, 2);
+        speedrun.offer(entry("a", 40));
+        speedrun.offer(entry("a", 55));
+        speedrun.offer(entry("b", 30));
+        speedrun.offer(entry("c", 50));
+
+        assertEquals(List.of(entry("b", 30), entry("a", 40)), speedrun.top(10));
+    }
+
+    @Test
+    void loadingTheStoredBoardKeepsLocalChanges() {
+        StatsService.Leaderboard leaderboard = new StatsService.Leaderboard(false, 3);
+        leaderboard.offer(entry("a", 10));
+        Map<String, StatsService.Entry> merged = leaderboard.drainPending();
+        leaderboard.offer(entry("b", 50));
+        leaderboard.remove("c");
+
+        leaderboard.load(List.of(entry("c", 60), entry("x", 20), merged.get("a")));
+
+        assertEquals(List.of("b", "x", "a"), users(leaderboard.top(10)));
+        assertEquals(2, leaderboard.drainPending().size());
+    }
+}
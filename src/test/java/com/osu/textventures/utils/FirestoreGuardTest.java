@@ -0,0 +1,64 @@
+package com.osu.textventures.utils;
+
+import com.google.api.core.ApiFutures;
+import com.google.api.gax.grpc.GrpcStatusCode;
+import com.google.api.gax.rpc.ApiExceptionFactory;
+import io.grpc.Status;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FirestoreGuardTest {
+
+    private static FirestoreGuard guard(double failureRate, int minimumCalls) {
+        FirestoreGuard guard = new FirestoreGuard();
+        ReflectionTestUtils.setField(guard, "timeoutMs", 2000L);
+        ReflectionTestUtils.setField(guard, "failureRate", failureRate);
+        ReflectionTestUtils.setField(guard, "minimumCalls", minimumCalls);
+        ReflectionTestUtils.setField(guard, "windowMs", 10000L);
+        ReflectionTestUtils.setField(guard, "openMs", 15000L);
+        return guard;
+    }
+
+    private static void failOnce(FirestoreGuard guard) {
+        assertThrows(ExecutionException.class, () -> guard.await(ApiFutures.immediateFailedFuture(
+                ApiExceptionFactory.createException(null, GrpcStatusCode.of(Status.Code.UNAVAILABLE), true))));
+    }
+
+    @Test
+    void successesNeverOpenTheBreaker() throws Exception {
+        FirestoreGuard guard = guard(0.01, 1);
+        guard.init();
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals("ok", guard.await(ApiFutures.immediateFuture("ok")));
+        }
+        assertFalse(guard.isDegraded());
+
+        failOnce(guard);
+        assertTrue(guard.isDegraded());
+    }
+
+    @Test
+    void theBreakerOpensAtTheFailureRate() throws Exception {
+        FirestoreGuard guard = guard(0.5, 4);
+        guard.init();
+
+        guard.await(ApiFutures.immediateFuture("ok"));
+        guard.await(ApiFutures.immediateFuture("ok"));
+        failOnce(guard);
+        assertFalse(guard.isDegraded());
+        failOnce(guard);
+        assertTrue(guard.isDegraded());
+    }
+
+    @Test
+    void settingsThatWouldOpenWithoutFailuresAreRejected() {
+        assertThrows(IllegalStateException.class, () -> guard(0, 20).init());
+        assertThrows(IllegalStateException.class, () -> guard(0.5, 0).init());
+        assertThrows(IllegalStateException.class, () -> guard(1.5, 20).init());
+    }
+}
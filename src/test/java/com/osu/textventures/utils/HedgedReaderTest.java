@@ -0,0 +1,150 @@
+package com.osu.textventures.utils;
+
+import com.google.api.core.ApiFuture;
+import com.google.api.core.ApiFutures;
+import com.google.api.core.SettableApiFuture;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HedgedReaderTest {
+
+    private FirestoreGuard guard;
+    private HedgedReader reader;
+
+    private HedgedReader reader(boolean hedging) {
+        guard = new FirestoreGuard();
+        ReflectionTestUtils.setField(guard, "timeoutMs", 2000L);
+        ReflectionTestUtils.setField(guard, "failureRate", 0.5);
+        ReflectionTestUtils.setField(guard, "minimumCalls", 20);
+        ReflectionTestUtils.setField(guard, "windowMs", 10000L);
+        ReflectionTestUtils.setField(guard, "openMs", 15000L);
+        guard.init();
+        reader = new HedgedReader(guard);
+        ReflectionTestUtils.setField(reader, "enabled", hedging);
+        ReflectionTestUtils.setField(reader, "percentile", 0.95);
+        ReflectionTestUtils.setField(reader, "minDelayMs", 1L);
+        ReflectionTestUtils.setField(reader, "defaultDelayMs", 10L);
+        ReflectionTestUtils.setField(reader, "budgetPercent", 100.0);
+        ReflectionTestUtils.setField(reader, "windowSize", 512);
+        return reader;
+    }
+
+    @AfterEach
+    void stop() {
+        reader.stop();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> metrics(HedgedReader reader, String collection) {
+        return (Map<String, Object>) ((Map<String, Object>) reader.getMetrics().get("collections")).get(collection);
+    }
+
+    // Hands out the given futures in order, one per read.
+    private static Supplier<ApiFuture<String>> requests(List<SettableApiFuture<String>> issued, Runnable onHedge) {
+        return () -> {
+            SettableApiFuture<String> attempt = SettableApiFuture.create();
+            issued.add(attempt);
+            if (issued.size() == 2) {
+                onHedge.run();
+            }
+            return attempt;
+        };
+    }
+
+    @Test
+    void withoutHedgingTheReadIsSentOnce() throws Exception {
+        HedgedReader reader = reader(false);
+        List<ApiFuture<String>> issued = new ArrayList<>();
+
+        String result = reader.read("players", () -> {
+            SettableApiFuture<String> attempt = SettableApiFuture.create();
+            issued.add(attempt);
+            new Thread(() -> {
+                sleep(50);
+                attempt.set("slow");
+            }).start();
+            return attempt;
+        });
+
+        assertEquals("slow", result);
+        assertEquals(1, issued.size());
+        assertEquals(0L, metrics(reader, "players").get("hedges"));
+    }
+
+    @Test
+    void fastReadsAreNotHedged() throws Exception {
+        HedgedReader reader = reader(true);
+
+        assertEquals("fast", reader.read("players", () -> ApiFutures.immediateFuture("fast")));
+        assertEquals(0L, metrics(reader, "players").get("hedges"));
+    }
+
+    @Test
+    void manyReadsGoThroughTheSameReader() throws Exception {
+        HedgedReader reader = reader(true);
+
+        for (int i = 0; i < 50; i++) {
+            String answer = "read " + i;
+            assertEquals(answer, reader.read("players", () -> ApiFutures.immediateFuture(answer)));
+        }
+        assertEquals(0L, metrics(reader, "players").get("hedges"));
+        assertFalse(guard.isDegraded());
+    }
+
+    @Test
+    void aSlowReadIsHedgedAndCancelledWhenTheHedgeWins() throws Exception {
+        HedgedReader reader = reader(true);
+        List<SettableApiFuture<String>> issued = Collections.synchronizedList(new ArrayList<>());
+
+        String result = reader.read("players", requests(issued, () -> new Thread(() -> {
+            sleep(5);
+            issued.get(1).set("hedge");
+        }).start()));
+
+        assertEquals("hedge", result);
+        assertEquals(2, issued.size());
+        assertTrue(issued.get(0).isCancelled());
+        assertEquals(1L, metrics(reader, "players").get("hedges"));
+        // The win is counted by the hedge's callback, just after it hands over the answer.
+        assertTrue(eventually(() -> Long.valueOf(1).equals(metrics(reader, "players").get("hedgeWins"))));
+    }
+
+    @Test
+    void theHedgeIsCancelledWhenThePrimaryWins() throws Exception {
+        HedgedReader reader = reader(true);
+        List<SettableApiFuture<String>> issued = Collections.synchronizedList(new ArrayList<>());
+
+        String result = reader.read("players", requests(issued, () -> issued.get(0).set("primary")));
+
+        assertEquals("primary", result);
+        assertEquals(2, issued.size());
+        // The hedge is only registered once its request returns, which may be just after the read did.
+        assertTrue(eventually(() -> issued.get(1).isCancelled()));
+        assertEquals(0L, metrics(reader, "players").get("hedgeWins"));
+    }
+
+    private static boolean eventually(BooleanSupplier condition) {
+        for (int i = 0; i < 100 && !condition.getAsBoolean(); i++) {
+            sleep(10);
+        }
+        return condition.getAsBoolean();
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
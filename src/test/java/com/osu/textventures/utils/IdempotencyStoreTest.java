@@ -0,0 +1,67 @@
+package com.osu.textventures.utils;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdempotencyStoreTest {
+
+    private static IdempotencyStore store(long maxBytes) {
+        IdempotencyStore store = new IdempotencyStore();
+        ReflectionTestUtils.setField(store, "ttlMillis", 60_000L);
+        ReflectionTestUtils.setField(store, "maxKeysPerUser", 2);
+        ReflectionTestUtils.setField(store, "maxUsers", 10);
+        ReflectionTestUtils.setField(store, "maxBytes", maxBytes);
+        return store;
+    }
+
+    @Test
+    void resultsAreReplayedOnlyForTheSameRequest() {
+        IdempotencyStore store = store(1000);
+        store.put("a", "k1", "choice:left", "result", 10);
+
+        assertEquals("result", store.find("a", "k1", "choice:left", String.class));
+        assertNull(store.find("b", "k1", "choice:left", String.class));
+        assertThrows(IllegalArgumentException.class, () -> store.find("a", "k1", "choice:right", String.class));
+    }
+
+    @Test
+    void bytesFollowReplacementAndPerUserEviction() {
+        IdempotencyStore store = store(1000);
+        store.put("a", "k1", "f", "one", 100);
+        store.put("a", "k1", "f", "one again", 150);
+        store.put("a", "k2", "f", "two", 200);
+        store.put("a", "k3", "f", "three", 300);
+
+        assertNull(store.find("a", "k1", "f", String.class));
+        assertEquals(500, store.totalBytes());
+    }
+
+    @Test
+    void leastRecentlyUsedUsersAreDroppedOverTheByteBound() {
+        IdempotencyStore store = store(1000);
+        store.put("a", "k1", "f", "a1", 400);
+        store.put("b", "k1", "f", "b1", 400);
+        store.find("a", "k1", "f", String.class);
+        store.put("c", "k1", "f", "c1", 400);
+
+        assertEquals("a1", store.find("a", "k1", "f", String.class));
+        assertNull(store.find("b", "k1", "f", String.class));
+        assertEquals("c1", store.find("c", "k1", "f", String.class));
+        assertEquals(800, store.totalBytes());
+    }
+
+    @Test
+    void oneUserCannotHoldMoreThanTheBound() {
+        IdempotencyStore store = store(1000);
+        store.put("a", "k1", "f", "small", 300);
+        store.put("a", "k2", "f", "large", 800);
+        store.put("a", "k3", "f", "huge", 2000);
+
+        assertNull(store.find("a", "k1", "f", String.class));
+        assertEquals("large", store.find("a", "k2", "f", String.class));
+        assertNull(store.find("a", "k3", "f", String.class));
+        assertEquals(800, store.totalBytes());
+    }
+}
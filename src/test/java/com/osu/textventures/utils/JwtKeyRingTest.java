@@ -0,0 +1,42 @@
+package com.osu.textventures.utils;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtKeyRingTest {
+
+    private static JwtKeyRing ring(String secret, String keysDir, String acceptHmac) {
+        JwtKeyRing ring = new JwtKeyRing();
+        ReflectionTestUtils.setField(ring, "secret", secret);
+        ReflectionTestUtils.setField(ring, "keysDir", keysDir);
+        ReflectionTestUtils.setField(ring, "activeKid", "");
+        ReflectionTestUtils.setField(ring, "acceptHmac", acceptHmac);
+        ReflectionTestUtils.setField(ring, "reloadIntervalMs", 0L);
+        return ring;
+    }
+
+    @Test
+    void hmacIsOnlyAcceptedByDefaultWithoutAKeyDirectory(@TempDir Path keys) throws Exception {
+        JwtKeyRing plain = ring(JwtKeyRing.DEFAULT_SECRET, "", "");
+        plain.init();
+        assertNotNull(plain.current().hmacKey());
+
+        JwtKeyRing migrated = ring(JwtKeyRing.DEFAULT_SECRET, keys.toString(), "");
+        migrated.init();
+        assertNull(migrated.current().hmacKey());
+    }
+
+    @Test
+    void acceptingHmacWithTheDefaultSecretIsRefused(@TempDir Path keys) throws Exception {
+        assertThrows(IllegalStateException.class, () -> ring(JwtKeyRing.DEFAULT_SECRET, keys.toString(), "true").init());
+
+        JwtKeyRing custom = ring("a-private-secret-that-is-long-enough-for-hmac-sha-256", keys.toString(), "true");
+        custom.init();
+        assertNotNull(custom.current().hmacKey());
+    }
+}
@@ -0,0 +1,54 @@
+package com.osu.textventures.utils;
+
+import com.osu.textventures.models.PlayerSummary;
+import io.jsonwebtoken.Claims;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtUtilTest {
+
+    private static final long DAY = TimeUnit.DAYS.toMillis(1);
+
+    private static JwtUtil jwtUtil() throws Exception {
+        JwtKeyRing ring = new JwtKeyRing();
+        ReflectionTestUtils.setField(ring, "secret", "a-private-secret-that-is-long-enough-for-hmac-sha-256");
+        ReflectionTestUtils.setField(ring, "keysDir", "");
+        ReflectionTestUtils.setField(ring, "activeKid", "");
+        ReflectionTestUtils.setField(ring, "acceptHmac", "");
+        ReflectionTestUtils.setField(ring, "reloadIntervalMs", 0L);
+        ring.init();
+        JwtUtil jwtUtil = new JwtUtil(ring);
+        ReflectionTestUtils.setField(jwtUtil, "expiration", DAY);
+        ReflectionTestUtils.setField(jwtUtil, "maxLifetime", 2 * DAY);
+        ReflectionTestUtils.setField(jwtUtil, "summaryMaxAge", 300000L);
+        return jwtUtil;
+    }
+
+    @Test
+    void refreshedTokensKeepTheLoginTimeAndItsLifetimeCap() throws Exception {
+        JwtUtil jwtUtil = jwtUtil();
+        long login = System.currentTimeMillis() - DAY - TimeUnit.HOURS.toMillis(12);
+
+        String token = jwtUtil.refreshToken("user-1", "hero", null, PlayerSummary.none(), login);
+        Claims claims = jwtUtil.validClaims(token);
+
+        assertEquals(login, jwtUtil.extractAuthTime(claims));
+        assertEquals((login + 2 * DAY) / 1000, claims.getExpiration().getTime() / 1000);
+        assertNull(jwtUtil.validClaims(jwtUtil.refreshToken("user-1", "hero", null, null, login - DAY)));
+    }
+
+    @Test
+    void freshLoginsGetTheFullExpiration() throws Exception {
+        JwtUtil jwtUtil = jwtUtil();
+        long before = System.currentTimeMillis();
+
+        Claims claims = jwtUtil.validClaims(jwtUtil.generateToken("user-1", "hero", null));
+
+        assertTrue(jwtUtil.extractAuthTime(claims) >= before);
+        assertTrue(claims.getExpiration().getTime() >= (before + DAY) / 1000 * 1000);
+    }
+}
@@ -0,0 +1,74 @@
+package com.osu.textventures.utils;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.osu.textventures.models.PlayerCharacter;
+
+import java.util.Map;
+
+/**
+ * Rough comparison of PlayerCodec against reflective bean mapping. Firestore's own mapper is not public API,
+ * so Jackson's bean-to-map conversion stands in for the reflection path. Run the main method directly.
+ */
+public class PlayerCodecBenchmark {
+
+    private static final int WARMUP = 20_000;
+    private static final int ITERATIONS = 200_000;
+    private static final TypeReference<Map<String, Object>> MAP = new TypeReference<>() {
+    };
+
+    public static void main(String[] args) {
+        PlayerCharacter player = PlayerCodecTest.samplePlayer();
+        for (int i = 0; i < 40; i++) {
+            player.addItem("item_" + (i % 8));
+            player.getGameHistory().add("You walked along the river for a while (" + i + ").");
+            player.getFlags().put("flag_" + i, i % 2 == 0);
+        }
+
+        ObjectMapper mapper = new ObjectMapper();
+        byte[] encoded = PlayerCodec.encode(player);
+        @SuppressWarnings("unchecked")
+        Map<String, Object> mapped = mapper.convertValue(player, MAP);
+
+        for (int i = 0; i < WARMUP; i++) {
+            PlayerCodec.decode(PlayerCodec.encode(player));
+            mapper.convertValue(mapper.convertValue(player, MAP), PlayerCharacter.class);
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            encoded = PlayerCodec.encode(player);
+        }
+        long codecEncode = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            PlayerCodec.decode(encoded);
+        }
+        long codecDecode = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            mapped = mapper.convertValue(player, MAP);
+        }
+        long reflectEncode = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            mapper.convertValue(mapped, PlayerCharacter.class);
+        }
+        long reflectDecode = System.nanoTime() - start;
+
+        System.out.printf("encoded size: %d bytes (JSON: %d bytes)%n", encoded.length, json(mapper, player).length());
+        System.out.printf("codec   encode %6d ns/op, decode %6d ns/op%n", codecEncode / ITERATIONS, codecDecode / ITERATIONS);
+        System.out.printf("reflect encode %6d ns/op, decode %6d ns/op%n", reflectEncode / ITERATIONS, reflectDecode / ITERATIONS);
+    }
+
+    private static String json(ObjectMapper mapper, PlayerCharacter player) {
+        try {
+            return mapper.writeValueAsString(player);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
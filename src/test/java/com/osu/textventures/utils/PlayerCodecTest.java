@@ -0,0 +1,110 @@
+package com.osu.textventures.utils;
+
+import com.osu.textventures.models.PlayerCharacter;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PlayerCodecTest {
+
+    static PlayerCharacter samplePlayer() {
+        Map<String, Integer> inventory = new LinkedHashMap<>();
+        inventory.put("rusty_sword", 1);
+        inventory.put("bread", 2);
+        List<String> history = new ArrayList<>(List.of(
+                "You wake up in a bamboo forest.",
+                "You found a Rusty Sword!",
+                "You wake up in a bamboo forest."
+        ));
+        Map<String, Boolean> flags = new HashMap<>(Map.of("foundKey", true, "jailUnlocked", false, "defeated_gruff_person", true));
+
+        PlayerCharacter player = new PlayerCharacter("user-1", "Hero", 3, 45, inventory, 16, 140, 0,
+                "bamboo_forest", history, flags);
+        player.setVersion(42);
+        return player;
+    }
+
+    @Test
+    void roundTripPreservesEveryField() {
+        PlayerCharacter player = samplePlayer();
+
+        assertEquals(player, PlayerCodec.decode(PlayerCodec.encode(player)));
+    }
+
+    @Test
+    void roundTripHandlesEmptyAndNullValues() {
+        PlayerCharacter player = new PlayerCharacter("user-2", null, 1, 0, new LinkedHashMap<>(), 10, 100, -5,
+                null, new ArrayList<>(), new HashMap<>());
+
+        assertEquals(player, PlayerCodec.decode(PlayerCodec.encode(player)));
+    }
+
+    @Test
+    void readersThatOnlyKnowTheItemListStillSeeTheInventory() {
+        PlayerCharacter player = samplePlayer();
+        byte[] withoutCounts = withoutSection(PlayerCodec.encode(player), 6);
+
+        assertEquals(player.getInventory(), PlayerCodec.decode(withoutCounts).getInventory());
+    }
+
+    // Drops one tagged section, standing in for a reader that does not know it.
+    private static byte[] withoutSection(byte[] encoded, int droppedTag) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        int[] position = {0};
+        out.write(encoded, 0, skipVarint(encoded, position));
+        while (position[0] < encoded.length) {
+            int start = position[0];
+            int tag = readVarint(encoded, position);
+            int length = readVarint(encoded, position);
+            position[0] += length;
+            if (tag != droppedTag) {
+                out.write(encoded, start, position[0] - start);
+            }
+        }
+        return out.toByteArray();
+    }
+
+    private static int skipVarint(byte[] data, int[] position) {
+        readVarint(data, position);
+        return position[0];
+    }
+
+    private static int readVarint(byte[] data, int[] position) {
+        int result = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte current = data[position[0]++];
+            result |= (current & 0x7F) << shift;
+            if ((current & 0x80) == 0) {
+                return result;
+            }
+        }
+    }
+
+    @Test
+    void unknownSectionsAreSkipped() {
+        byte[] encoded = PlayerCodec.encode(samplePlayer());
+        byte[] extended = new byte[encoded.length + 4];
+        System.arraycopy(encoded, 0, extended, 0, encoded.length);
+        extended[encoded.length] = 99;
+        extended[encoded.length + 1] = 2;
+        extended[encoded.length + 2] = 7;
+        extended[encoded.length + 3] = 7;
+
+        assertEquals(samplePlayer(), PlayerCodec.decode(extended));
+    }
+
+    @Test
+    void newerFormatVersionsAreRejected() {
+        byte[] encoded = PlayerCodec.encode(samplePlayer());
+        encoded[0] = PlayerCodec.FORMAT_VERSION + 1;
+
+        assertThrows(IllegalArgumentException.class, () -> PlayerCodec.decode(encoded));
+    }
+}
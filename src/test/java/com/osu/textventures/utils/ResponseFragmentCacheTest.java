@@ -0,0 +1,66 @@
+package com.osu.textventures.utils;
+
+import com.osu.textventures.models.Choice;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResponseFragmentCacheTest {
+
+    private static ResponseFragmentCache cache(int maxEntries) {
+        ResponseFragmentCache cache = new ResponseFragmentCache();
+        ReflectionTestUtils.setField(cache, "maxEntries", maxEntries);
+        return cache;
+    }
+
+    private static Choice choice(String id, String text) {
+        return new Choice(id, text, "move_location", "river", null, null);
+    }
+
+    @Test
+    void choicesAreCachedPerWorldVersionAndLocation() throws Exception {
+        ResponseFragmentCache cache = cache(10);
+        AtomicInteger writes = new AtomicInteger();
+        ResponseFragmentCache.FragmentWriter<Choice> writer = (generator, choice) -> {
+            writes.incrementAndGet();
+            generator.writeString(choice.getText());
+        };
+
+        assertEquals("\"Cross\"", cache.choice("v1/forest", choice("cross", "Cross"), writer));
+        assertEquals("\"Cross\"", cache.choice("v1/forest", choice("cross", "Cross"), writer));
+        assertEquals(1, writes.get());
+
+        assertEquals("\"Wade across\"", cache.choice("v2/forest", choice("cross", "Wade across"), writer));
+        assertEquals("\"Cross back\"", cache.choice("v1/river", choice("cross", "Cross back"), writer));
+        assertEquals(3, writes.get());
+    }
+
+    @Test
+    void theLeastRecentlyUsedFragmentsAreDropped() throws Exception {
+        ResponseFragmentCache cache = cache(2);
+        AtomicInteger writes = new AtomicInteger();
+        ResponseFragmentCache.FragmentWriter<Choice> writer = (generator, choice) -> {
+            writes.incrementAndGet();
+            generator.writeString(choice.getId());
+        };
+
+        cache.choice("v1/forest", choice("a", "A"), writer);
+        cache.choice("v1/forest", choice("b", "B"), writer);
+        cache.choice("v1/forest", choice("a", "A"), writer);
+        cache.choice("v1/forest", choice("c", "C"), writer);
+        assertEquals(3, writes.get());
+
+        cache.choice("v1/forest", choice("a", "A"), writer);
+        assertEquals(3, writes.get());
+        cache.choice("v1/forest", choice("b", "B"), writer);
+        assertEquals(4, writes.get());
+    }
+
+    @Test
+    void textsAreQuotedAndEscaped() {
+        assertEquals("\"A \\\"wide\\\" river\"", cache(10).text("A \"wide\" river"));
+    }
+}